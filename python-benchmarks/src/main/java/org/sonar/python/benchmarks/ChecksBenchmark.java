@@ -0,0 +1,112 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.SonarProduct;
+import org.sonar.plugins.python.api.PythonCheck;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.checks.CheckList;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+
+/**
+ * Execution of all the rules of the Python repository on the corpus, in the same way as the scanner runs them.
+ * Visitor contexts, which compute the symbol tables and types, are created before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChecksBenchmark {
+
+  @Param("300")
+  int maxFiles;
+
+  private Corpus corpus;
+  private ProjectLevelTypeTable projectLevelTypeTable;
+  private final List<PythonSubscriptionCheck> subscriptionChecks = new ArrayList<>();
+  private final List<PythonCheck> otherChecks = new ArrayList<>();
+  private final List<PythonVisitorContext> contexts = new ArrayList<>();
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    corpus = Corpus.load(maxFiles);
+    projectLevelTypeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+    for (Class<?> checkClass : CheckList.getChecks()) {
+      PythonCheck check = instantiate(checkClass);
+      if (check instanceof PythonSubscriptionCheck subscriptionCheck) {
+        subscriptionChecks.add(subscriptionCheck);
+      } else {
+        otherChecks.add(check);
+      }
+    }
+  }
+
+  private static PythonCheck instantiate(Class<?> checkClass) throws ReflectiveOperationException {
+    try {
+      return (PythonCheck) checkClass.getDeclaredConstructor().newInstance();
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException("Unable to instantiate " + checkClass.getName(), e.getCause());
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void createContexts() {
+    contexts.clear();
+    List<Corpus.CorpusFile> files = corpus.files();
+    List<FileInput> trees = corpus.makeTrees();
+    for (int i = 0; i < trees.size(); i++) {
+      contexts.add(new PythonVisitorContext(trees.get(i), files.get(i), null, "", ProjectLevelSymbolTable.empty(), projectLevelTypeTable,
+        CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE));
+    }
+  }
+
+  @Benchmark
+  public void checks() {
+    for (PythonVisitorContext context : contexts) {
+      SubscriptionVisitor.analyze(subscriptionChecks, context);
+      for (PythonCheck check : otherChecks) {
+        check.scanFile(context);
+      }
+    }
+  }
+}
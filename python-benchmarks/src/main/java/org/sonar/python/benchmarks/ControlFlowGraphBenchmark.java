@@ -0,0 +1,104 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.python.cfg.ControlFlowGraphBuilder;
+import org.sonar.python.cfg.fixpoint.DefinedVariablesAnalysis;
+import org.sonar.python.cfg.fixpoint.LiveVariablesAnalysis;
+
+/**
+ * Control flow graphs of all the functions of the corpus, and the data flow analyses computed on them by the checks.
+ * Graphs are built through {@link ControlFlowGraphBuilder} rather than {@link ControlFlowGraph#build}, which memoizes them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ControlFlowGraphBenchmark {
+
+  @Param("300")
+  int maxFiles;
+
+  private final List<FunctionDef> functionDefs = new ArrayList<>();
+  private final List<ControlFlowGraph> cfgs = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    Corpus corpus = Corpus.load(maxFiles);
+    List<Corpus.CorpusFile> files = corpus.files();
+    List<FileInput> trees = corpus.makeTreesWithSymbols();
+    for (int i = 0; i < trees.size(); i++) {
+      Corpus.CorpusFile file = files.get(i);
+      trees.get(i).accept(new BaseTreeVisitor() {
+        @Override
+        public void visitFunctionDef(FunctionDef functionDef) {
+          ControlFlowGraph cfg = ControlFlowGraph.build(functionDef, file);
+          if (cfg != null) {
+            functionDefs.add(functionDef);
+            cfgs.add(cfg);
+          }
+          super.visitFunctionDef(functionDef);
+        }
+      });
+    }
+  }
+
+  @Benchmark
+  public void buildCfgs(Blackhole blackhole) {
+    for (FunctionDef functionDef : functionDefs) {
+      blackhole.consume(new ControlFlowGraphBuilder(functionDef.body()).getCfg());
+    }
+  }
+
+  @Benchmark
+  public void liveVariables(Blackhole blackhole) {
+    for (ControlFlowGraph cfg : cfgs) {
+      blackhole.consume(LiveVariablesAnalysis.analyze(cfg));
+    }
+  }
+
+  @Benchmark
+  public void definedVariables(Blackhole blackhole) {
+    for (int i = 0; i < cfgs.size(); i++) {
+      blackhole.consume(DefinedVariablesAnalysis.analyze(cfgs.get(i), functionDefs.get(i).localVariables()));
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.RecognitionException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.tree.PythonTreeMaker;
+
+/**
+ * Python files the benchmarks are run on, drawn from the sources of the ruling integration tests ({@code its/sources} submodule).
+ * <p>
+ * Another directory can be given with the {@value #CORPUS_DIRECTORY_PROPERTY} system property. Files are taken in path order
+ * and files which can't be parsed are left out, so that a given directory and file count always give the same corpus.
+ */
+final class Corpus {
+
+  static final String CORPUS_DIRECTORY_PROPERTY = "sonar.python.benchmarks.corpus";
+
+  private final List<CorpusFile> files;
+  private final List<AstNode> astNodes;
+
+  private Corpus(List<CorpusFile> files, List<AstNode> astNodes) {
+    this.files = files;
+    this.astNodes = astNodes;
+  }
+
+  static Corpus load(int maxFiles) {
+    Path directory = corpusDirectory();
+    PythonParser parser = PythonParser.create();
+    List<CorpusFile> files = new ArrayList<>();
+    List<AstNode> astNodes = new ArrayList<>();
+    for (Path path : pythonFiles(directory)) {
+      if (files.size() == maxFiles) {
+        break;
+      }
+      CorpusFile file = CorpusFile.read(path);
+      try {
+        astNodes.add(parser.parse(file.content()));
+        files.add(file);
+      } catch (RecognitionException e) {
+        // unparsable files are not representative of the analysis
+      }
+    }
+    if (files.isEmpty()) {
+      throw new IllegalStateException("No Python file found in " + directory.toAbsolutePath());
+    }
+    return new Corpus(files, astNodes);
+  }
+
+  private static Path corpusDirectory() {
+    String property = System.getProperty(CORPUS_DIRECTORY_PROPERTY);
+    if (property != null) {
+      return Path.of(property);
+    }
+    // benchmarks are run either from the root of the repository or from this module
+    return Stream.of(Path.of("its", "sources"), Path.of("..", "its", "sources"))
+      .filter(Files::isDirectory)
+      .findFirst()
+      .orElseThrow(() -> new IllegalStateException("Corpus not found: run \"git submodule update --init its/sources\" or set -D" + CORPUS_DIRECTORY_PROPERTY));
+  }
+
+  private static List<Path> pythonFiles(Path directory) {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths
+        .filter(path -> path.toString().endsWith(".py") && Files.isRegularFile(path))
+        .sorted()
+        .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  List<CorpusFile> files() {
+    return files;
+  }
+
+  List<AstNode> astNodes() {
+    return astNodes;
+  }
+
+  /**
+   * Makes new trees, without any symbol.
+   */
+  List<FileInput> makeTrees() {
+    PythonTreeMaker treeMaker = new PythonTreeMaker();
+    return astNodes.stream().map(treeMaker::fileInput).toList();
+  }
+
+  /**
+   * Makes new trees, with the symbols and v1 types computed by {@link SymbolTableBuilder}.
+   */
+  List<FileInput> makeTreesWithSymbols() {
+    List<FileInput> trees = makeTrees();
+    for (int i = 0; i < trees.size(); i++) {
+      new SymbolTableBuilder("", files.get(i)).visitFileInput(trees.get(i));
+    }
+    return trees;
+  }
+
+  record CorpusFile(Path path, String content) implements PythonFile {
+
+    static CorpusFile read(Path path) {
+      try {
+        return new CorpusFile(path, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public String fileName() {
+      return path.getFileName().toString();
+    }
+
+    @Override
+    public URI uri() {
+      return path.toUri();
+    }
+
+    @Override
+    public String key() {
+      return path.toString();
+    }
+  }
+}
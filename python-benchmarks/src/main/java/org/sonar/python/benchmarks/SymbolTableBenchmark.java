@@ -0,0 +1,83 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
+
+/**
+ * Symbol tables v1 (which includes the v1 type inference) and v2 of the corpus.
+ * As symbols are stored in the trees, fresh trees are made before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SymbolTableBenchmark {
+
+  @Param("300")
+  int maxFiles;
+
+  private Corpus corpus;
+  private List<FileInput> trees;
+
+  @Setup
+  public void loadCorpus() {
+    corpus = Corpus.load(maxFiles);
+  }
+
+  @Setup(Level.Invocation)
+  public void makeTrees() {
+    trees = corpus.makeTrees();
+  }
+
+  @Benchmark
+  public void symbolTableV1() {
+    List<Corpus.CorpusFile> files = corpus.files();
+    for (int i = 0; i < trees.size(); i++) {
+      new SymbolTableBuilder("", files.get(i)).visitFileInput(trees.get(i));
+    }
+  }
+
+  @Benchmark
+  public void symbolTableV2(Blackhole blackhole) {
+    for (FileInput tree : trees) {
+      blackhole.consume(new SymbolTableBuilderV2(tree).build());
+    }
+  }
+}
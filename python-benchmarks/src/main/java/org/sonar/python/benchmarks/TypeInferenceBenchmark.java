@@ -0,0 +1,86 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.semantic.v2.SymbolTable;
+import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
+import org.sonar.python.semantic.v2.TypeInferenceV2;
+
+/**
+ * Type inference v2 of the corpus, with a type table shared by all the files as during an analysis.
+ * Trees and their symbol tables are computed again before each invocation, as inferred types are stored in the trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypeInferenceBenchmark {
+
+  @Param("300")
+  int maxFiles;
+
+  private Corpus corpus;
+  private ProjectLevelTypeTable projectLevelTypeTable;
+  private List<FileInput> trees;
+  private List<SymbolTable> symbolTables;
+
+  @Setup
+  public void loadCorpus() {
+    corpus = Corpus.load(maxFiles);
+    projectLevelTypeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+  }
+
+  @Setup(Level.Invocation)
+  public void buildSymbolTables() {
+    trees = corpus.makeTreesWithSymbols();
+    symbolTables = new ArrayList<>();
+    for (FileInput tree : trees) {
+      symbolTables.add(new SymbolTableBuilderV2(tree).build());
+    }
+  }
+
+  @Benchmark
+  public void typeInferenceV2() {
+    List<Corpus.CorpusFile> files = corpus.files();
+    for (int i = 0; i < trees.size(); i++) {
+      new TypeInferenceV2(projectLevelTypeTable, files.get(i), symbolTables.get(i)).inferTypes(trees.get(i));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.python.types.TypeShed;
+
+/**
+ * Deserialization of the typeshed protobuf descriptors into symbols, for the builtins and for commonly imported modules.
+ * Loaded symbols are cached by {@link TypeShed}, which is reset before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypeShedBenchmark {
+
+  private static final List<String> MODULES = List.of("os", "sys", "typing", "collections", "re", "json", "datetime", "functools",
+    "itertools", "logging", "subprocess", "unittest", "socket", "threading", "asyncio");
+
+  @Setup(Level.Invocation)
+  public void reset() {
+    TypeShed.resetBuiltinSymbols();
+  }
+
+  @Benchmark
+  public void builtins(Blackhole blackhole) {
+    blackhole.consume(TypeShed.builtinSymbols());
+  }
+
+  @Benchmark
+  public void modules(Blackhole blackhole) {
+    for (String module : MODULES) {
+      blackhole.consume(TypeShed.symbolsForModule(module));
+    }
+  }
+}
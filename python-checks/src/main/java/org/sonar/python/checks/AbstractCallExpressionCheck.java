@@ -41,7 +41,7 @@ public abstract class AbstractCallExpressionCheck extends PythonSubscriptionChec
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::visitNode);
+    context.registerCallConsumer(functionsToCheck(), this::visitNode);
   }
 
   public void visitNode(SubscriptionContext ctx) {
@@ -45,6 +45,7 @@ public class CipherBlockChainingCheck extends PythonSubscriptionCheck {
   private static final HashSet<String> PYCRYPTO_SENSITIVE_FQNS = new HashSet<>();
   private static final String CRYPTOGRAPHY_SENSITIVE_FQN = "cryptography.hazmat.primitives.ciphers.Cipher";
   private static final String MESSAGE = "Use a dynamically-generated, random IV.";
+  private static final Set<String> CALLEE_FQNS = new HashSet<>();
 
   static {
     for (String libraryName : asList("Cryptodome", "Crypto")) {
@@ -52,11 +53,13 @@ public class CipherBlockChainingCheck extends PythonSubscriptionCheck {
         PYCRYPTO_SENSITIVE_FQNS.add(String.format("%s.Cipher.%s.new", libraryName, vulnerableMethodName));
       }
     }
+    CALLEE_FQNS.addAll(PYCRYPTO_SENSITIVE_FQNS);
+    CALLEE_FQNS.add(CRYPTOGRAPHY_SENSITIVE_FQN);
   }
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, CipherBlockChainingCheck::checkCallExpression);
+    context.registerCallConsumer(CALLEE_FQNS, CipherBlockChainingCheck::checkCallExpression);
   }
 
   private static void checkCallExpression(SubscriptionContext ctx) {
@@ -21,6 +21,7 @@ package org.sonar.python.checks;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
@@ -48,7 +49,7 @@ public class DjangoNonDictSerializationCheck extends PythonSubscriptionCheck {
   @Override
   public void initialize(Context context) {
 
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(Set.of(JSON_RESPONSE_FUNCTION_NAME), ctx -> {
       CallExpression callExpression = (CallExpression) ctx.syntaxNode();
       Symbol symbol = callExpression.calleeSymbol();
       if (symbol != null && JSON_RESPONSE_FUNCTION_NAME.equals(symbol.fullyQualifiedName())) {
@@ -21,6 +21,7 @@ package org.sonar.python.checks;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
@@ -50,7 +51,7 @@ public class DjangoRenderContextCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, DjangoRenderContextCheck::checkForDjangoRender);
+    context.registerCallConsumer(Set.of(RENDER_FUNCTION), DjangoRenderContextCheck::checkForDjangoRender);
   }
 
   private static void checkForDjangoRender(SubscriptionContext ctx) {
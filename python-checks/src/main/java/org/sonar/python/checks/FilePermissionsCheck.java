@@ -23,6 +23,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -44,6 +46,7 @@ public class FilePermissionsCheck extends PythonSubscriptionCheck {
 
   private static final List<String> CHMOD_FUNCTIONS = Arrays.asList("os.chmod", "os.lchmod", "os.fchmod");
   private static final String UMASK_FUNCTION = "os.umask";
+  private static final Set<String> CALLEE_FQNS = Stream.concat(CHMOD_FUNCTIONS.stream(), Stream.of(UMASK_FUNCTION)).collect(Collectors.toSet());
   private static final List<String> SENSITIVE_CONSTANTS = Arrays.asList("stat.S_IRWXO", "stat.S_IROTH", "stat.S_IWOTH", "stat.S_IXOTH");
   private static final int CHMOD_MODE_ARG_POSITION = 1;
   private static final int UMASK_MODE_ARG_POSITION = 0;
@@ -54,7 +57,7 @@ public class FilePermissionsCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, FilePermissionsCheck::checkCallExpression);
+    context.registerCallConsumer(CALLEE_FQNS, FilePermissionsCheck::checkCallExpression);
   }
 
   private static void checkCallExpression(SubscriptionContext ctx) {
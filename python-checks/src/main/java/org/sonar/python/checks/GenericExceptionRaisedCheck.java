@@ -27,6 +27,7 @@ import org.sonar.plugins.python.api.tree.RaiseStatement;
 import org.sonar.plugins.python.api.tree.Tree.Kind;
 import org.sonar.python.types.v2.PythonType;
 import org.sonar.python.types.v2.TriBool;
+import org.sonar.python.types.v2.TypeCheckBuilder;
 
 import static org.sonar.plugins.python.api.types.BuiltinTypes.BASE_EXCEPTION;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.EXCEPTION;
@@ -34,8 +35,15 @@ import static org.sonar.plugins.python.api.types.BuiltinTypes.EXCEPTION;
 @Rule(key = "S112")
 public class GenericExceptionRaisedCheck extends PythonSubscriptionCheck {
 
+  private TypeCheckBuilder isException;
+  private TypeCheckBuilder isBaseException;
+
   @Override
   public void initialize(Context context) {
+    context.registerSyntaxNodeConsumer(Kind.FILE_INPUT, ctx -> {
+      isException = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName(EXCEPTION);
+      isBaseException = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName(BASE_EXCEPTION);
+    });
     context.registerSyntaxNodeConsumer(Kind.RAISE_STMT, ctx -> {
       RaiseStatement raise = (RaiseStatement) ctx.syntaxNode();
       List<Expression> expressions = raise.expressions();
@@ -44,9 +52,7 @@ public class GenericExceptionRaisedCheck extends PythonSubscriptionCheck {
       }
       Expression expression = expressions.get(0);
       PythonType pythonType = expression.typeV2();
-      TriBool isException = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName(EXCEPTION).check(pythonType);
-      TriBool isBaseException = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName(BASE_EXCEPTION).check(pythonType);
-      if (isException == TriBool.TRUE || isBaseException == TriBool.TRUE) {
+      if (isException.check(pythonType) == TriBool.TRUE || isBaseException.check(pythonType) == TriBool.TRUE) {
         ctx.addIssue(expression, "Replace this generic exception class with a more specific one.");
       }
     });
@@ -19,6 +19,7 @@
  */
 package org.sonar.python.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -42,7 +43,7 @@ public class IncorrectParameterDatetimeConstructorsCheck extends PythonSubscript
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, IncorrectParameterDatetimeConstructorsCheck::checkCallExpr);
+    context.registerCallConsumer(Set.of("datetime.date", "datetime.time", "datetime.datetime"), IncorrectParameterDatetimeConstructorsCheck::checkCallExpr);
   }
 
   private static void checkCallExpr(SubscriptionContext context) {
@@ -47,7 +47,7 @@ public class InvalidOpenModeCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(Set.of("open"), ctx -> {
       CallExpression callExpression = (CallExpression) ctx.syntaxNode();
       Symbol calleeSymbol = callExpression.calleeSymbol();
       if (calleeSymbol == null || !"open".equals(calleeSymbol.fullyQualifiedName())) {
@@ -26,12 +26,17 @@ import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.types.v2.PythonType;
 import org.sonar.python.types.v2.TriBool;
+import org.sonar.python.types.v2.TypeCheckBuilder;
 
 import static org.sonar.python.tree.TreeUtils.nameFromExpression;
 
 public abstract class NonCallableCalled extends PythonSubscriptionCheck {
+
+  private TypeCheckBuilder hasCallMember;
+
   @Override
   public void initialize(Context context) {
+    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> hasCallMember = ctx.typeChecker().typeCheckBuilder().hasMember("__call__"));
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
       var callExpression = (CallExpression) ctx.syntaxNode();
       var callee = callExpression.callee();
@@ -46,7 +51,7 @@ public abstract class NonCallableCalled extends PythonSubscriptionCheck {
   }
 
   protected boolean isCallMemberMissing(SubscriptionContext ctx, PythonType calleeType) {
-    return ctx.typeChecker().typeCheckBuilder().hasMember("__call__").check(calleeType) == TriBool.FALSE;
+    return hasCallMember.check(calleeType) == TriBool.FALSE;
   }
 
   protected boolean isException(SubscriptionContext ctx, PythonType calleeType) {
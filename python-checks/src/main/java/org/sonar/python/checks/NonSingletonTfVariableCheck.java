@@ -19,6 +19,7 @@
  */
 package org.sonar.python.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -31,7 +32,7 @@ import org.sonar.python.tree.TreeUtils;
 public class NonSingletonTfVariableCheck extends PythonSubscriptionCheck {
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, NonSingletonTfVariableCheck::checkCallExpression);
+    context.registerCallConsumer(Set.of("tensorflow.Variable"), NonSingletonTfVariableCheck::checkCallExpression);
   }
 
   private static void checkCallExpression(SubscriptionContext ctx) {
@@ -21,13 +21,15 @@ package org.sonar.python.checks;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 
 @Rule(key = "S6711")
 public class NumpyRandomStateCheck extends PythonSubscriptionCheck {
@@ -89,9 +91,12 @@ public class NumpyRandomStateCheck extends PythonSubscriptionCheck {
       "numpy.random.weibull",
       "numpy.random.zipf");
 
+  private static final Set<String> CALLEE_FQNS = Stream.concat(LEGACY_RANDOM_FUNCTIONS.stream(), Stream.of(LEGACY_MODULE_NAME, LEGACY_MODULE_NAME + ".*"))
+    .collect(Collectors.toSet());
+
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, NumpyRandomStateCheck::checkNumpyRandomState);
+    context.registerCallConsumer(CALLEE_FQNS, NumpyRandomStateCheck::checkNumpyRandomState);
   }
 
   private static void checkNumpyRandomState(SubscriptionContext ctx) {
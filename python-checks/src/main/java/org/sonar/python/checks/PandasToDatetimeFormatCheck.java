@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
@@ -89,7 +90,7 @@ public class PandasToDatetimeFormatCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
+    context.registerCallConsumer(Set.of(PANDAS_TO_DATETIME_FQN), this::checkCallExpression);
   }
 
   void checkCallExpression(SubscriptionContext ctx) {
@@ -45,7 +45,7 @@ public class PredictableSaltCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> handleCallExpression((CallExpression) ctx.syntaxNode(), ctx));
+    context.registerCallConsumer(sensitiveArgumentByFQN().keySet(), ctx -> handleCallExpression((CallExpression) ctx.syntaxNode(), ctx));
   }
 
   private void handleCallExpression(CallExpression callExpression, SubscriptionContext ctx) {
@@ -22,6 +22,7 @@ package org.sonar.python.checks;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -45,7 +46,7 @@ public class PytzTimeZoneInDatetimeConstructorCheck extends PythonSubscriptionCh
     context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT,
       ctx -> reachingDefinitionsAnalysis = new ReachingDefinitionsAnalysis(ctx.pythonFile()));
 
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCallExpression);
+    context.registerCallConsumer(Set.of("datetime.datetime"), this::checkCallExpression);
   }
 
   private void checkCallExpression(SubscriptionContext context) {
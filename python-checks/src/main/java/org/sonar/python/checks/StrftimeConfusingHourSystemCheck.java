@@ -19,6 +19,7 @@
  */
 package org.sonar.python.checks;
 
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -40,7 +41,7 @@ public class StrftimeConfusingHourSystemCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, StrftimeConfusingHourSystemCheck::checkCallExpr);
+    context.registerCallConsumer(Set.of("datetime.time.strftime"), StrftimeConfusingHourSystemCheck::checkCallExpr);
   }
 
   private static void checkExpression(SubscriptionContext context, Expression expression) {
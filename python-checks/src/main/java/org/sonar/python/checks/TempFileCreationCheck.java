@@ -22,11 +22,11 @@ package org.sonar.python.checks;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.symbols.Symbol;
 
 @Rule(key = "S5445")
@@ -36,7 +36,7 @@ public class TempFileCreationCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(Set.copyOf(SUSPICIOUS_CALLS), ctx -> {
       CallExpression callExpr = (CallExpression) ctx.syntaxNode();
       Symbol symbol = callExpr.calleeSymbol();
       isInsecureTempFile(symbol).ifPresent(s -> ctx.addIssue(callExpr, String.format("'%s' is insecure. Use 'tempfile.TemporaryFile' instead", s)));
@@ -20,11 +20,11 @@
 package org.sonar.python.checks;
 
 import java.util.Optional;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.tree.TreeUtils;
 
 @Rule(key = "S6925")
@@ -34,7 +34,7 @@ public class TfGatherDeprecatedValidateIndicesCheck extends PythonSubscriptionCh
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, TfGatherDeprecatedValidateIndicesCheck::checkCallExpr);
+    context.registerCallConsumer(Set.of(FQN), TfGatherDeprecatedValidateIndicesCheck::checkCallExpr);
   }
 
   private static void checkCallExpr(SubscriptionContext context) {
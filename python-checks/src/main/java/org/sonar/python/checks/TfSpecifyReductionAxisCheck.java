@@ -27,7 +27,6 @@ import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.tree.TreeUtils;
 
 @Rule(key = "S6929")
@@ -49,7 +48,7 @@ public class TfSpecifyReductionAxisCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, TfSpecifyReductionAxisCheck::checkCallExpr);
+    context.registerCallConsumer(REDUCTION_FUNCTIONS_FQN, TfSpecifyReductionAxisCheck::checkCallExpr);
   }
 
   private static void checkCallExpr(SubscriptionContext context) {
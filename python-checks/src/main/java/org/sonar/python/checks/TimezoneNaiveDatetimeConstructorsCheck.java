@@ -25,7 +25,6 @@ import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 
 @Rule(key = "S6903")
 public class TimezoneNaiveDatetimeConstructorsCheck extends PythonSubscriptionCheck {
@@ -34,7 +33,7 @@ public class TimezoneNaiveDatetimeConstructorsCheck extends PythonSubscriptionCh
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, TimezoneNaiveDatetimeConstructorsCheck::checkCallExpr);
+    context.registerCallConsumer(NON_COMPLIANT_FQNS, TimezoneNaiveDatetimeConstructorsCheck::checkCallExpr);
   }
 
   private static void checkCallExpr(SubscriptionContext context) {
@@ -32,6 +32,7 @@ import org.sonar.python.types.v2.TypeCheckBuilder;
 
 import static org.sonar.plugins.python.api.tree.Tree.Kind.ASSIGNMENT_STMT;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.CALL_EXPR;
+import static org.sonar.plugins.python.api.tree.Tree.Kind.FILE_INPUT;
 import static org.sonar.plugins.python.api.tree.Tree.Kind.REGULAR_ARGUMENT;
 
 @Rule(key = "S3699")
@@ -39,18 +40,20 @@ public class UseOfEmptyReturnValueCheck extends PythonSubscriptionCheck {
 
   private static final String MESSAGE = "Remove this use of the output from \"%s\"; \"%s\" doesn’t return anything.";
 
+  private TypeCheckBuilder isNoneType;
+
   @Override
   public void initialize(Context context) {
+    context.registerSyntaxNodeConsumer(FILE_INPUT, ctx -> isNoneType = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName("NoneType"));
     context.registerSyntaxNodeConsumer(ASSIGNMENT_STMT, ctx -> checkReturnValue(((AssignmentStatement) ctx.syntaxNode()).assignedValue(), ctx));
     context.registerSyntaxNodeConsumer(REGULAR_ARGUMENT, ctx -> checkReturnValue(((RegularArgument) ctx.syntaxNode()).expression(), ctx));
   }
 
-  private static void checkReturnValue(Expression expression, SubscriptionContext ctx) {
+  private void checkReturnValue(Expression expression, SubscriptionContext ctx) {
     if (!expression.is(CALL_EXPR)) {
       return;
     }
-    TypeCheckBuilder typeCheckBuilder = ctx.typeChecker().typeCheckBuilder().isBuiltinWithName("NoneType");
-    boolean noneType = typeCheckBuilder.check(expression.typeV2()) == TriBool.TRUE;
+    boolean noneType = isNoneType.check(expression.typeV2()) == TriBool.TRUE;
     if (noneType) {
       CallExpression callExpression = (CallExpression) expression;
       Optional.ofNullable(callExpression.calleeSymbol())
@@ -29,7 +29,6 @@ import org.sonar.plugins.python.api.SubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 
 /**
  * Since most CDK related checks check arguments of method calls or object initializations,
@@ -43,8 +42,8 @@ public abstract class AbstractCdkResourceCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(SubscriptionCheck.Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::visitNode);
     registerFqnConsumer();
+    context.registerCallConsumer(fqnCallConsumers.keySet(), this::visitNode);
   }
 
   protected void visitNode(SubscriptionContext ctx) {
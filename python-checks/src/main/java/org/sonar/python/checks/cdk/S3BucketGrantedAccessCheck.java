@@ -52,6 +52,12 @@ public class S3BucketGrantedAccessCheck extends AbstractS3BucketCheck {
     super.initialize(context);
     context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> isAwsCdkImported = false);
     context.registerSyntaxNodeConsumer(Tree.Kind.IMPORT_FROM, this::checkAWSImport);
+    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkGrantPublicAccess);
+  }
+
+  @Override
+  protected void registerFqnConsumer() {
+    checkFqns(S3_BUCKET_FQNS, visitBucketConstructor());
   }
 
   private void checkAWSImport(SubscriptionContext ctx) {
@@ -64,18 +70,10 @@ public class S3BucketGrantedAccessCheck extends AbstractS3BucketCheck {
       .ifPresent(n -> isAwsCdkImported = true);
   }
 
-  @Override
-  protected void visitNode(SubscriptionContext ctx) {
+  private void checkGrantPublicAccess(SubscriptionContext ctx) {
     CallExpression node = (CallExpression) ctx.syntaxNode();
-    Optional<Symbol> symbol = Optional.ofNullable(node.calleeSymbol());
-
-    symbol
-      .map(Symbol::fullyQualifiedName)
-      .filter(S3_BUCKET_FQNS::contains)
-      .ifPresent(s -> visitBucketConstructor().accept(ctx, node));
-
     if (isAwsCdkImported) {
-      symbol
+      Optional.ofNullable(node.calleeSymbol())
         .map(Symbol::name)
         .filter("grant_public_access"::equals)
         .ifPresent(s -> ctx.addIssue(node.callee(), MESSAGE_GRANT));
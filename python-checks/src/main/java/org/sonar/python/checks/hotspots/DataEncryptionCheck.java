@@ -21,10 +21,10 @@ package org.sonar.python.checks.hotspots;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.symbols.Symbol;
 
 @Rule(key = "S4787")
@@ -72,7 +72,7 @@ public class DataEncryptionCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(Set.copyOf(FUNCTIONS_TO_CHECK), ctx -> {
       CallExpression callExpression = (CallExpression) ctx.syntaxNode();
       Symbol symbol = callExpression.calleeSymbol();
       if (symbol != null && FUNCTIONS_TO_CHECK.contains(symbol.fullyQualifiedName())) {
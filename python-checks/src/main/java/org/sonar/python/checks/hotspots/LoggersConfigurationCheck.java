@@ -21,6 +21,7 @@ package org.sonar.python.checks.hotspots;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
@@ -52,7 +53,7 @@ public class LoggersConfigurationCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(Set.copyOf(FUNCTIONS_TO_CHECK), ctx -> {
       CallExpression callExpressionTree = (CallExpression) ctx.syntaxNode();
       Symbol symbol = callExpressionTree.calleeSymbol();
       if (symbol != null && FUNCTIONS_TO_CHECK.contains(symbol.fullyQualifiedName())) {
@@ -52,7 +52,7 @@ public class RegexCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+    context.registerCallConsumer(questionableFunctions, ctx -> {
       CallExpression call = (CallExpression) ctx.syntaxNode();
       Symbol symbol = call.calleeSymbol();
       if (symbol != null && questionableFunctions.contains(symbol.fullyQualifiedName()) && !call.arguments().isEmpty()) {
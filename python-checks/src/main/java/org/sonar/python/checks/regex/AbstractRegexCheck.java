@@ -81,7 +81,7 @@ public abstract class AbstractRegexCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCall);
+    context.registerCallConsumer(lookedUpFunctions().keySet(), this::checkCall);
   }
 
   public abstract void checkRegex(RegexParseResult regexParseResult, CallExpression regexFunctionCall);
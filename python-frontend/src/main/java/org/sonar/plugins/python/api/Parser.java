@@ -33,7 +33,7 @@ public class Parser {
 
   public FileInput parse(String code)  {
     AstNode astNode = astParser.parse(code);
-    return new PythonTreeMaker().fileInput(astNode);
+    return new PythonTreeMaker().fileInputReleasingAstNodes(astNode);
   }
 
 }
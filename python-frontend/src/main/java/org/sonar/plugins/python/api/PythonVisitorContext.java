@@ -30,6 +30,7 @@ import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.python.types.v2.TypeChecker;
 import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolTableBuilder;
 import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
@@ -50,9 +51,8 @@ public class PythonVisitorContext extends PythonInputFileContext {
     this.parsingException = null;
     SymbolTableBuilder symbolTableBuilder = packageName != null ? new SymbolTableBuilder(packageName, pythonFile) : new SymbolTableBuilder(pythonFile);
     symbolTableBuilder.visitFileInput(rootTree);
-    var symbolTable = new SymbolTableBuilderV2(rootTree).build();
     var projectLevelTypeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty(), new TypeShed(ProjectLevelSymbolTable.empty()));
-    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+    inferTypesV2(rootTree, pythonFile, projectLevelTypeTable);
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
@@ -63,23 +63,27 @@ public class PythonVisitorContext extends PythonInputFileContext {
     this.parsingException = null;
     new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
 
-    var symbolTable = new SymbolTableBuilderV2(rootTree)
-      .build();
     var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable, new TypeShed(projectLevelSymbolTable));
-    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+    inferTypesV2(rootTree, pythonFile, projectLevelTypeTable);
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
     ProjectLevelSymbolTable projectLevelSymbolTable, TypeShed typeShed, CacheContext cacheContext, SonarProduct sonarProduct) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, new ProjectLevelTypeTable(projectLevelSymbolTable, typeShed),
+      cacheContext, sonarProduct);
+  }
+
+  /**
+   * The given type table can be shared by all the files of an analysis, as long as it has been built from the given project-level symbol table.
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, ProjectLevelTypeTable projectLevelTypeTable, CacheContext cacheContext, SonarProduct sonarProduct) {
     super(pythonFile, workingDirectory, cacheContext, sonarProduct);
     this.rootTree = rootTree;
     this.parsingException = null;
     new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
-    var symbolTable = new SymbolTableBuilderV2(rootTree)
-      .build();
-    var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable, typeShed);
-    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+    inferTypesV2(rootTree, pythonFile, projectLevelTypeTable);
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
@@ -97,6 +101,16 @@ public class PythonVisitorContext extends PythonInputFileContext {
     this.typeChecker = new TypeChecker(new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty()));
   }
 
+  private static void inferTypesV2(FileInput rootTree, PythonFile pythonFile, ProjectLevelTypeTable projectLevelTypeTable) {
+    AnalysisProfiler.Measure symbolTableMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_SYMBOL_TABLE_V2);
+    var symbolTable = new SymbolTableBuilderV2(rootTree)
+      .build();
+    symbolTableMeasure.stop();
+    AnalysisProfiler.Measure typeInferenceMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_TYPE_INFERENCE_V2);
+    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+    typeInferenceMeasure.stop();
+  }
+
   public FileInput rootTree() {
     return rootTree;
   }
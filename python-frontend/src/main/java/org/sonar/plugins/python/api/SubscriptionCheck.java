@@ -19,7 +19,10 @@
  */
 package org.sonar.plugins.python.api;
 
+import java.util.Set;
 import java.util.function.Consumer;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 
 public interface SubscriptionCheck {
@@ -29,5 +32,26 @@ public interface SubscriptionCheck {
 
     void registerSyntaxNodeConsumer(Tree.Kind elementType, Consumer<SubscriptionContext> consumer);
 
+    /**
+     * Registers a consumer of the call expressions whose callee symbol has one of the given fully qualified names.
+     * A name ending with ".*" stands for all the names it is a prefix of, e.g. "aws_cdk.*".
+     * <p>
+     * This is equivalent to filtering the nodes of kind {@link Tree.Kind#CALL_EXPR} on {@link CallExpression#calleeSymbol()}, but allows
+     * the analyzer to dispatch each call expression to the interested consumers only.
+     */
+    default void registerCallConsumer(Set<String> calleeFqns, Consumer<SubscriptionContext> consumer) {
+      registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+        Symbol calleeSymbol = ((CallExpression) ctx.syntaxNode()).calleeSymbol();
+        String calleeFqn = calleeSymbol == null ? null : calleeSymbol.fullyQualifiedName();
+        if (calleeFqn != null && matchesAny(calleeFqn, calleeFqns)) {
+          consumer.accept(ctx);
+        }
+      });
+    }
+
+    private static boolean matchesAny(String calleeFqn, Set<String> calleeFqns) {
+      return calleeFqns.contains(calleeFqn) || calleeFqns.stream()
+        .anyMatch(fqn -> fqn.endsWith(".*") && calleeFqn.startsWith(fqn.substring(0, fqn.length() - 1)));
+    }
   }
 }
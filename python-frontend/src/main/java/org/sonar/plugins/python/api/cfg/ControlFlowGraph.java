@@ -38,6 +38,9 @@ import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.cfg.ControlFlowGraphBuilder;
+import org.sonar.python.profiling.AnalysisProfiler;
+import org.sonar.python.tree.FileInputImpl;
+import org.sonar.python.tree.FunctionDefImpl;
 
 public class ControlFlowGraph {
 
@@ -59,23 +62,56 @@ public class ControlFlowGraph {
   @CheckForNull
   private static ControlFlowGraph build(@Nullable StatementList statementList, PythonFile file) {
     if (!treesWithCfgErrors.contains(statementList)) {
+      AnalysisProfiler.Measure measure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_CFG);
       try {
         return new ControlFlowGraphBuilder(statementList).getCfg();
       } catch (Exception e) {
         treesWithCfgErrors.add(statementList);
         LOG.warn("Failed to build control flow graph in file [{}]: {}", file, e.getMessage());
+      } finally {
+        measure.stop();
       }
     }
     return null;
   }
 
+  /**
+   * The control flow graph of a function is built on the first call, then cached on the tree and shared by all the callers until the tree is
+   * discarded: it must not be modified. Later calls return the same instance and ignore {@code file}, which is only used to log a failure.
+   * <p>
+   * When the graph cannot be built, {@code null} is returned by this call and by the later ones, without building it again:
+   * the failure is only logged on the first call.
+   */
   @CheckForNull
   public static ControlFlowGraph build(FunctionDef functionDef, PythonFile file) {
+    if (functionDef instanceof FunctionDefImpl functionDefImpl) {
+      ControlFlowGraph cfg = functionDefImpl.controlFlowGraph();
+      if (cfg == null) {
+        cfg = build(functionDef.body(), file);
+        functionDefImpl.setControlFlowGraph(cfg);
+      }
+      return cfg;
+    }
     return build(functionDef.body(), file);
   }
 
+  /**
+   * The control flow graph of a file is built on the first call, then cached on the tree and shared by all the callers until the tree is
+   * discarded: it must not be modified. Later calls return the same instance and ignore {@code file}, which is only used to log a failure.
+   * <p>
+   * When the graph cannot be built, {@code null} is returned by this call and by the later ones, without building it again:
+   * the failure is only logged on the first call.
+   */
   @CheckForNull
   public static ControlFlowGraph build(FileInput fileInput, PythonFile file) {
+    if (fileInput instanceof FileInputImpl fileInputImpl) {
+      ControlFlowGraph cfg = fileInputImpl.controlFlowGraph();
+      if (cfg == null) {
+        cfg = build(fileInput.statements(), file);
+        fileInputImpl.setControlFlowGraph(cfg);
+      }
+      return cfg;
+    }
     return build(fileInput.statements(), file);
   }
 
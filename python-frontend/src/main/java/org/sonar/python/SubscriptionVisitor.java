@@ -22,12 +22,15 @@ package org.sonar.python;
 import java.io.File;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import javax.annotation.CheckForNull;
@@ -40,14 +43,17 @@ import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.Tree.Kind;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.types.v2.TypeChecker;
 import org.sonar.python.regex.PythonAnalyzerRegexSource;
 import org.sonar.python.regex.PythonRegexIssueLocation;
@@ -60,7 +66,27 @@ import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
 
 public class SubscriptionVisitor {
 
-  private final EnumMap<Kind, List<SubscriptionContextImpl>> consumers = new EnumMap<>(Kind.class);
+  private static final int KIND_COUNT = Kind.values().length;
+  private static final int CALL_EXPR = Kind.CALL_EXPR.ordinal();
+
+  /**
+   * Kinds of nodes whose children can only be tokens: they don't need to be visited below unless tokens are subscribed to.
+   */
+  private static final Set<Kind> TOKEN_ONLY_KINDS = EnumSet.of(Kind.NAME, Kind.NUMERIC_LITERAL, Kind.NONE, Kind.ELLIPSIS,
+    Kind.PASS_STMT, Kind.BREAK_STMT, Kind.CONTINUE_STMT);
+
+  // consumers and traversal decisions are looked up by kind ordinal, as this is done for every node of the tree
+  private final SubscriptionContextImpl[][] consumers = new SubscriptionContextImpl[KIND_COUNT][];
+  private final boolean[] skipChildren = new boolean[KIND_COUNT];
+  private final boolean visitTokens;
+  // consumers registered through SubscriptionCheck.Context#registerCallConsumer, by callee fully qualified name or prefix of it
+  private final Map<String, List<SubscriptionContextImpl>> callConsumersByFqn = new HashMap<>();
+  private final Map<String, List<SubscriptionContextImpl>> callConsumersByFqnPrefix = new HashMap<>();
+  private final List<SubscriptionContextImpl> matchingCallConsumers = new ArrayList<>();
+  private final List<SubscriptionContextImpl> mergedCallConsumers = new ArrayList<>();
+  private int registeredConsumers = 0;
+  @Nullable
+  private final AnalysisProfiler profiler = AnalysisProfiler.current();
   private final PythonVisitorContext pythonVisitorContext;
   private Tree currentElement;
   private final HashMap<String, RegexParseResult> regexCache = new HashMap<>();
@@ -76,12 +102,34 @@ public class SubscriptionVisitor {
 
   private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
     this.pythonVisitorContext = pythonVisitorContext;
+    EnumMap<Kind, List<SubscriptionContextImpl>> consumersByKind = new EnumMap<>(Kind.class);
     for (PythonSubscriptionCheck check : checks) {
-      check.initialize((elementType, consumer) -> {
-        List<SubscriptionContextImpl> elementConsumers = consumers.computeIfAbsent(elementType, c -> new ArrayList<>());
-        elementConsumers.add(new SubscriptionContextImpl(check, consumer));
+      check.initialize(new SubscriptionCheck.Context() {
+        @Override
+        public void registerSyntaxNodeConsumer(Kind elementType, Consumer<SubscriptionContext> consumer) {
+          List<SubscriptionContextImpl> elementConsumers = consumersByKind.computeIfAbsent(elementType, c -> new ArrayList<>());
+          elementConsumers.add(new SubscriptionContextImpl(check, consumer, registeredConsumers++));
+        }
+
+        @Override
+        public void registerCallConsumer(Set<String> calleeFqns, Consumer<SubscriptionContext> consumer) {
+          SubscriptionContextImpl callConsumer = new SubscriptionContextImpl(check, consumer, registeredConsumers++);
+          for (String calleeFqn : calleeFqns) {
+            if (calleeFqn.endsWith(".*")) {
+              String prefix = calleeFqn.substring(0, calleeFqn.length() - 1);
+              callConsumersByFqnPrefix.computeIfAbsent(prefix, p -> new ArrayList<>()).add(callConsumer);
+            } else {
+              callConsumersByFqn.computeIfAbsent(calleeFqn, fqn -> new ArrayList<>()).add(callConsumer);
+            }
+          }
+        }
       });
     }
+    consumersByKind.forEach((kind, kindConsumers) -> consumers[kind.ordinal()] = kindConsumers.toArray(new SubscriptionContextImpl[0]));
+    visitTokens = consumersByKind.containsKey(Kind.TOKEN);
+    if (!visitTokens) {
+      TOKEN_ONLY_KINDS.forEach(kind -> skipChildren[kind.ordinal()] = true);
+    }
   }
 
   private void scan(Tree element) {
@@ -89,26 +137,126 @@ public class SubscriptionVisitor {
     stack.push(element);
     while (!stack.isEmpty()) {
       currentElement = stack.pop();
-      consumers.getOrDefault(currentElement.getKind(), Collections.emptyList()).forEach(SubscriptionContextImpl::execute);
-      for (int i = currentElement.children().size() - 1; i >= 0; i--) {
-        if (currentElement.children().get(i) != null) {
-          stack.push(currentElement.children().get(i));
+      int kind = currentElement.getKind().ordinal();
+      SubscriptionContextImpl[] kindConsumers = consumers[kind];
+      if (kind == CALL_EXPR && !(callConsumersByFqn.isEmpty() && callConsumersByFqnPrefix.isEmpty())) {
+        executeCallConsumers((CallExpression) currentElement, kindConsumers);
+      } else if (kindConsumers != null) {
+        for (SubscriptionContextImpl consumer : kindConsumers) {
+          consumer.execute();
         }
       }
+      if (!skipChildren[kind]) {
+        pushChildren(stack, currentElement.children());
+      }
+    }
+  }
+
+  /**
+   * Executes the consumers of all call expressions along with the ones registered for the callee of this call, in registration order.
+   * The callee fully qualified name is resolved once, and each of its dotted prefixes is looked up in the registered prefixes.
+   * All the consumer lists are in registration order: they are merged rather than sorted, and the consumers of all call expressions
+   * are executed directly when no consumer is registered for the callee.
+   */
+  private void executeCallConsumers(CallExpression callExpression, @Nullable SubscriptionContextImpl[] kindConsumers) {
+    Symbol calleeSymbol = callExpression.calleeSymbol();
+    String calleeFqn = calleeSymbol == null ? null : calleeSymbol.fullyQualifiedName();
+    if (calleeFqn != null) {
+      mergeMatchingCallConsumers(callConsumersByFqn.get(calleeFqn));
+      if (!callConsumersByFqnPrefix.isEmpty()) {
+        for (int dot = calleeFqn.indexOf('.'); dot >= 0; dot = calleeFqn.indexOf('.', dot + 1)) {
+          mergeMatchingCallConsumers(callConsumersByFqnPrefix.get(calleeFqn.substring(0, dot + 1)));
+        }
+      }
+    }
+    if (matchingCallConsumers.isEmpty()) {
+      if (kindConsumers != null) {
+        for (SubscriptionContextImpl consumer : kindConsumers) {
+          consumer.execute();
+        }
+      }
+      return;
+    }
+    try {
+      if (kindConsumers != null) {
+        mergeMatchingCallConsumers(Arrays.asList(kindConsumers));
+      }
+      for (SubscriptionContextImpl consumer : matchingCallConsumers) {
+        consumer.execute();
+      }
+    } finally {
+      matchingCallConsumers.clear();
+    }
+  }
+
+  /**
+   * Merges consumers sorted in registration order into the matching ones, which are kept sorted and without duplicates:
+   * a consumer registered both for a name and one of its prefixes is executed only once.
+   */
+  private void mergeMatchingCallConsumers(@Nullable List<SubscriptionContextImpl> callConsumers) {
+    if (callConsumers == null) {
+      return;
+    }
+    if (matchingCallConsumers.isEmpty()) {
+      matchingCallConsumers.addAll(callConsumers);
+      return;
+    }
+    mergedCallConsumers.clear();
+    int i = 0;
+    int j = 0;
+    while (i < matchingCallConsumers.size() && j < callConsumers.size()) {
+      SubscriptionContextImpl matching = matchingCallConsumers.get(i);
+      SubscriptionContextImpl other = callConsumers.get(j);
+      if (matching.registrationIndex <= other.registrationIndex) {
+        mergedCallConsumers.add(matching);
+        i++;
+        if (matching == other) {
+          j++;
+        }
+      } else {
+        mergedCallConsumers.add(other);
+        j++;
+      }
+    }
+    mergedCallConsumers.addAll(matchingCallConsumers.subList(i, matchingCallConsumers.size()));
+    mergedCallConsumers.addAll(callConsumers.subList(j, callConsumers.size()));
+    matchingCallConsumers.clear();
+    matchingCallConsumers.addAll(mergedCallConsumers);
+  }
+
+  private void pushChildren(Deque<Tree> stack, List<Tree> children) {
+    for (int i = children.size() - 1; i >= 0; i--) {
+      Tree child = children.get(i);
+      if (child != null && (visitTokens || child.getKind() != Kind.TOKEN)) {
+        stack.push(child);
+      }
     }
   }
 
   private class SubscriptionContextImpl implements SubscriptionContext, RegexContext {
     private final PythonCheck check;
     private final Consumer<SubscriptionContext> consumer;
+    private final String checkName;
+    private final int registrationIndex;
 
-    SubscriptionContextImpl(PythonCheck check, Consumer<SubscriptionContext> consumer) {
+    SubscriptionContextImpl(PythonCheck check, Consumer<SubscriptionContext> consumer, int registrationIndex) {
       this.check = check;
       this.consumer = consumer;
+      this.checkName = check.getClass().getName();
+      this.registrationIndex = registrationIndex;
     }
 
     public void execute() {
-      consumer.accept(this);
+      if (profiler == null) {
+        consumer.accept(this);
+        return;
+      }
+      AnalysisProfiler.Measure measure = profiler.measureCheck(checkName);
+      try {
+        consumer.accept(this);
+      } finally {
+        measure.stop();
+      }
     }
 
     @Override
@@ -65,53 +65,57 @@ public class CpdSerializer {
   }
 
   public static SerializationResult serialize(List<Token> tokens) throws IOException {
-    return new Serializer().convert(tokens);
+    Serializer serializer = new Serializer();
+    for (Token token : tokens) {
+      TokenLocation location = new TokenLocation(token);
+      serializer.write(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), token.value());
+    }
+    return serializer.finish();
+  }
+
+  /**
+   * Returns a serializer to which tokens can be written one by one, as they are visited, without collecting them first.
+   */
+  public static Serializer serializer() {
+    return new Serializer();
   }
 
   public static List<TokenInfo> deserialize(byte[] dataBytes, byte[] stringTableBytes) throws IOException {
     return new Deserializer(new VarLengthInputStream(dataBytes), new VarLengthInputStream(stringTableBytes)).convert();
   }
 
-  private static class Serializer {
-    private final ByteArrayOutputStream stream;
-    private final VarLengthOutputStream out;
+  public static final class Serializer {
+    private final ByteArrayOutputStream tokensStream;
+    private final VarLengthOutputStream tokensOut;
     private final StringTable stringTable;
+    private int tokenCount = 0;
 
     private Serializer() {
-      stream = new ByteArrayOutputStream();
-      out = new VarLengthOutputStream(stream);
+      tokensStream = new ByteArrayOutputStream();
+      tokensOut = new VarLengthOutputStream(tokensStream);
       stringTable = new StringTable();
     }
 
-    public SerializationResult convert(List<Token> tokens) throws IOException {
-      try (out; stream) {
-        writeInt(tokens.size());
-        for (Token token : tokens) {
-          write(token);
-        }
-        out.writeUTF("END");
+    public void write(int startLine, int startLineOffset, int endLine, int endLineOffset, @Nullable String value) throws IOException {
+      tokensOut.writeInt(startLine);
+      tokensOut.writeInt(startLineOffset);
+      tokensOut.writeInt(endLine);
+      tokensOut.writeInt(endLineOffset);
+      tokensOut.writeInt(stringTable.getIndex(value));
+      tokenCount++;
+    }
 
+    public SerializationResult finish() throws IOException {
+      // the number of tokens is only known once they have all been written, while it has to come first in the data
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      try (VarLengthOutputStream out = new VarLengthOutputStream(stream); tokensOut) {
+        out.writeInt(tokenCount);
+        tokensStream.writeTo(stream);
+        out.writeUTF("END");
         return new SerializationResult(stream.toByteArray(), writeStringTable());
       }
     }
 
-    private void write(Token token) throws IOException {
-      TokenLocation location = new TokenLocation(token);
-      writeInt(location.startLine());
-      writeInt(location.startLineOffset());
-      writeInt(location.endLine());
-      writeInt(location.endLineOffset());
-      writeText(token.value());
-    }
-
-    private void writeText(@Nullable String text) throws IOException {
-      out.writeInt(stringTable.getIndex(text));
-    }
-
-    private void writeInt(int number) throws IOException {
-      out.writeInt(number);
-    }
-
     private byte[] writeStringTable() throws IOException {
       ByteArrayOutputStream stringTableStream = new ByteArrayOutputStream();
       VarLengthOutputStream output = new VarLengthOutputStream(stringTableStream);
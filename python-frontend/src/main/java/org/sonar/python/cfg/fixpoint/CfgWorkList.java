@@ -0,0 +1,106 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+
+/**
+ * Blocks which remain to be processed by a data flow analysis. A block is never queued twice.
+ * Blocks are first queued in an order in which most of them are processed after the blocks they depend on: reverse postorder
+ * for forward analyses, postorder for backward ones. Blocks which cannot be reached from the start block are queued last.
+ */
+final class CfgWorkList {
+
+  private final Deque<CfgBlock> blocks = new ArrayDeque<>();
+  private final Set<CfgBlock> queuedBlocks = new HashSet<>();
+
+  private CfgWorkList() {
+  }
+
+  static CfgWorkList forward(ControlFlowGraph cfg) {
+    CfgWorkList workList = new CfgWorkList();
+    List<CfgBlock> postorder = postorder(cfg);
+    for (int i = postorder.size() - 1; i >= 0; i--) {
+      workList.push(postorder.get(i));
+    }
+    workList.pushAll(cfg.blocks());
+    return workList;
+  }
+
+  static CfgWorkList backward(ControlFlowGraph cfg) {
+    CfgWorkList workList = new CfgWorkList();
+    workList.pushAll(postorder(cfg));
+    workList.pushAll(cfg.blocks());
+    return workList;
+  }
+
+  boolean isEmpty() {
+    return blocks.isEmpty();
+  }
+
+  CfgBlock pop() {
+    CfgBlock block = blocks.removeFirst();
+    queuedBlocks.remove(block);
+    return block;
+  }
+
+  void pushAll(Collection<CfgBlock> blocksToProcess) {
+    blocksToProcess.forEach(this::push);
+  }
+
+  private void push(CfgBlock block) {
+    if (queuedBlocks.add(block)) {
+      blocks.addLast(block);
+    }
+  }
+
+  private static List<CfgBlock> postorder(ControlFlowGraph cfg) {
+    List<CfgBlock> postorder = new ArrayList<>();
+    Set<CfgBlock> visited = new HashSet<>();
+    Deque<CfgBlock> path = new ArrayDeque<>();
+    Deque<Iterator<CfgBlock>> remainingSuccessors = new ArrayDeque<>();
+    visited.add(cfg.start());
+    path.push(cfg.start());
+    remainingSuccessors.push(cfg.start().successors().iterator());
+    while (!path.isEmpty()) {
+      Iterator<CfgBlock> successors = remainingSuccessors.peek();
+      if (successors.hasNext()) {
+        CfgBlock successor = successors.next();
+        if (visited.add(successor)) {
+          path.push(successor);
+          remainingSuccessors.push(successor.successors().iterator());
+        }
+      } else {
+        remainingSuccessors.pop();
+        postorder.add(path.pop());
+      }
+    }
+    return postorder;
+  }
+}
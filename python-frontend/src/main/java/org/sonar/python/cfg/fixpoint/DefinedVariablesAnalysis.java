@@ -19,10 +19,8 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import org.sonar.plugins.python.api.cfg.CfgBlock;
@@ -46,17 +44,37 @@ public class DefinedVariablesAnalysis {
       boolean isParameter = variable.usages().stream().anyMatch(u -> u.kind() == Usage.Kind.PARAMETER);
       initialState.put(variable, isParameter ? VariableDefinition.DEFINED : VariableDefinition.UNDEFINED);
     }
+    SymbolIndex symbolIndex = new SymbolIndex();
+    BitSet initialTracked = symbolIndex.bitSet(initialState.keySet());
+    BitSet initialDefined = new BitSet();
+    initialState.forEach((variable, definition) -> initialDefined.set(symbolIndex.indexOf(variable), definition == VariableDefinition.DEFINED));
     Set<CfgBlock> blocks = cfg.blocks();
-    blocks.forEach(block -> definedVariablesPerBlock.put(block, DefinedVariables.build(block, initialState)));
-    Deque<CfgBlock> workList = new ArrayDeque<>(blocks);
+    blocks.forEach(block -> {
+      DefinedVariables definedVariables = DefinedVariables.build(block, initialState);
+      definedVariables.killBits = symbolIndex.bitSet(definedVariables.kill);
+      definedVariables.inTracked = (BitSet) initialTracked.clone();
+      definedVariables.inDefined = (BitSet) initialDefined.clone();
+      definedVariablesPerBlock.put(block, definedVariables);
+    });
+    CfgWorkList workList = CfgWorkList.forward(cfg);
     while (!workList.isEmpty()) {
       CfgBlock currentBlock = workList.pop();
       DefinedVariables definedVariables = this.definedVariablesPerBlock.get(currentBlock);
       boolean outHasChanged = definedVariables.propagate(this.definedVariablesPerBlock);
       if (outHasChanged) {
-        currentBlock.successors().forEach(workList::push);
+        workList.pushAll(currentBlock.successors());
       }
     }
+    definedVariablesPerBlock.values().forEach(definedVariables -> {
+      definedVariables.in = definitions(symbolIndex, definedVariables.inTracked, definedVariables.inDefined);
+      definedVariables.out = definitions(symbolIndex, definedVariables.outTracked, definedVariables.outDefined);
+    });
+  }
+
+  private static Map<Symbol, VariableDefinition> definitions(SymbolIndex symbolIndex, BitSet tracked, BitSet defined) {
+    Map<Symbol, VariableDefinition> definitions = new HashMap<>();
+    tracked.stream().forEach(index -> definitions.put(symbolIndex.symbol(index), defined.get(index) ? VariableDefinition.DEFINED : VariableDefinition.UNDEFINED));
+    return definitions;
   }
 
   public DefinedVariables getDefinedVariables(CfgBlock block) {
@@ -81,6 +99,13 @@ public class DefinedVariablesAnalysis {
 
     private Map<Symbol, VariableDefinition> out = new HashMap<>();
 
+    // While computing the fixpoint, symbols which have a definition state in the 'in' and 'out' maps, and those which are DEFINED
+    private BitSet killBits = new BitSet();
+    private BitSet inTracked = new BitSet();
+    private BitSet inDefined = new BitSet();
+    private BitSet outTracked = new BitSet();
+    private BitSet outDefined = new BitSet();
+
     private DefinedVariables(CfgBlock block) {
       super(block);
     }
@@ -99,27 +124,20 @@ public class DefinedVariablesAnalysis {
      * Propagates forward: first computes the in set from all predecessors, then the out set.
      */
     private boolean propagate(Map<CfgBlock, DefinedVariables> definedVariablesPerBlock) {
-      block.predecessors().stream()
-        .map(definedVariablesPerBlock::get)
-        .map(DefinedVariables::getOut)
-        .forEach(predecessorOuts -> in = join(in, predecessorOuts));
-      Map<Symbol, VariableDefinition> newOut = new HashMap<>(in);
-      kill.forEach(symbol -> newOut.put(symbol, VariableDefinition.DEFINED));
-      boolean outHasChanged = !newOut.equals(out);
-      out = newOut;
-      return outHasChanged;
-    }
-
-    private static Map<Symbol, VariableDefinition> join(Map<Symbol, VariableDefinition> programState1, Map<Symbol, VariableDefinition> programState2) {
-      Map<Symbol, VariableDefinition> result = new HashMap<>();
-      Set<Symbol> allKeys = new HashSet<>(programState1.keySet());
-      allKeys.addAll(programState2.keySet());
-      for (Symbol key : allKeys) {
-        VariableDefinition varDef1 = programState1.getOrDefault(key, VariableDefinition.UNDEFINED);
-        VariableDefinition varDef2 = programState2.getOrDefault(key, VariableDefinition.UNDEFINED);
-        result.put(key, VariableDefinition.join(varDef1, varDef2));
+      // Joining with a state in which a symbol is missing is joining with UNDEFINED
+      for (CfgBlock predecessor : block.predecessors()) {
+        DefinedVariables predecessorVariables = definedVariablesPerBlock.get(predecessor);
+        inTracked.or(predecessorVariables.outTracked);
+        inDefined.or(predecessorVariables.outDefined);
       }
-      return result;
+      BitSet newOutTracked = (BitSet) inTracked.clone();
+      newOutTracked.or(killBits);
+      BitSet newOutDefined = (BitSet) inDefined.clone();
+      newOutDefined.or(killBits);
+      boolean outHasChanged = !newOutTracked.equals(outTracked) || !newOutDefined.equals(outDefined);
+      outTracked = newOutTracked;
+      outDefined = newOutDefined;
+      return outHasChanged;
     }
 
     public Map<Symbol, VariableDefinition> getIn() {
@@ -19,8 +19,7 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -45,16 +44,26 @@ public class LiveVariablesAnalysis {
    * An alternative terminology for "kill/gen" is "def/use"
    */
   private void compute(ControlFlowGraph cfg) {
-    cfg.blocks().forEach(block -> liveVariablesPerBlock.put(block, LiveVariables.build(block)));
-    Deque<CfgBlock> workList = new ArrayDeque<>(cfg.blocks());
+    SymbolIndex symbolIndex = new SymbolIndex();
+    cfg.blocks().forEach(block -> {
+      LiveVariables liveVariables = LiveVariables.build(block);
+      liveVariables.genBits = symbolIndex.bitSet(liveVariables.gen);
+      liveVariables.killBits = symbolIndex.bitSet(liveVariables.kill);
+      liveVariablesPerBlock.put(block, liveVariables);
+    });
+    CfgWorkList workList = CfgWorkList.backward(cfg);
     while (!workList.isEmpty()) {
       CfgBlock currentBlock = workList.pop();
       LiveVariables liveVariables = liveVariablesPerBlock.get(currentBlock);
       boolean liveInHasChanged = liveVariables.propagate(liveVariablesPerBlock);
       if (liveInHasChanged) {
-        currentBlock.predecessors().forEach(workList::push);
+        workList.pushAll(currentBlock.predecessors());
       }
     }
+    liveVariablesPerBlock.values().forEach(liveVariables -> {
+      liveVariables.in = symbolIndex.symbols(liveVariables.inBits);
+      liveVariables.out = symbolIndex.symbols(liveVariables.outBits);
+    });
   }
 
   public LiveVariables getLiveVariables(CfgBlock block) {
@@ -89,6 +98,12 @@ public class LiveVariablesAnalysis {
      */
     private Set<Symbol> out = new HashSet<>();
 
+    // 'gen', 'kill', 'in' and 'out' sets, indexed by symbol, while computing the fixpoint
+    private BitSet genBits = new BitSet();
+    private BitSet killBits = new BitSet();
+    private BitSet inBits = new BitSet();
+    private BitSet outBits = new BitSet();
+
     private LiveVariables(CfgBlock block) {
       super(block);
     }
@@ -106,25 +121,19 @@ public class LiveVariablesAnalysis {
      * Propagates backwards: first computes the 'out' set, then the 'in' set.
      */
     private boolean propagate(Map<CfgBlock, LiveVariables> liveVariablesPerBlock) {
-      out.clear();
-      block.successors().stream()
-        .map(liveVariablesPerBlock::get)
-        .map(LiveVariables::getIn)
-        .forEach(out::addAll);
+      outBits = new BitSet();
+      for (CfgBlock successor : block.successors()) {
+        outBits.or(liveVariablesPerBlock.get(successor).inBits);
+      }
       // in = gen + (out - kill)
-      Set<Symbol> newIn = new HashSet<>(gen);
-      newIn.addAll(difference(out, kill));
-      boolean inHasChanged = !newIn.equals(in);
-      in = newIn;
+      BitSet newIn = (BitSet) outBits.clone();
+      newIn.andNot(killBits);
+      newIn.or(genBits);
+      boolean inHasChanged = !newIn.equals(inBits);
+      inBits = newIn;
       return inHasChanged;
     }
 
-    private static Set<Symbol> difference(Set<Symbol> out, Set<Symbol> kill) {
-      Set<Symbol> result = new HashSet<>(out);
-      result.removeIf(kill::contains);
-      return result;
-    }
-
 
     public Set<Symbol> getIn() {
       return in;
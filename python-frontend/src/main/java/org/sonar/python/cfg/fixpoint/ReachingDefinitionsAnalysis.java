@@ -19,10 +19,8 @@
  */
 package org.sonar.python.cfg.fixpoint;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -110,13 +108,13 @@ public class ReachingDefinitionsAnalysis {
     }
     Set<CfgBlock> blocks = cfg.blocks();
     blocks.forEach(block -> programStateByBlock.put(block, new ProgramStateAtBlock(block, initialState)));
-    Deque<CfgBlock> workList = new ArrayDeque<>(blocks);
+    CfgWorkList workList = CfgWorkList.forward(cfg);
     while (!workList.isEmpty()) {
       CfgBlock currentBlock = workList.pop();
       ProgramStateAtBlock programStateAtBlock = programStateByBlock.get(currentBlock);
       boolean outHasChanged = programStateAtBlock.propagate();
       if (outHasChanged) {
-        currentBlock.successors().forEach(workList::push);
+        workList.pushAll(currentBlock.successors());
       }
     }
     updateProgramStateByElement(cfg);
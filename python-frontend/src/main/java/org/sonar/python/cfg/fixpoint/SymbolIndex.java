@@ -0,0 +1,63 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sonar.plugins.python.api.symbols.Symbol;
+
+/**
+ * Numbers the symbols tracked by a data flow analysis, so that sets of symbols can be represented as bit sets while computing
+ * the fixpoint, and only be turned back into sets of symbols once it is reached.
+ */
+final class SymbolIndex {
+
+  private final Map<Symbol, Integer> indexBySymbol = new HashMap<>();
+  private final List<Symbol> symbols = new ArrayList<>();
+
+  int indexOf(Symbol symbol) {
+    return indexBySymbol.computeIfAbsent(symbol, s -> {
+      symbols.add(s);
+      return symbols.size() - 1;
+    });
+  }
+
+  Symbol symbol(int index) {
+    return symbols.get(index);
+  }
+
+  BitSet bitSet(Collection<Symbol> symbolsToIndex) {
+    BitSet bitSet = new BitSet();
+    symbolsToIndex.forEach(symbol -> bitSet.set(indexOf(symbol)));
+    return bitSet;
+  }
+
+  Set<Symbol> symbols(BitSet bitSet) {
+    Set<Symbol> result = new HashSet<>();
+    bitSet.stream().forEach(index -> result.add(symbols.get(index)));
+    return result;
+  }
+}
@@ -180,7 +180,7 @@ public class DescriptorUtils {
           if (createdSymbolsByFqn.containsKey(superClassFqn)) {
             return createdSymbolsByFqn.get(superClassFqn);
           }
-          Symbol symbol = projectLevelSymbolTable.getSymbol(superClassFqn, null, createdSymbolsByDescriptor, createdSymbolsByFqn);
+          Symbol symbol = projectLevelSymbolTable.getReferencedSymbol(superClassFqn, createdSymbolsByDescriptor, createdSymbolsByFqn);
           symbol = symbol != null ? symbol : typeshedSymbolWithFQN(superClassFqn);
           createdSymbolsByFqn.put(superClassFqn, symbol);
           return symbol;
@@ -215,7 +215,7 @@ public class DescriptorUtils {
       declaredType = InferredTypes.TUPLE;
     } else {
       Symbol existingSymbol = createdSymbolsByFqn.get(annotatedType);
-      Symbol typeSymbol = existingSymbol != null ? existingSymbol : projectLevelSymbolTable.getSymbol(annotatedType, null, createdSymbolsByDescriptor, createdSymbolsByFqn);
+      Symbol typeSymbol = existingSymbol != null ? existingSymbol : projectLevelSymbolTable.getReferencedSymbol(annotatedType, createdSymbolsByDescriptor, createdSymbolsByFqn);
       String annotatedTypeName = parameter.annotatedTypeName();
       if (typeSymbol == null && annotatedTypeName != null) {
         typeSymbol = typeshedSymbolWithFQN(annotatedTypeName);
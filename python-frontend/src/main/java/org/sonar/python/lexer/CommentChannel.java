@@ -0,0 +1,61 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * http://docs.python.org/reference/lexical_analysis.html#comments
+ */
+public class CommentChannel extends Channel<Lexer> {
+
+  private final StringBuilder sb = new StringBuilder();
+
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    if (code.peek() != '#') {
+      return false;
+    }
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    do {
+      sb.append((char) code.pop());
+    } while (!isEndOfComment(code.peek()));
+    Token token = Token.builder()
+      .setType(GenericTokenType.COMMENT)
+      .setValueAndOriginalValue(sb.toString())
+      .setURI(lexer.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build();
+    lexer.addTrivia(Trivia.createComment(token));
+    sb.setLength(0);
+    return true;
+  }
+
+  private static boolean isEndOfComment(int ch) {
+    return ch == '\n' || ch == '\r' || ch == -1;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.impl.Lexer;
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * http://docs.python.org/reference/lexical_analysis.html#identifiers
+ * <p>
+ * Identifiers start with a letter (categories Lu, Ll, Lt, Lm, Lo and Nl) or an underscore, followed by letters, underscores,
+ * marks (Mn and Mc), digits (Nd) and connector punctuations (Pc). ASCII characters are looked up in a table, and characters
+ * outside of the BMP are decoded from their surrogate pairs.
+ */
+public class IdentifierChannel extends Channel<Lexer> {
+
+  private static final boolean[] ASCII_IDENTIFIER_START = new boolean[128];
+  private static final boolean[] ASCII_IDENTIFIER_PART = new boolean[128];
+
+  static {
+    for (char ch = 0; ch < 128; ch++) {
+      ASCII_IDENTIFIER_START[ch] = (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '_';
+      ASCII_IDENTIFIER_PART[ch] = ASCII_IDENTIFIER_START[ch] || (ch >= '0' && ch <= '9');
+    }
+  }
+
+  private final Map<String, TokenType> keywords = new HashMap<>();
+  private final StringBuilder sb = new StringBuilder();
+
+  public IdentifierChannel(TokenType... keywords) {
+    for (TokenType keyword : keywords) {
+      this.keywords.put(keyword.getValue(), keyword);
+    }
+  }
+
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    int length = identifierCharLength(code, 0, true);
+    if (length == 0) {
+      return false;
+    }
+    int partLength = identifierCharLength(code, length, false);
+    while (partLength > 0) {
+      length += partLength;
+      partLength = identifierCharLength(code, length, false);
+    }
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    for (int i = 0; i < length; i++) {
+      sb.append((char) code.pop());
+    }
+    String value = sb.toString();
+    sb.setLength(0);
+    TokenType keyword = keywords.get(value);
+    lexer.addToken(Token.builder()
+      .setType(keyword == null ? GenericTokenType.IDENTIFIER : keyword)
+      .setValueAndOriginalValue(value)
+      .setURI(lexer.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build());
+    return true;
+  }
+
+  /**
+   * Returns the number of chars (0, 1 or 2) of the identifier character at the given index, or 0 if there is none.
+   */
+  private static int identifierCharLength(CodeReader code, int index, boolean isStart) {
+    char ch = code.charAt(index);
+    if (ch < 128) {
+      return (isStart ? ASCII_IDENTIFIER_START[ch] : ASCII_IDENTIFIER_PART[ch]) ? 1 : 0;
+    }
+    int codePoint = ch;
+    int length = 1;
+    if (Character.isHighSurrogate(ch)) {
+      char low = code.charAt(index + 1);
+      if (!Character.isLowSurrogate(low)) {
+        return 0;
+      }
+      codePoint = Character.toCodePoint(ch, low);
+      length = 2;
+    }
+    return isIdentifierCodePoint(codePoint, isStart) ? length : 0;
+  }
+
+  private static boolean isIdentifierCodePoint(int codePoint, boolean isStart) {
+    switch (Character.getType(codePoint)) {
+      case Character.UPPERCASE_LETTER, Character.LOWERCASE_LETTER, Character.TITLECASE_LETTER, Character.MODIFIER_LETTER, Character.OTHER_LETTER,
+        Character.LETTER_NUMBER:
+        return true;
+      case Character.NON_SPACING_MARK, Character.COMBINING_SPACING_MARK, Character.DECIMAL_DIGIT_NUMBER, Character.CONNECTOR_PUNCTUATION:
+        return !isStart;
+      default:
+        return false;
+    }
+  }
+}
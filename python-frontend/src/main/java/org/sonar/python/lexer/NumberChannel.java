@@ -0,0 +1,181 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.python.api.PythonTokenType;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * http://docs.python.org/reference/lexical_analysis.html#integer-and-long-integer-literals
+ * http://docs.python.org/reference/lexical_analysis.html#floating-point-literals
+ * http://docs.python.org/reference/lexical_analysis.html#imaginary-literals
+ * https://www.python.org/dev/peps/pep-0515/
+ * <p>
+ * Literals are recognized by scanning ahead of the current position, trying the alternatives in the following order,
+ * where {@code d} stands for a sequence of digits of the given radix possibly separated by single underscores:
+ * <ol>
+ *   <li>point floats starting with digits: {@code d10 "." d10? exponent? j?}</li>
+ *   <li>point floats starting with a dot: {@code "." d10 exponent? j?}</li>
+ *   <li>exponent floats: {@code d10 exponent j?}</li>
+ *   <li>imaginary integers: {@code d10 j}</li>
+ *   <li>decimal integers: {@code [1-9] ("_"? [0-9])* L?}</li>
+ *   <li>octal integers: {@code "0" [oO]? d8 L?}, hexadecimal integers: {@code "0" [xX] d16 L?}, binary integers: {@code "0" [bB] d2 L?}</li>
+ *   <li>zero: {@code "0" ("_"? "0")* L?}</li>
+ * </ol>
+ */
+public class NumberChannel extends Channel<Lexer> {
+
+  private final StringBuilder sb = new StringBuilder();
+
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    int length = numberLength(code);
+    if (length == 0) {
+      return false;
+    }
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    for (int i = 0; i < length; i++) {
+      sb.append((char) code.pop());
+    }
+    lexer.addToken(Token.builder()
+      .setType(PythonTokenType.NUMBER)
+      .setValueAndOriginalValue(sb.toString())
+      .setURI(lexer.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build());
+    sb.setLength(0);
+    return true;
+  }
+
+  private static int numberLength(CodeReader code) {
+    char first = code.charAt(0);
+    if (first == '.') {
+      return isDigit(code.charAt(1), 10) ? imaginarySuffixEnd(code, exponentEnd(code, digitsEnd(code, 2, 10))) : 0;
+    }
+    if (!isDigit(first, 10)) {
+      return 0;
+    }
+    int digitsEnd = digitsEnd(code, 1, 10);
+    char next = code.charAt(digitsEnd);
+    if (next == '.') {
+      return imaginarySuffixEnd(code, exponentEnd(code, digitsEnd(code, digitsEnd + 1, 10)));
+    }
+    int exponentEnd = exponentEnd(code, digitsEnd);
+    if (exponentEnd > digitsEnd) {
+      return imaginarySuffixEnd(code, exponentEnd);
+    }
+    if (next == 'j' || next == 'J') {
+      return digitsEnd + 1;
+    }
+    if (first != '0') {
+      return longSuffixEnd(code, digitsEnd);
+    }
+    return zeroPrefixedIntegerLength(code);
+  }
+
+  private static int zeroPrefixedIntegerLength(CodeReader code) {
+    char second = code.charAt(1);
+    int octalStart = (second == 'o' || second == 'O') ? 2 : 1;
+    int end = digitsEnd(code, octalStart, 8);
+    if (end > octalStart) {
+      return longSuffixEnd(code, end);
+    }
+    if (second == 'x' || second == 'X' || second == 'b' || second == 'B') {
+      end = digitsEnd(code, 2, (second == 'x' || second == 'X') ? 16 : 2);
+      if (end > 2) {
+        return longSuffixEnd(code, end);
+      }
+    }
+    end = 1;
+    while (true) {
+      if (code.charAt(end) == '0') {
+        end++;
+      } else if (code.charAt(end) == '_' && code.charAt(end + 1) == '0') {
+        end += 2;
+      } else {
+        return longSuffixEnd(code, end);
+      }
+    }
+  }
+
+  /**
+   * Returns the index following the digits of the given radix starting at {@code index}, each digit being possibly preceded by a single underscore.
+   */
+  private static int digitsEnd(CodeReader code, int index, int radix) {
+    int end = index;
+    while (true) {
+      char ch = code.charAt(end);
+      if (isDigit(ch, radix)) {
+        end++;
+      } else if (ch == '_' && isDigit(code.charAt(end + 1), radix)) {
+        end += 2;
+      } else {
+        return end;
+      }
+    }
+  }
+
+  private static int exponentEnd(CodeReader code, int index) {
+    char ch = code.charAt(index);
+    if (ch != 'e' && ch != 'E') {
+      return index;
+    }
+    int end = index + 1;
+    ch = code.charAt(end);
+    if (ch == '+' || ch == '-') {
+      end++;
+    }
+    if (!isDigitOrUnderscore(code.charAt(end))) {
+      return index;
+    }
+    do {
+      end++;
+    } while (isDigitOrUnderscore(code.charAt(end)));
+    return end;
+  }
+
+  private static int imaginarySuffixEnd(CodeReader code, int index) {
+    char ch = code.charAt(index);
+    return (ch == 'j' || ch == 'J') ? (index + 1) : index;
+  }
+
+  private static int longSuffixEnd(CodeReader code, int index) {
+    char ch = code.charAt(index);
+    return (ch == 'l' || ch == 'L') ? (index + 1) : index;
+  }
+
+  private static boolean isDigitOrUnderscore(char ch) {
+    return ch == '_' || isDigit(ch, 10);
+  }
+
+  private static boolean isDigit(char ch, int radix) {
+    return switch (radix) {
+      case 2 -> ch == '0' || ch == '1';
+      case 8 -> ch >= '0' && ch <= '7';
+      case 16 -> (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+      default -> ch >= '0' && ch <= '9';
+    };
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.impl.Lexer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * http://docs.python.org/reference/lexical_analysis.html#operators
+ * http://docs.python.org/reference/lexical_analysis.html#delimiters
+ * <p>
+ * Punctuators are indexed by their first character, longest first, so that only the few candidates sharing the current character are compared.
+ */
+public class PunctuatorChannel extends Channel<Lexer> {
+
+  private final TokenType[][] punctuatorsByFirstChar = new TokenType[128][];
+
+  public PunctuatorChannel(TokenType... punctuators) {
+    List<List<TokenType>> candidates = new ArrayList<>();
+    for (int i = 0; i < punctuatorsByFirstChar.length; i++) {
+      candidates.add(new ArrayList<>());
+    }
+    for (TokenType punctuator : punctuators) {
+      candidates.get(punctuator.getValue().charAt(0)).add(punctuator);
+    }
+    for (int i = 0; i < punctuatorsByFirstChar.length; i++) {
+      List<TokenType> sameFirstChar = candidates.get(i);
+      if (!sameFirstChar.isEmpty()) {
+        sameFirstChar.sort(Comparator.comparingInt((TokenType punctuator) -> punctuator.getValue().length()).reversed());
+        punctuatorsByFirstChar[i] = sameFirstChar.toArray(TokenType[]::new);
+      }
+    }
+  }
+
+  @Override
+  public boolean consume(CodeReader code, Lexer lexer) {
+    char ch = code.charAt(0);
+    if (ch >= punctuatorsByFirstChar.length || punctuatorsByFirstChar[ch] == null) {
+      return false;
+    }
+    for (TokenType punctuator : punctuatorsByFirstChar[ch]) {
+      String value = punctuator.getValue();
+      if (matches(code, value)) {
+        lexer.addToken(Token.builder()
+          .setType(punctuator)
+          .setValueAndOriginalValue(value)
+          .setURI(lexer.getURI())
+          .setLine(code.getLinePosition())
+          .setColumn(code.getColumnPosition())
+          .build());
+        for (int i = 0; i < value.length(); i++) {
+          code.pop();
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matches(CodeReader code, String value) {
+    for (int i = 1; i < value.length(); i++) {
+      if (code.charAt(i) != value.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
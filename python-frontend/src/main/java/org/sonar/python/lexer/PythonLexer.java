@@ -20,33 +20,16 @@
 package org.sonar.python.lexer;
 
 import com.sonar.sslr.impl.Lexer;
-import com.sonar.sslr.impl.channel.BlackHoleChannel;
-import com.sonar.sslr.impl.channel.IdentifierAndKeywordChannel;
-import com.sonar.sslr.impl.channel.PunctuatorChannel;
 import com.sonar.sslr.impl.channel.UnknownCharacterChannel;
 import org.sonar.python.api.PythonKeyword;
 import org.sonar.python.api.PythonPunctuator;
-import org.sonar.python.api.PythonTokenType;
-
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.and;
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.commentRegexp;
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.o2n;
-import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.regexp;
 
+/**
+ * The hot token classes (blanks, comments, numbers, identifiers and punctuators) are recognized by hand-written channels rather
+ * than by regular expressions, as every channel is tried in turn at the start of each token.
+ */
 public final class PythonLexer {
 
-  private static final String EXP = "([Ee][+-]?+[0-9_]++)";
-  private static final String BYTES_PREFIX = "([bB][Rr]?|[rR][bB]?)";
-  private static final String IMAGINARY_SUFFIX = "(j|J)";
-  private static final String LONG_INTEGER_SUFFIX = "(l|L)";
-  private static final String IDENTIFIER_START = "[\\p{Lu}\\p{Ll}\\p{Lt}\\p{Lm}\\p{Lo}\\p{Nl}_]";
-  private static final String IDENTIFIER_CONTINUE = "[" + IDENTIFIER_START + "\\p{Mn}\\p{Mc}\\p{Nd}\\p{Pc}]";
-
-  private static final String SINGLE_QUOTE_STRING = "\'([^\'\\\\]*+(\\\\[\\s\\S])?+)*+\'";
-  private static final String DOUBLE_QUOTES_STRING = "\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"";
-
-  private static final String NUMBER_REGEX = "[0-9]++(_?[0-9])*+";
-
   private PythonLexer() {
   }
 
@@ -69,42 +52,21 @@ public final class PythonLexer {
 
       .withChannel(new IndentationChannel(lexerState))
 
-      .withChannel(new BlackHoleChannel("\\s"))
+      .withChannel(new WhitespaceChannel())
 
-      // http://docs.python.org/reference/lexical_analysis.html#comments
-      .withChannel(commentRegexp("#[^\\n\\r]*+"))
+      .withChannel(new CommentChannel())
 
       // http://docs.python.org/reference/lexical_analysis.html#string-literals
+      // http://docs.python.org/release/3.2/reference/lexical_analysis.html#string-and-bytes-literals
       .withChannel(new StringLiteralsChannel())
 
       //https://docs.python.org/3.6/reference/lexical_analysis.html#formatted-string-literals
       .withChannel(new FStringChannel(lexerState))
-      
-      // http://docs.python.org/release/3.2/reference/lexical_analysis.html#string-and-bytes-literals
-      .withChannel(regexp(PythonTokenType.STRING, BYTES_PREFIX + SINGLE_QUOTE_STRING))
-      .withChannel(regexp(PythonTokenType.STRING, BYTES_PREFIX + DOUBLE_QUOTES_STRING))
-
-      // http://docs.python.org/reference/lexical_analysis.html#floating-point-literals
-      // http://docs.python.org/reference/lexical_analysis.html#imaginary-literals
-      // https://www.python.org/dev/peps/pep-0515/
-      .withChannel(regexp(PythonTokenType.NUMBER, "[0-9]++(_?[0-9])*+\\.[0-9]*+(_?[0-9])*+" + EXP + "?+" + IMAGINARY_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, "\\.[0-9]++(_?[0-9])*+" + EXP + "?+" + IMAGINARY_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, NUMBER_REGEX + EXP + IMAGINARY_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, NUMBER_REGEX + IMAGINARY_SUFFIX))
 
-      // http://docs.python.org/reference/lexical_analysis.html#integer-and-long-integer-literals
-      // https://www.python.org/dev/peps/pep-0515/
-      .withChannel(regexp(PythonTokenType.NUMBER, "0[oO]?+(_?[0-7])++" + LONG_INTEGER_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, "0[xX](_?[0-9a-fA-F])++" + LONG_INTEGER_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, "0[bB](_?[01])++" + LONG_INTEGER_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, "[1-9](_?[0-9])*+" + LONG_INTEGER_SUFFIX + "?+"))
-      .withChannel(regexp(PythonTokenType.NUMBER, "0(_?0)*+" + LONG_INTEGER_SUFFIX + "?+"))
+      .withChannel(new NumberChannel())
 
-      // http://docs.python.org/reference/lexical_analysis.html#identifiers
-      .withChannel(new IdentifierAndKeywordChannel(and(IDENTIFIER_START, o2n(IDENTIFIER_CONTINUE)), true, PythonKeyword.values()))
+      .withChannel(new IdentifierChannel(PythonKeyword.values()))
 
-      // http://docs.python.org/reference/lexical_analysis.html#operators
-      // http://docs.python.org/reference/lexical_analysis.html#delimiters
       .withChannel(new PunctuatorChannel(PythonPunctuator.values()))
 
       .withChannel(new UnknownCharacterChannel());
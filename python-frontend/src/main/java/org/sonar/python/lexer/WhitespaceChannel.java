@@ -17,33 +17,29 @@
  * along with this program; if not, write to the Free Software Foundation,
  * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
  */
-package org.sonar.python.semantic.v2.types;
+package org.sonar.python.lexer;
 
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
-import org.sonar.plugins.python.api.tree.ClassDef;
-import org.sonar.plugins.python.api.tree.FunctionDef;
-import org.sonar.plugins.python.api.tree.TryStatement;
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
 
-public class TryStatementVisitor extends BaseTreeVisitor {
-  // TODO: could be replaced with TreeUtils method call
-  private boolean hasTryStatement = false;
-
-  @Override
-  public void visitClassDef(ClassDef classDef) {
-    // Don't visit nested classes
-  }
-
-  @Override
-  public void visitFunctionDef(FunctionDef visited) {
-    // Don't visit nested functions
-  }
+/**
+ * Skips blanks between tokens. Line terminators are handled by {@link NewLineChannel}, which is tried first.
+ */
+public class WhitespaceChannel extends Channel<Lexer> {
 
   @Override
-  public void visitTryStatement(TryStatement tryStatement) {
-    hasTryStatement = true;
+  public boolean consume(CodeReader code, Lexer lexer) {
+    if (!isWhitespace(code.peek())) {
+      return false;
+    }
+    do {
+      code.pop();
+    } while (isWhitespace(code.peek()));
+    return true;
   }
 
-  public boolean hasTryStatement() {
-    return hasTryStatement;
+  private static boolean isWhitespace(int ch) {
+    return ch == ' ' || ch == '\t' || ch == '\f' || ch == '\u000B';
   }
 }
@@ -21,10 +21,12 @@ package org.sonar.python.metrics;
 
 import com.sonar.sslr.api.GenericTokenType;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
@@ -56,11 +58,12 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
     Tree.Kind.PASS_STMT, Tree.Kind.FOR_STMT, Tree.Kind.WHILE_STMT, Tree.Kind.IF_STMT, Tree.Kind.RAISE_STMT, Tree.Kind.TRY_STMT, Tree.Kind.EXCEPT_CLAUSE,
     Tree.Kind.EXEC_STMT, Tree.Kind.ASSERT_STMT, Tree.Kind.DEL_STMT, Tree.Kind.GLOBAL_STMT, Tree.Kind.CLASSDEF, Tree.Kind.FUNCDEF, Tree.Kind.FILE_INPUT);
 
-  private final Set<Integer> noSonar = new HashSet<>();
-  private final Set<Integer> linesOfCode = new HashSet<>();
-  private final Set<Integer> linesOfComments = new HashSet<>();
-  private final Set<Integer> linesOfDocstring = new HashSet<>();
-  private final Set<Integer> executableLines = new HashSet<>();
+  // lines are recorded as bits indexed by line number, sets are only built once the file has been visited
+  private final BitSet noSonar = new BitSet();
+  private final BitSet linesOfCode = new BitSet();
+  private final BitSet linesOfComments = new BitSet();
+  private final BitSet linesOfDocstring = new BitSet();
+  private final BitSet executableLines = new BitSet();
   private final boolean isNotebook;
   private int statements = 0;
   private int classDefs = 0;
@@ -99,7 +102,7 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
       handleDocString(((FileInput) tree).docstring());
     } else {
       statements++;
-      executableLines.add(tree.firstToken().line());
+      executableLines.set(tree.firstToken().line());
     }
     if (tree.is(Tree.Kind.CLASSDEF)) {
       classDefs++;
@@ -111,20 +114,22 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
   }
 
   protected void handleDocString(@Nullable StringLiteral docstring) {
-    linesOfDocstring.addAll(countDocstringLines(docstring));
+    addDocstringLines(docstring, linesOfDocstring);
   }
 
   public static Set<Integer> countDocstringLines(@Nullable StringLiteral docstring) {
-    Set<Integer> lines = new HashSet<>();
+    BitSet lines = new BitSet();
+    addDocstringLines(docstring, lines);
+    return lines.stream().boxed().collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private static void addDocstringLines(@Nullable StringLiteral docstring, BitSet lines) {
     if (docstring != null) {
       for (Tree stringElement : docstring.children()) {
         TokenLocation location = new TokenLocation(stringElement.firstToken());
-        for (int line = location.startLine(); line <= location.endLine(); line++) {
-          lines.add(line);
-        }
+        lines.set(location.startLine(), location.endLine() + 1);
       }
     }
-    return lines;
   }
 
   /**
@@ -136,7 +141,7 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
       return;
     }
 
-    linesOfCode.addAll(tokenLineNumbers(token));
+    addTokenLines(token, linesOfCode);
 
     for (Trivia trivia : token.trivia()) {
       visitComment(trivia, token);
@@ -144,13 +149,24 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
   }
 
   public static Set<Integer> tokenLineNumbers(Token token) {
-    Set<Integer> lines = new HashSet<>();
+    BitSet lines = new BitSet();
+    addTokenLines(token, lines);
+    return lines.stream().boxed().collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private static void addTokenLines(Token token, BitSet lines) {
     if (!token.type().equals(PythonTokenType.DEDENT) && !token.type().equals(PythonTokenType.INDENT) && !token.type().equals(PythonTokenType.NEWLINE)) {
       // Handle all the lines of the token
-      String[] tokenLines = token.value().split("\n", -1);
       int tokenLine = token.pythonLine();
-      for (int line = tokenLine; line < tokenLine + tokenLines.length; line++) {
-        lines.add(line);
+      lines.set(tokenLine, tokenLine + lineCount(token.value()));
+    }
+  }
+
+  private static int lineCount(String value) {
+    int lines = 1;
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) == '\n') {
+        lines++;
       }
     }
     return lines;
@@ -160,10 +176,10 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
     String commentLine = getContents(trivia.token().value());
     int line = trivia.token().line();
     if (containsNoSonarComment(trivia)) {
-      linesOfComments.remove(line);
+      linesOfComments.clear(line);
       addNoSonarLines(trivia, parentToken);
     } else if (!isBlank(commentLine)) {
-      linesOfComments.add(line);
+      linesOfComments.set(line);
     }
   }
 
@@ -175,27 +191,33 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
   @Override
   public void leaveFile() {
     // account for the docstring lines
-    for (Integer line : linesOfDocstring) {
-      executableLines.remove(line);
-      linesOfCode.remove(line);
-      linesOfComments.add(line);
-    }
+    executableLines.andNot(linesOfDocstring);
+    linesOfCode.andNot(linesOfDocstring);
+    linesOfComments.or(linesOfDocstring);
   }
 
   public Set<Integer> getLinesWithNoSonar() {
-    return Collections.unmodifiableSet(noSonar);
+    return toSet(noSonar);
   }
 
   public Set<Integer> getLinesOfCode() {
-    return Collections.unmodifiableSet(linesOfCode);
+    return toSet(linesOfCode);
+  }
+
+  public int getLinesOfCodeCount() {
+    return linesOfCode.cardinality();
   }
 
   public int getCommentLineCount() {
-    return linesOfComments.size();
+    return linesOfComments.cardinality();
   }
 
   public Set<Integer> getExecutableLines() {
-    return isNotebook ? Set.of() : Collections.unmodifiableSet(executableLines);
+    return isNotebook ? Set.of() : toSet(executableLines);
+  }
+
+  private static Set<Integer> toSet(BitSet lines) {
+    return Collections.unmodifiableSet(lines.stream().boxed().collect(Collectors.toSet()));
   }
 
   private static boolean isBlank(String line) {
@@ -220,13 +242,13 @@ public class FileLinesVisitor extends PythonSubscriptionCheck {
         // Count every line of a string literal as part of the "NOSONAR" scope
         StringLiteral stringLiteral = (StringLiteral) expressionStatement.expressions().get(0);
         int firstLine = stringLiteral.firstToken().line();
-        for (int i = firstLine; i < line + 1; i++) {
-          noSonar.add(i);
+        if (firstLine <= line) {
+          noSonar.set(firstLine, line + 1);
         }
         return;
       }
     }
-    noSonar.add(line);
+    noSonar.set(line);
   }
 
   public int getStatements() {
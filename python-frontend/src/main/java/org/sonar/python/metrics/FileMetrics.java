@@ -19,42 +19,127 @@
  */
 package org.sonar.python.metrics;
 
+import com.sonar.sslr.api.TokenType;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.BinaryExpression;
+import org.sonar.plugins.python.api.tree.ComprehensionIf;
+import org.sonar.plugins.python.api.tree.ConditionalExpression;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.ForStatement;
 import org.sonar.plugins.python.api.tree.FunctionDef;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.IfStatement;
+import org.sonar.plugins.python.api.tree.WhileStatement;
+import org.sonar.python.api.PythonKeyword;
 
 public class FileMetrics {
 
   private int numberOfStatements;
   private int numberOfClasses;
-  private final ComplexityVisitor complexityVisitor = new ComplexityVisitor();
-  private final CognitiveComplexityVisitor cognitiveComplexityVisitor = new CognitiveComplexityVisitor(null);
+  private final ComplexityMetricsVisitor complexityMetricsVisitor = new ComplexityMetricsVisitor();
   private final FileLinesVisitor fileLinesVisitor;
-  private List<Integer> functionComplexities = new ArrayList<>();
 
   public FileMetrics(PythonVisitorContext context, boolean isNotebook) {
+    this(context, scannedFileLinesVisitor(context, isNotebook));
+  }
+
+  /**
+   * Completes the line metrics of a {@link FileLinesVisitor} which has already visited the file, along with other visitors.
+   */
+  public FileMetrics(PythonVisitorContext context, FileLinesVisitor fileLinesVisitor) {
     FileInput fileInput = context.rootTree();
-    fileLinesVisitor = new FileLinesVisitor(isNotebook);
-    fileLinesVisitor.scanFile(context);
+    this.fileLinesVisitor = fileLinesVisitor;
     numberOfStatements = fileLinesVisitor.getStatements();
     numberOfClasses = fileLinesVisitor.getClassDefs();
-    fileInput.accept(complexityVisitor);
-    fileInput.accept(cognitiveComplexityVisitor);
-    fileInput.accept(new FunctionVisitor());
+    fileInput.accept(complexityMetricsVisitor);
   }
 
   public FileMetrics(PythonVisitorContext context) {
     this(context, false);
   }
 
-  private class FunctionVisitor extends BaseTreeVisitor {
+  private static FileLinesVisitor scannedFileLinesVisitor(PythonVisitorContext context, boolean isNotebook) {
+    FileLinesVisitor fileLinesVisitor = new FileLinesVisitor(isNotebook);
+    fileLinesVisitor.scanFile(context);
+    return fileLinesVisitor;
+  }
+
+  /**
+   * Computes in a single walk the cognitive complexity, the cyclomatic complexity of the file and the one of each of its functions,
+   * with the same rules as {@link CognitiveComplexityVisitor} and {@link ComplexityVisitor}.
+   * The complexity of a function does not include the one of its nested functions.
+   */
+  private static class ComplexityMetricsVisitor extends CognitiveComplexityVisitor {
+
+    private int cyclomaticComplexity = 0;
+    private final List<Integer> functionComplexities = new ArrayList<>();
+    private final Deque<int[]> enclosingFunctions = new ArrayDeque<>();
+
+    private ComplexityMetricsVisitor() {
+      super(null);
+    }
+
+    private void increment() {
+      cyclomaticComplexity++;
+      int[] enclosingFunction = enclosingFunctions.peek();
+      if (enclosingFunction != null) {
+        enclosingFunction[0]++;
+      }
+    }
+
     @Override
     public void visitFunctionDef(FunctionDef pyFunctionDefTree) {
-      functionComplexities.add(ComplexityVisitor.complexity(pyFunctionDefTree));
+      cyclomaticComplexity++;
+      // reserve the slot of the function so that complexities are reported in the order functions are encountered
+      int index = functionComplexities.size();
+      functionComplexities.add(0);
+      enclosingFunctions.push(new int[] {1});
       super.visitFunctionDef(pyFunctionDefTree);
+      functionComplexities.set(index, enclosingFunctions.pop()[0]);
+    }
+
+    @Override
+    public void visitForStatement(ForStatement pyForStatementTree) {
+      increment();
+      super.visitForStatement(pyForStatementTree);
+    }
+
+    @Override
+    public void visitWhileStatement(WhileStatement pyWhileStatementTree) {
+      increment();
+      super.visitWhileStatement(pyWhileStatementTree);
+    }
+
+    @Override
+    public void visitIfStatement(IfStatement pyIfStatementTree) {
+      if (!pyIfStatementTree.isElif()) {
+        increment();
+      }
+      super.visitIfStatement(pyIfStatementTree);
+    }
+
+    @Override
+    public void visitConditionalExpression(ConditionalExpression pyConditionalExpressionTree) {
+      increment();
+      super.visitConditionalExpression(pyConditionalExpressionTree);
+    }
+
+    @Override
+    public void visitBinaryExpression(BinaryExpression pyBinaryExpressionTree) {
+      TokenType type = pyBinaryExpressionTree.operator().type();
+      if (type.equals(PythonKeyword.AND) || type.equals(PythonKeyword.OR)) {
+        increment();
+      }
+      super.visitBinaryExpression(pyBinaryExpressionTree);
+    }
+
+    @Override
+    public void visitComprehensionIf(ComprehensionIf tree) {
+      increment();
+      super.visitComprehensionIf(tree);
     }
   }
 
@@ -63,7 +148,7 @@ public class FileMetrics {
   }
 
   public int numberOfFunctions() {
-    return functionComplexities.size();
+    return complexityMetricsVisitor.functionComplexities.size();
   }
 
   public int numberOfClasses() {
@@ -71,15 +156,15 @@ public class FileMetrics {
   }
 
   public int complexity() {
-    return complexityVisitor.getComplexity();
+    return complexityMetricsVisitor.cyclomaticComplexity;
   }
 
   public int cognitiveComplexity() {
-    return cognitiveComplexityVisitor.getComplexity();
+    return complexityMetricsVisitor.getComplexity();
   }
 
   public List<Integer> functionComplexities() {
-    return functionComplexities;
+    return complexityMetricsVisitor.functionComplexities;
   }
 
   public FileLinesVisitor fileLinesVisitor() {
@@ -95,7 +95,9 @@ public final class PythonParser {
       List<Token> tokens = lexer.getTokens();
       if (lexerState.indentationStack.peek() > 0) {
         Token eofToken = tokens.get(tokens.size() - 1);
-        tokens = new ArrayList<>(tokens.subList(0, tokens.size() - 1));
+        List<Token> tokensWithDedents = new ArrayList<>(tokens.size() + lexerState.indentationStack.size());
+        tokensWithDedents.addAll(tokens.subList(0, tokens.size() - 1));
+        tokens = tokensWithDedents;
         while (lexerState.indentationStack.peek() > 0) {
           lexerState.indentationStack.pop();
           tokens.add(Token.builder()
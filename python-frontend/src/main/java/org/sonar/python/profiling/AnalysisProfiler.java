@@ -0,0 +1,202 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.annotation.CheckForNull;
+
+/**
+ * Opt-in recorder of where the analysis spends its time: the cumulative wall time, CPU time and allocated bytes of each phase of the
+ * analysis of a file and of each check, as well as the slowest files.
+ * <p>
+ * Profiling is disabled unless {@link #activate} has been called, in which case measures cost a single volatile read.
+ * Measures can be recorded concurrently by several threads. A phase measured while another one is in progress, such as the building
+ * of a control flow graph requested by a check, is accounted for in both.
+ */
+public class AnalysisProfiler {
+
+  public static final String PHASE_PARSING = "parsing";
+  public static final String PHASE_TREE_MAKING = "tree making";
+  public static final String PHASE_SYMBOL_TABLE_V1 = "symbol table v1";
+  public static final String PHASE_TYPE_INFERENCE_V1 = "type inference v1";
+  public static final String PHASE_SYMBOL_TABLE_V2 = "symbol table v2";
+  public static final String PHASE_TYPE_INFERENCE_V2 = "type inference v2";
+  public static final String PHASE_CFG = "control flow graph";
+  public static final String PHASE_RULES = "rules";
+  public static final String PHASE_TOKEN_VISITORS = "metrics, highlighting, symbol references and cpd";
+  public static final String PHASE_COMPLEXITY_METRICS = "complexity metrics";
+  public static final String PHASE_ISSUES = "issues saving";
+
+  private static final Measure NO_MEASURE = () -> {
+  };
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  @CheckForNull
+  private static volatile AnalysisProfiler current = null;
+
+  private final Map<String, Stats> phases = new ConcurrentHashMap<>();
+  private final Map<String, Stats> checks = new ConcurrentHashMap<>();
+  private final int slowestFilesCount;
+  // source of the wall time, in nanoseconds
+  private final LongSupplier ticker;
+  private final PriorityQueue<FileMeasurement> slowestFiles = new PriorityQueue<>(Comparator.comparingLong(FileMeasurement::wallNanos));
+
+  private AnalysisProfiler(int slowestFilesCount, LongSupplier ticker) {
+    this.slowestFilesCount = slowestFilesCount;
+    this.ticker = ticker;
+  }
+
+  public interface Measure {
+    void stop();
+  }
+
+  public record Measurement(String name, long count, long wallNanos, long cpuNanos, long allocatedBytes) {
+  }
+
+  public record FileMeasurement(String file, long wallNanos) {
+  }
+
+  /**
+   * Starts recording measures, until {@link #deactivate} is called, and returns the recorder.
+   */
+  public static AnalysisProfiler activate(int slowestFilesCount) {
+    return activate(slowestFilesCount, System::nanoTime);
+  }
+
+  // visible for testing
+  static AnalysisProfiler activate(int slowestFilesCount, LongSupplier ticker) {
+    AnalysisProfiler profiler = new AnalysisProfiler(slowestFilesCount, ticker);
+    current = profiler;
+    return profiler;
+  }
+
+  public static void deactivate() {
+    current = null;
+  }
+
+  @CheckForNull
+  public static AnalysisProfiler current() {
+    return current;
+  }
+
+  public static Measure startPhase(String phase) {
+    AnalysisProfiler profiler = current;
+    return profiler == null ? NO_MEASURE : profiler.start(profiler.phases, phase);
+  }
+
+  public static Measure startCheck(String check) {
+    AnalysisProfiler profiler = current;
+    return profiler == null ? NO_MEASURE : profiler.start(profiler.checks, check);
+  }
+
+  public static Measure startFile(String file) {
+    AnalysisProfiler profiler = current;
+    if (profiler == null) {
+      return NO_MEASURE;
+    }
+    long start = profiler.ticker.getAsLong();
+    return () -> profiler.recordFile(new FileMeasurement(file, profiler.ticker.getAsLong() - start));
+  }
+
+  /**
+   * Same as {@link #startCheck}, for callers which have already checked that this profiler is active.
+   */
+  public Measure measureCheck(String check) {
+    return start(checks, check);
+  }
+
+  private Measure start(Map<String, Stats> statsByName, String name) {
+    Stats stats = statsByName.computeIfAbsent(name, k -> new Stats());
+    long wallStart = ticker.getAsLong();
+    long cpuStart = cpuTime();
+    long allocatedStart = allocatedBytes();
+    return () -> {
+      stats.count.increment();
+      stats.wallNanos.add(ticker.getAsLong() - wallStart);
+      stats.cpuNanos.add(cpuTime() - cpuStart);
+      stats.allocatedBytes.add(allocatedBytes() - allocatedStart);
+    };
+  }
+
+  private synchronized void recordFile(FileMeasurement measurement) {
+    slowestFiles.add(measurement);
+    if (slowestFiles.size() > slowestFilesCount) {
+      slowestFiles.poll();
+    }
+  }
+
+  /**
+   * Phases, sorted by decreasing wall time.
+   */
+  public List<Measurement> phases() {
+    return measurements(phases);
+  }
+
+  /**
+   * Checks and visitors, identified by their class name and sorted by decreasing wall time.
+   */
+  public List<Measurement> checks() {
+    return measurements(checks);
+  }
+
+  /**
+   * Slowest files, sorted by decreasing wall time.
+   */
+  public synchronized List<FileMeasurement> slowestFiles() {
+    List<FileMeasurement> files = new ArrayList<>(slowestFiles);
+    files.sort(Comparator.comparingLong(FileMeasurement::wallNanos).reversed());
+    return files;
+  }
+
+  private static List<Measurement> measurements(Map<String, Stats> statsByName) {
+    List<Measurement> measurements = new ArrayList<>();
+    statsByName.forEach((name, stats) -> measurements.add(
+      new Measurement(name, stats.count.sum(), stats.wallNanos.sum(), stats.cpuNanos.sum(), stats.allocatedBytes.sum())));
+    measurements.sort(Comparator.comparingLong(Measurement::wallNanos).reversed());
+    return measurements;
+  }
+
+  private static long cpuTime() {
+    return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+  }
+
+  private static long allocatedBytes() {
+    if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean sunThreadMXBean && sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+      return sunThreadMXBean.getCurrentThreadAllocatedBytes();
+    }
+    return 0L;
+  }
+
+  private static class Stats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+  }
+}
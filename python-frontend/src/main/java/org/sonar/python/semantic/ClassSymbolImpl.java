@@ -208,8 +208,9 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
   }
 
   @Override
-  public List<Symbol> superClasses() {
+  public synchronized List<Symbol> superClasses() {
     // In case of symbols coming from TypeShed protobuf, we resolve superclasses lazily
+    // Such symbols are shared by the whole analysis, hence the synchronization
     if (!hasAlreadyReadSuperClasses && superClasses.isEmpty() && !superClassesFqns.isEmpty()) {
       superClassesFqns.stream().map(SymbolUtils::typeshedSymbolWithFQN).forEach(this::addSuperClass);
     }
@@ -331,6 +332,16 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
     return hasDecorators;
   }
 
+  /**
+   * Computes the lazily initialized state of this symbol, which is not synchronized, before sharing it between threads.
+   */
+  void initializeLazyState() {
+    superClasses();
+    membersByName();
+    allSuperClasses(false);
+    allSuperClasses(true);
+  }
+
   private Map<String, Symbol> membersByName() {
     if (membersByName == null) {
       membersByName = declaredMembers().stream().collect(Collectors.toMap(Symbol::name, m -> m, (s1, s2) -> s1));
@@ -19,18 +19,23 @@
  */
 package org.sonar.python.semantic;
 
-import java.util.Collection;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.symbols.AmbiguousSymbol;
+import org.sonar.plugins.python.api.symbols.FunctionSymbol;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
@@ -41,16 +46,34 @@ import org.sonar.python.index.AmbiguousDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.DescriptorUtils;
 import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.types.DeclaredType;
 
 import static org.sonar.python.tree.TreeUtils.getSymbolFromTree;
 import static org.sonar.python.tree.TreeUtils.nthArgumentOrKeyword;
 
+/**
+ * Global descriptors of the project modules, by module name and by fully qualified name.
+ * <p>
+ * The index by fully qualified name is built on the first lookup, then maintained incrementally as modules are added, replaced or
+ * removed: a module update only costs the size of its own descriptors, which matters in SonarLint where files are re-indexed on each save.
+ * Updates are serialized, while lookups can run concurrently with them.
+ */
 public class ProjectLevelSymbolTable {
 
+  private static final int MAX_REFERENCED_SYMBOLS = 10_000;
+
   private final Map<String, Set<Descriptor>> globalDescriptorsByModuleName;
-  private Map<String, Descriptor> globalDescriptorsByFQN;
-  private final Set<String> djangoViewsFQN = new HashSet<>();
-  private final Map<String, Set<String>> importsByModule = new HashMap<>();
+  private final Map<String, Descriptor> globalDescriptorsByFQN = new ConcurrentHashMap<>();
+  private volatile boolean globalDescriptorsByFQNBuilt = false;
+  // module defining each fully qualified name, unless several modules define it
+  private final Map<String, String> moduleNameByFQN = new HashMap<>();
+  // descriptors merged into an AmbiguousDescriptor of globalDescriptorsByFQN, by defining module
+  private final Map<String, Map<String, Descriptor>> descriptorsByModuleNameByAmbiguousFQN = new HashMap<>();
+  // symbols referenced by the symbols created from descriptors, shared until the descriptors change
+  private final Map<String, Symbol> referencedSymbolsByFQN = Collections.synchronizedMap(new ReferencedSymbols());
+  private final ThreadLocal<Deque<SymbolCreation>> symbolsInCreation = ThreadLocal.withInitial(ArrayDeque::new);
+  private final Set<String> djangoViewsFQN = ConcurrentHashMap.newKeySet();
+  private final Map<String, Set<String>> importsByModule = new ConcurrentHashMap<>();
   private final Set<String> projectBasePackages = new HashSet<>();
 
   public static ProjectLevelSymbolTable empty() {
@@ -62,11 +85,11 @@ public class ProjectLevelSymbolTable {
   }
 
   public ProjectLevelSymbolTable() {
-    this.globalDescriptorsByModuleName = new HashMap<>();
+    this.globalDescriptorsByModuleName = new ConcurrentHashMap<>();
   }
 
   private ProjectLevelSymbolTable(Map<String, Set<Symbol>> globalSymbolsByModuleName) {
-    this.globalDescriptorsByModuleName = new HashMap<>();
+    this.globalDescriptorsByModuleName = new ConcurrentHashMap<>();
     globalSymbolsByModuleName.entrySet().forEach(entry -> {
       String moduleName = entry.getKey();
       Set<Symbol> symbols = entry.getValue();
@@ -75,19 +98,28 @@ public class ProjectLevelSymbolTable {
     });
   }
 
-  public void removeModule(String packageName, String fileName) {
+  public synchronized void removeModule(String packageName, String fileName) {
     String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, fileName);
-    globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
-    // ensure globalDescriptorsByFQN is re-computed
-    this.globalDescriptorsByFQN = null;
+    Set<Descriptor> descriptors = globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
+    if (descriptors != null && globalDescriptorsByFQNBuilt) {
+      removeFromGlobalDescriptorsByFQN(fullyQualifiedModuleName, descriptors);
+    }
+    referencedSymbolsByFQN.clear();
   }
 
   public void addModule(FileInput fileInput, String packageName, PythonFile pythonFile) {
+    addModule(moduleDescriptors(fileInput, packageName, pythonFile));
+  }
+
+  /**
+   * Computes the global descriptors, imported modules and Django views of a module without modifying any project-level symbol table.
+   * The result is meant to be merged afterwards using {@link #addModule(ModuleDescriptors)}.
+   */
+  public static ModuleDescriptors moduleDescriptors(FileInput fileInput, String packageName, PythonFile pythonFile) {
     SymbolTableBuilder symbolTableBuilder = new SymbolTableBuilder(packageName, pythonFile);
     String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, pythonFile.fileName());
     fileInput.accept(symbolTableBuilder);
     Set<Descriptor> globalDescriptors = new HashSet<>();
-    importsByModule.put(fullyQualifiedModuleName, symbolTableBuilder.importedModulesFQN());
     for (Symbol globalVariable : fileInput.globalVariables()) {
       String fullyQualifiedVariableName = globalVariable.fullyQualifiedName();
       if (((fullyQualifiedVariableName != null) && !fullyQualifiedVariableName.startsWith(fullyQualifiedModuleName)) ||
@@ -106,34 +138,94 @@ public class ProjectLevelSymbolTable {
         }
       }
     }
-    globalDescriptorsByModuleName.put(fullyQualifiedModuleName, globalDescriptors);
-    if (globalDescriptorsByFQN != null) {
-      // TODO: build globalSymbolsByFQN incrementally
-      addModuleToGlobalSymbolsByFQN(globalDescriptors);
-    }
     DjangoViewsVisitor djangoViewsVisitor = new DjangoViewsVisitor();
     fileInput.accept(djangoViewsVisitor);
+    return new ModuleDescriptors(fullyQualifiedModuleName, globalDescriptors, symbolTableBuilder.importedModulesFQN(), djangoViewsVisitor.djangoViewsFQN);
+  }
+
+  /**
+   * Adds the descriptors of a module, replacing the ones of any module with the same fully qualified name in a single step.
+   */
+  public synchronized void addModule(ModuleDescriptors moduleDescriptors) {
+    String fullyQualifiedModuleName = moduleDescriptors.fullyQualifiedModuleName();
+    importsByModule.put(fullyQualifiedModuleName, moduleDescriptors.importedModulesFQN());
+    putModuleDescriptors(fullyQualifiedModuleName, moduleDescriptors.descriptors());
+    djangoViewsFQN.addAll(moduleDescriptors.djangoViewsFQN());
   }
 
-  private void addModuleToGlobalSymbolsByFQN(Set<Descriptor> descriptors) {
+  private void putModuleDescriptors(String moduleName, Set<Descriptor> descriptors) {
+    Set<Descriptor> previousDescriptors = globalDescriptorsByModuleName.put(moduleName, descriptors);
+    if (globalDescriptorsByFQNBuilt) {
+      if (previousDescriptors != null) {
+        removeFromGlobalDescriptorsByFQN(moduleName, previousDescriptors);
+      }
+      addToGlobalDescriptorsByFQN(moduleName, descriptors);
+    }
+    referencedSymbolsByFQN.clear();
+  }
+
+  private void addToGlobalDescriptorsByFQN(String moduleName, Set<Descriptor> descriptors) {
     Map<String, Descriptor> moduleDescriptorsByFQN = descriptors.stream()
       .filter(d -> d.fullyQualifiedName() != null)
       .collect(Collectors.toMap(Descriptor::fullyQualifiedName, Function.identity(), AmbiguousDescriptor::create));
-    globalDescriptorsByFQN.putAll(moduleDescriptorsByFQN);
+    moduleDescriptorsByFQN.forEach((fullyQualifiedName, descriptor) -> {
+      Map<String, Descriptor> descriptorsByModuleName = descriptorsByModuleNameByAmbiguousFQN.get(fullyQualifiedName);
+      if (descriptorsByModuleName == null) {
+        String otherModuleName = moduleNameByFQN.putIfAbsent(fullyQualifiedName, moduleName);
+        if (otherModuleName == null) {
+          globalDescriptorsByFQN.put(fullyQualifiedName, descriptor);
+          return;
+        }
+        moduleNameByFQN.remove(fullyQualifiedName);
+        descriptorsByModuleName = new HashMap<>();
+        descriptorsByModuleName.put(otherModuleName, globalDescriptorsByFQN.get(fullyQualifiedName));
+        descriptorsByModuleNameByAmbiguousFQN.put(fullyQualifiedName, descriptorsByModuleName);
+      }
+      descriptorsByModuleName.put(moduleName, descriptor);
+      globalDescriptorsByFQN.put(fullyQualifiedName, AmbiguousDescriptor.create(new HashSet<>(descriptorsByModuleName.values())));
+    });
+  }
 
+  private void removeFromGlobalDescriptorsByFQN(String moduleName, Set<Descriptor> descriptors) {
+    for (Descriptor descriptor : descriptors) {
+      String fullyQualifiedName = descriptor.fullyQualifiedName();
+      if (fullyQualifiedName == null) {
+        continue;
+      }
+      if (moduleNameByFQN.remove(fullyQualifiedName, moduleName)) {
+        globalDescriptorsByFQN.remove(fullyQualifiedName);
+        continue;
+      }
+      Map<String, Descriptor> descriptorsByModuleName = descriptorsByModuleNameByAmbiguousFQN.get(fullyQualifiedName);
+      if (descriptorsByModuleName == null || descriptorsByModuleName.remove(moduleName) == null) {
+        // already removed, as several descriptors of the module share this name
+        continue;
+      }
+      if (descriptorsByModuleName.size() == 1) {
+        descriptorsByModuleNameByAmbiguousFQN.remove(fullyQualifiedName);
+        Map.Entry<String, Descriptor> remaining = descriptorsByModuleName.entrySet().iterator().next();
+        moduleNameByFQN.put(fullyQualifiedName, remaining.getKey());
+        globalDescriptorsByFQN.put(fullyQualifiedName, remaining.getValue());
+      } else {
+        globalDescriptorsByFQN.put(fullyQualifiedName, AmbiguousDescriptor.create(new HashSet<>(descriptorsByModuleName.values())));
+      }
+    }
   }
 
   private Map<String, Descriptor> globalDescriptorsByFQN() {
-    if (globalDescriptorsByFQN == null) {
-      globalDescriptorsByFQN = globalDescriptorsByModuleName.values()
-        .stream()
-        .flatMap(Collection::stream)
-        .filter(descriptor -> descriptor.fullyQualifiedName() != null)
-        .collect(Collectors.toMap(Descriptor::fullyQualifiedName, Function.identity(), AmbiguousDescriptor::create));
+    if (!globalDescriptorsByFQNBuilt) {
+      buildGlobalDescriptorsByFQN();
     }
     return globalDescriptorsByFQN;
   }
 
+  private synchronized void buildGlobalDescriptorsByFQN() {
+    if (!globalDescriptorsByFQNBuilt) {
+      globalDescriptorsByModuleName.forEach(this::addToGlobalDescriptorsByFQN);
+      globalDescriptorsByFQNBuilt = true;
+    }
+  }
+
   @CheckForNull
   public Symbol getSymbol(@Nullable String fullyQualifiedName) {
     return getSymbol(fullyQualifiedName, null);
@@ -147,27 +239,108 @@ public class ProjectLevelSymbolTable {
                           Map<Descriptor, Symbol> createdSymbolsByDescriptor, Map<String, Symbol> createdSymbolsByFqn) {
     if (fullyQualifiedName == null) return null;
     Descriptor descriptor = globalDescriptorsByFQN().get(fullyQualifiedName);
-    return descriptor == null ? null : DescriptorUtils.symbolFromDescriptor(descriptor, this, localSymbolName, createdSymbolsByDescriptor, createdSymbolsByFqn);
+    return descriptor == null ? null : createSymbol(descriptor, localSymbolName, createdSymbolsByDescriptor, new SymbolCreation(fullyQualifiedName, createdSymbolsByFqn));
+  }
+
+  /**
+   * Returns the symbol of a super class or declared type referenced by a symbol created from descriptors.
+   * Unlike the symbols returned by {@link #getSymbol}, which get bound in the symbol table of the analyzed file, referenced symbols are not modified
+   * afterwards: they are created once and shared, so that the type hierarchy of a heavily imported module is not rebuilt for each importing file.
+   * In a cyclic type hierarchy, the symbol being created is returned instead, and the symbols of the cycle are not shared.
+   * Within {@link #getSymbolsFromModule}, symbols of the same module are not shared either: they are created with the maps of the caller,
+   * so that the returned symbols reference each other.
+   */
+  @CheckForNull
+  public Symbol getReferencedSymbol(@Nullable String fullyQualifiedName, Map<Descriptor, Symbol> createdSymbolsByDescriptor, Map<String, Symbol> createdSymbolsByFqn) {
+    if (fullyQualifiedName == null) return null;
+    Descriptor descriptor = globalDescriptorsByFQN().get(fullyQualifiedName);
+    if (descriptor == null) {
+      return null;
+    }
+    SymbolCreation currentCreation = symbolsInCreation.get().peek();
+    if (currentCreation != null && currentCreation.moduleDescriptors.contains(descriptor)) {
+      return createSymbol(descriptor, null, createdSymbolsByDescriptor, new SymbolCreation(fullyQualifiedName, createdSymbolsByFqn, currentCreation.moduleDescriptors));
+    }
+    Symbol symbol = referencedSymbolsByFQN.get(fullyQualifiedName);
+    if (symbol != null) {
+      return symbol;
+    }
+    SymbolCreation cycleStart = symbolsInCreation.get().stream()
+      .filter(creation -> fullyQualifiedName.equals(creation.fullyQualifiedName))
+      .findFirst()
+      .orElse(null);
+    if (cycleStart != null) {
+      // the symbols created since then are part of the cycle and reference a symbol which may not be shared
+      for (SymbolCreation creation : symbolsInCreation.get()) {
+        if (creation == cycleStart) {
+          break;
+        }
+        creation.cyclic = true;
+      }
+      Symbol symbolInCreation = cycleStart.createdSymbolsByFqn.get(fullyQualifiedName);
+      return symbolInCreation != null ? symbolInCreation : getSymbol(fullyQualifiedName, null, createdSymbolsByDescriptor, createdSymbolsByFqn);
+    }
+    SymbolCreation creation = new SymbolCreation(fullyQualifiedName, new HashMap<>());
+    symbol = createSymbol(descriptor, null, new HashMap<>(), creation);
+    if (creation.cyclic) {
+      return symbol;
+    }
+    initializeLazyState(symbol, Collections.newSetFromMap(new IdentityHashMap<>()));
+    Symbol previousSymbol = referencedSymbolsByFQN.putIfAbsent(fullyQualifiedName, symbol);
+    return previousSymbol != null ? previousSymbol : symbol;
+  }
+
+  /**
+   * The lazily computed state of class symbols is not synchronized: it is computed before the symbols are shared between threads.
+   */
+  private static void initializeLazyState(Symbol symbol, Set<Symbol> initializedSymbols) {
+    if (!initializedSymbols.add(symbol)) {
+      return;
+    }
+    if (symbol instanceof AmbiguousSymbol ambiguousSymbol) {
+      ambiguousSymbol.alternatives().forEach(alternative -> initializeLazyState(alternative, initializedSymbols));
+    } else if (symbol instanceof ClassSymbolImpl classSymbol) {
+      classSymbol.initializeLazyState();
+      classSymbol.superClasses().forEach(superClass -> initializeLazyState(superClass, initializedSymbols));
+      classSymbol.declaredMembers().forEach(member -> initializeLazyState(member, initializedSymbols));
+    } else if (symbol instanceof FunctionSymbol functionSymbol) {
+      functionSymbol.parameters().stream()
+        .map(FunctionSymbol.Parameter::declaredType)
+        .filter(DeclaredType.class::isInstance)
+        .map(declaredType -> ((DeclaredType) declaredType).getTypeClass())
+        .forEach(typeClass -> initializeLazyState(typeClass, initializedSymbols));
+    }
+  }
+
+  private Symbol createSymbol(Descriptor descriptor, @Nullable String localSymbolName, Map<Descriptor, Symbol> createdSymbolsByDescriptor, SymbolCreation creation) {
+    Deque<SymbolCreation> creations = symbolsInCreation.get();
+    creations.push(creation);
+    try {
+      return DescriptorUtils.symbolFromDescriptor(descriptor, this, localSymbolName, createdSymbolsByDescriptor, creation.createdSymbolsByFqn);
+    } finally {
+      creations.pop();
+    }
   }
 
   @CheckForNull
   public Set<Symbol> getSymbolsFromModule(@Nullable String moduleName) {
-    Set<Descriptor> descriptors = globalDescriptorsByModuleName.get(moduleName);
+    Set<Descriptor> descriptors = moduleName == null ? null : globalDescriptorsByModuleName.get(moduleName);
     if (descriptors == null) {
       return null;
     }
     Map<Descriptor, Symbol> createdSymbolsByDescriptor = new HashMap<>();
     Map<String, Symbol> createdSymbolsByFqn = new HashMap<>();
     return descriptors.stream()
-      .map(desc -> DescriptorUtils.symbolFromDescriptor(desc, this, null, createdSymbolsByDescriptor, createdSymbolsByFqn)).collect(Collectors.toSet());
+      .map(desc -> createSymbol(desc, null, createdSymbolsByDescriptor, new SymbolCreation(desc.fullyQualifiedName(), createdSymbolsByFqn, descriptors)))
+      .collect(Collectors.toSet());
   }
 
   public Map<String, Set<String>> importsByModule() {
     return Collections.unmodifiableMap(importsByModule);
   }
 
-  public void insertEntry(String moduleName, Set<Descriptor> descriptors) {
-    this.globalDescriptorsByModuleName.put(moduleName, descriptors);
+  public synchronized void insertEntry(String moduleName, Set<Descriptor> descriptors) {
+    putModuleDescriptors(moduleName, descriptors);
   }
 
   @CheckForNull
@@ -176,7 +349,7 @@ public class ProjectLevelSymbolTable {
   }
 
   public boolean isDjangoView(@Nullable String fqn) {
-    return djangoViewsFQN.contains(fqn);
+    return fqn != null && djangoViewsFQN.contains(fqn);
   }
 
   public void addProjectPackage(String projectPackage) {
@@ -187,7 +360,45 @@ public class ProjectLevelSymbolTable {
     return projectBasePackages;
   }
 
-  private class DjangoViewsVisitor extends BaseTreeVisitor {
+  private static class SymbolCreation {
+    @Nullable
+    private final String fullyQualifiedName;
+    private final Map<String, Symbol> createdSymbolsByFqn;
+    // descriptors of the module whose symbols are created together, if any
+    private final Set<Descriptor> moduleDescriptors;
+    private boolean cyclic = false;
+
+    private SymbolCreation(@Nullable String fullyQualifiedName, Map<String, Symbol> createdSymbolsByFqn) {
+      this(fullyQualifiedName, createdSymbolsByFqn, Collections.emptySet());
+    }
+
+    private SymbolCreation(@Nullable String fullyQualifiedName, Map<String, Symbol> createdSymbolsByFqn, Set<Descriptor> moduleDescriptors) {
+      this.fullyQualifiedName = fullyQualifiedName;
+      this.createdSymbolsByFqn = createdSymbolsByFqn;
+      this.moduleDescriptors = moduleDescriptors;
+    }
+  }
+
+  /**
+   * Bounded map of referenced symbols, evicting the least recently used ones.
+   */
+  private static class ReferencedSymbols extends LinkedHashMap<String, Symbol> {
+    private ReferencedSymbols() {
+      super(16, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Symbol> eldest) {
+      return size() > MAX_REFERENCED_SYMBOLS;
+    }
+  }
+
+  public record ModuleDescriptors(String fullyQualifiedModuleName, Set<Descriptor> descriptors, Set<String> importedModulesFQN, Set<String> djangoViewsFQN) {
+  }
+
+  private static class DjangoViewsVisitor extends BaseTreeVisitor {
+    private final Set<String> djangoViewsFQN = new HashSet<>();
+
     @Override
     public void visitCallExpression(CallExpression callExpression) {
       Symbol calleeSymbol = callExpression.calleeSymbol();
@@ -0,0 +1,134 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.ClassDef;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.QualifiedExpression;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.plugins.python.api.tree.TryStatement;
+import org.sonar.python.tree.FileInputImpl;
+
+/**
+ * Structure of a file needed by both the v1 and v2 type inferences, collected in a single traversal of the tree
+ * and then shared by all the semantic passes run on it.
+ */
+public class ScopeTrees {
+
+  private final List<FunctionDef> functionDefs = new ArrayList<>();
+  private final List<QualifiedExpression> qualifiedExpressions = new ArrayList<>();
+  private final Set<Tree> scopesWithTryStatement = new HashSet<>();
+
+  private ScopeTrees() {
+  }
+
+  /**
+   * The scope trees of a file are collected once and then shared by all the callers, until the tree is discarded.
+   */
+  public static ScopeTrees of(FileInput fileInput) {
+    if (fileInput instanceof FileInputImpl fileInputImpl) {
+      ScopeTrees scopeTrees = fileInputImpl.scopeTrees();
+      if (scopeTrees == null) {
+        scopeTrees = collect(fileInput);
+        fileInputImpl.setScopeTrees(scopeTrees);
+      }
+      return scopeTrees;
+    }
+    return collect(fileInput);
+  }
+
+  private static ScopeTrees collect(FileInput fileInput) {
+    ScopeTrees scopeTrees = new ScopeTrees();
+    fileInput.accept(scopeTrees.new Collector());
+    return scopeTrees;
+  }
+
+  /**
+   * All function definitions of the file, nested functions coming before their enclosing function.
+   */
+  public List<FunctionDef> functionDefs() {
+    return Collections.unmodifiableList(functionDefs);
+  }
+
+  /**
+   * All qualified expressions of the file, qualifiers coming before the expressions they qualify.
+   */
+  public List<QualifiedExpression> qualifiedExpressions() {
+    return Collections.unmodifiableList(qualifiedExpressions);
+  }
+
+  /**
+   * Whether the body of the given file or function contains a try statement, excluding nested classes and functions.
+   */
+  public boolean hasTryStatement(Tree scopeTree) {
+    return scopesWithTryStatement.contains(scopeTree);
+  }
+
+  private class Collector extends BaseTreeVisitor {
+    // null inside class bodies, whose try statements are not attached to any scope
+    @Nullable
+    private Tree currentScope;
+
+    @Override
+    public void visitFileInput(FileInput fileInput) {
+      currentScope = fileInput;
+      super.visitFileInput(fileInput);
+    }
+
+    @Override
+    public void visitFunctionDef(FunctionDef functionDef) {
+      Tree enclosingScope = currentScope;
+      currentScope = functionDef;
+      super.visitFunctionDef(functionDef);
+      currentScope = enclosingScope;
+      functionDefs.add(functionDef);
+    }
+
+    @Override
+    public void visitClassDef(ClassDef classDef) {
+      Tree enclosingScope = currentScope;
+      currentScope = null;
+      super.visitClassDef(classDef);
+      currentScope = enclosingScope;
+    }
+
+    @Override
+    public void visitTryStatement(TryStatement tryStatement) {
+      if (currentScope != null) {
+        scopesWithTryStatement.add(currentScope);
+      }
+      super.visitTryStatement(tryStatement);
+    }
+
+    @Override
+    public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
+      super.visitQualifiedExpression(qualifiedExpression);
+      qualifiedExpressions.add(qualifiedExpression);
+    }
+  }
+}
@@ -79,6 +79,7 @@ import org.sonar.plugins.python.api.tree.TypeAliasStatement;
 import org.sonar.plugins.python.api.tree.TypeAnnotation;
 import org.sonar.plugins.python.api.tree.TypeParams;
 import org.sonar.plugins.python.api.tree.WithItem;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.tree.ClassDefImpl;
 import org.sonar.python.tree.ComprehensionExpressionImpl;
 import org.sonar.python.tree.DictCompExpressionImpl;
@@ -133,6 +134,7 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
 
   @Override
   public void visitFileInput(FileInput fileInput) {
+    AnalysisProfiler.Measure symbolTableMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_SYMBOL_TABLE_V1);
     this.fileInput = fileInput;
     scopesByRootTree = new HashMap<>();
     fileInput.accept(new FirstPhaseVisitor());
@@ -140,7 +142,10 @@ public class SymbolTableBuilder extends BaseTreeVisitor {
     createAmbiguousSymbols();
     addSymbolsToTree((FileInputImpl) fileInput);
     fileInput.accept(new ThirdPhaseVisitor());
+    symbolTableMeasure.stop();
+    AnalysisProfiler.Measure typeInferenceMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_TYPE_INFERENCE_V1);
     TypeInference.inferTypes(fileInput, pythonFile);
+    typeInferenceMeasure.stop();
   }
 
   private static class SymbolToUpdate {
@@ -34,18 +34,23 @@ public class LazyTypesContext {
   }
 
   public LazyType getOrCreateLazyType(String fullyQualifiedName) {
-    if (lazyTypes.containsKey(fullyQualifiedName)) {
-      return lazyTypes.get(fullyQualifiedName);
+    // Lazy types are created, given their consumers and resolved while holding the lock of the table, which may be shared by several analyses
+    synchronized (projectLevelTypeTable) {
+      if (lazyTypes.containsKey(fullyQualifiedName)) {
+        return lazyTypes.get(fullyQualifiedName);
+      }
+      var lazyType = new LazyType(fullyQualifiedName, this);
+      lazyTypes.put(fullyQualifiedName, lazyType);
+      return lazyType;
     }
-    var lazyType = new LazyType(fullyQualifiedName, this);
-    lazyTypes.put(fullyQualifiedName, lazyType);
-    return lazyType;
   }
 
   public PythonType resolveLazyType(LazyType lazyType) {
-    PythonType resolved = projectLevelTypeTable.getType(lazyType.fullyQualifiedName());
-    lazyType.resolve(resolved);
-    lazyTypes.remove(lazyType.fullyQualifiedName());
-    return resolved;
+    synchronized (projectLevelTypeTable) {
+      PythonType resolved = projectLevelTypeTable.getType(lazyType.fullyQualifiedName());
+      lazyType.resolve(resolved);
+      lazyTypes.remove(lazyType.fullyQualifiedName(), lazyType);
+      return resolved;
+    }
   }
 }
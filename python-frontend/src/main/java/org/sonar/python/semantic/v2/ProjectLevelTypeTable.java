@@ -22,16 +22,24 @@ package org.sonar.python.semantic.v2;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.types.v2.ModuleType;
 import org.sonar.python.types.v2.PythonType;
 
+/**
+ * Types of the builtins, of the project modules and of the TypeShed stubs, converted from their symbols the first time they are
+ * resolved. A single table can be shared by all the files of an analysis, as long as the project-level symbol table does not change.
+ * The shared types only grow, when modules and lazy types are resolved: modules are converted, and lazy types are created, given
+ * their consumers and resolved, while holding the lock of the table.
+ */
 public class ProjectLevelTypeTable {
 
   private final SymbolsModuleTypeProvider symbolsModuleTypeProvider;
   private final ModuleType rootModule;
   private final LazyTypesContext lazyTypesContext;
+  private final Map<String, PythonType> resolvedTypesByFqn = new ConcurrentHashMap<>();
   private final Map<String, Map<String, String>> aliasMembers = Map.ofEntries(
     Map.entry("typing", Map.ofEntries(
       Map.entry("List", "list"),
@@ -58,15 +66,25 @@ public class ProjectLevelTypeTable {
     return rootModule;
   }
 
+  /**
+   * Types which could be resolved are memoized, as the fully qualified names used by checks and by lazy types are resolved over and over.
+   */
   public PythonType getType(String typeFqn) {
-    return getType(typeFqn.split("\\."));
+    PythonType type = resolvedTypesByFqn.get(typeFqn);
+    if (type == null) {
+      type = getType(typeFqn.split("\\."));
+      if (type != PythonType.UNKNOWN) {
+        resolvedTypesByFqn.put(typeFqn, type);
+      }
+    }
+    return type;
   }
 
   public PythonType getType(String... typeFqnParts) {
     return getType(List.of(typeFqnParts));
   }
 
-  public PythonType getType(List<String> typeFqnParts) {
+  public synchronized PythonType getType(List<String> typeFqnParts) {
     var parent = (PythonType) rootModule;
     for (int i = 0; i < typeFqnParts.size(); i++) {
       var part = typeFqnParts.get(i);
@@ -92,7 +110,7 @@ public class ProjectLevelTypeTable {
     return lazyTypesContext;
   }
 
-  public void addAliasMembers(List<String> moduleFqnParts, ModuleType moduleType) {
+  public synchronized void addAliasMembers(List<String> moduleFqnParts, ModuleType moduleType) {
     String moduleFqn = String.join(".", moduleFqnParts);
     aliasMembers.getOrDefault(moduleFqn, Map.of())
       .forEach((memberName, alias) -> {
@@ -27,7 +27,6 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
@@ -39,7 +38,7 @@ import org.sonar.python.semantic.v2.types.FlowSensitiveTypeInference;
 import org.sonar.python.semantic.v2.types.Propagation;
 import org.sonar.python.semantic.v2.types.PropagationVisitor;
 import org.sonar.python.semantic.v2.types.TrivialTypeInferenceVisitor;
-import org.sonar.python.semantic.v2.types.TryStatementVisitor;
+import org.sonar.python.semantic.ScopeTrees;
 import org.sonar.python.tree.TreeUtils;
 import org.sonar.python.types.v2.PythonType;
 
@@ -59,19 +58,13 @@ public class TypeInferenceV2 {
     TrivialTypeInferenceVisitor trivialTypeInferenceVisitor = new TrivialTypeInferenceVisitor(projectLevelTypeTable, pythonFile);
     fileInput.accept(trivialTypeInferenceVisitor);
 
-    inferTypesAndMemberAccessSymbols(fileInput);
-
-    fileInput.accept(new BaseTreeVisitor() {
-      @Override
-      public void visitFunctionDef(FunctionDef funcDef) {
-        super.visitFunctionDef(funcDef);
-        inferTypesAndMemberAccessSymbols(funcDef);
-      }
-    });
+    ScopeTrees scopeTrees = ScopeTrees.of(fileInput);
+    inferTypesAndMemberAccessSymbols(fileInput, scopeTrees);
+    scopeTrees.functionDefs().forEach(funcDef -> inferTypesAndMemberAccessSymbols(funcDef, scopeTrees));
   }
 
 
-  private void inferTypesAndMemberAccessSymbols(FileInput fileInput) {
+  private void inferTypesAndMemberAccessSymbols(FileInput fileInput, ScopeTrees scopeTrees) {
     StatementList statements = fileInput.statements();
     if (statements == null) {
       return;
@@ -80,32 +73,32 @@ public class TypeInferenceV2 {
 
     inferTypesAndMemberAccessSymbols(
       fileInput,
-      statements,
       moduleSymbols,
       Collections.emptySet(),
+      scopeTrees.hasTryStatement(fileInput),
       () -> ControlFlowGraph.build(fileInput, pythonFile)
     );
   }
 
-  private void inferTypesAndMemberAccessSymbols(FunctionDef functionDef) {
+  private void inferTypesAndMemberAccessSymbols(FunctionDef functionDef, ScopeTrees scopeTrees) {
     Set<Name> parameterNames = TreeUtils.nonTupleParameters(functionDef).stream()
       .map(Parameter::name)
       .collect(Collectors.toSet());
     Set<SymbolV2> localVariables = symbolTable.getSymbolsByRootTree(functionDef);
     inferTypesAndMemberAccessSymbols(
       functionDef,
-      functionDef.body(),
       localVariables,
       parameterNames,
+      scopeTrees.hasTryStatement(functionDef),
       () -> ControlFlowGraph.build(functionDef, pythonFile)
     );
   }
 
 
   private void inferTypesAndMemberAccessSymbols(Tree scopeTree,
-    StatementList statements,
     Set<SymbolV2> declaredVariables,
     Set<Name> annotatedParameterNames,
+    boolean hasTryStatement,
     Supplier<ControlFlowGraph> controlFlowGraphSupplier
   ) {
     PropagationVisitor propagationVisitor = new PropagationVisitor();
@@ -115,9 +108,7 @@ public class TypeInferenceV2 {
       .map(Propagation::lhsName)
       .collect(Collectors.toSet());
 
-    TryStatementVisitor tryStatementVisitor = new TryStatementVisitor();
-    statements.accept(tryStatementVisitor);
-    if (tryStatementVisitor.hasTryStatement()) {
+    if (hasTryStatement) {
       // CFG doesn't model precisely try-except statements. Hence we fallback to AST based type inference
       propagationVisitor.processPropagations(getTrackedVars(declaredVariables, assignedNames));
     } else {
@@ -26,6 +26,7 @@ import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.StatementList;
@@ -33,6 +34,7 @@ import org.sonar.plugins.python.api.tree.StringLiteral;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.TreeVisitor;
+import org.sonar.python.semantic.ScopeTrees;
 
 public class FileInputImpl extends PyTree implements FileInput {
 
@@ -40,6 +42,8 @@ public class FileInputImpl extends PyTree implements FileInput {
   private final Token endOfFile;
   private final StringLiteral docstring;
   private final Set<Symbol> globalVariables = new HashSet<>();
+  private ControlFlowGraph controlFlowGraph;
+  private ScopeTrees scopeTrees;
 
   public FileInputImpl(@Nullable StatementList statements, Token endOfFile, @Nullable StringLiteral docstring) {
     this.statements = statements;
@@ -82,4 +86,22 @@ public class FileInputImpl extends PyTree implements FileInput {
   public List<Tree> computeChildren() {
     return Stream.of(statements, endOfFile).filter(Objects::nonNull).toList();
   }
+
+  @CheckForNull
+  public ControlFlowGraph controlFlowGraph() {
+    return controlFlowGraph;
+  }
+
+  public void setControlFlowGraph(@Nullable ControlFlowGraph controlFlowGraph) {
+    this.controlFlowGraph = controlFlowGraph;
+  }
+
+  @CheckForNull
+  public ScopeTrees scopeTrees() {
+    return scopeTrees;
+  }
+
+  public void setScopeTrees(@Nullable ScopeTrees scopeTrees) {
+    this.scopeTrees = scopeTrees;
+  }
 }
@@ -28,6 +28,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.FunctionSymbol;
 import org.sonar.plugins.python.api.tree.Decorator;
 import org.sonar.plugins.python.api.tree.FunctionDef;
@@ -63,6 +64,7 @@ public class FunctionDefImpl extends PyTree implements FunctionDef {
   private final StringLiteral docstring;
   private Set<Symbol> symbols = new HashSet<>();
   private FunctionSymbol functionSymbol;
+  private ControlFlowGraph controlFlowGraph;
 
   public FunctionDefImpl(List<Decorator> decorators, @Nullable Token asyncKeyword, Token defKeyword, Name name, TypeParams typeParams,
                          Token leftPar, @Nullable ParameterList parameters, Token rightPar, @Nullable TypeAnnotation returnType,
@@ -189,4 +191,13 @@ public class FunctionDefImpl extends PyTree implements FunctionDef {
   public FunctionSymbol functionSymbol() {
     return functionSymbol;
   }
+
+  @CheckForNull
+  public ControlFlowGraph controlFlowGraph() {
+    return controlFlowGraph;
+  }
+
+  public void setControlFlowGraph(@Nullable ControlFlowGraph controlFlowGraph) {
+    this.controlFlowGraph = controlFlowGraph;
+  }
 }
@@ -79,7 +79,7 @@ public class IPythonTreeMaker extends PythonTreeMaker {
 
   private Stream<Statement> getStatementsFromCell(AstNode cell) {
     if (cell.is(IPythonGrammar.CELL)) {
-      return getStatements(cell).stream().map(this::statement);
+      return getStatements(cell).stream().map(this::convertStatement);
     } else {
       return Stream.of(cell.getFirstChild(IPythonGrammar.CELL_MAGIC_STATEMENT)).map(this::cellMagicStatement);
     }
@@ -114,8 +114,10 @@ import org.sonar.python.api.PythonTokenType;
 
 public class PythonTreeMaker {
 
+  private boolean releaseAstNodes = false;
+
   public FileInput fileInput(AstNode astNode) {
-    List<Statement> statements = getStatements(astNode).stream().map(this::statement).toList();
+    List<Statement> statements = getStatements(astNode).stream().map(this::convertStatement).toList();
     StatementListImpl statementList = statements.isEmpty() ? null : new StatementListImpl(statements);
     Token endOfFile = toPyToken(astNode.getFirstChild(GenericTokenType.EOF).getToken());
     FileInputImpl pyFileInputTree = new FileInputImpl(statementList, endOfFile, DocstringExtractor.extractDocstring(statementList));
@@ -124,6 +126,20 @@ public class PythonTreeMaker {
     return pyFileInputTree;
   }
 
+  /**
+   * Same as {@link #fileInput(AstNode)}, except that the children of each statement node are detached from the SSLR tree as soon as the
+   * statement has been converted, so that the already converted parts of the SSLR tree can be garbage collected while the rest of the
+   * file is converted. The SSLR tree is unusable afterwards: only callers which own it should use this method.
+   */
+  public FileInput fileInputReleasingAstNodes(AstNode astNode) {
+    releaseAstNodes = true;
+    try {
+      return fileInput(astNode);
+    } finally {
+      releaseAstNodes = false;
+    }
+  }
+
   public static void recognitionException(int line, String message) {
     throw new RecognitionException(line, "Parse error at line " + line + ": " + message + ".");
   }
@@ -148,6 +164,14 @@ public class PythonTreeMaker {
     }
   }
 
+  protected Statement convertStatement(StatementWithSeparator statementWithSeparator) {
+    Statement statement = statement(statementWithSeparator);
+    if (releaseAstNodes) {
+      statementWithSeparator.statement().getChildren().clear();
+    }
+    return statement;
+  }
+
   protected Statement statement(StatementWithSeparator statementWithSeparator) {
     AstNode astNode = statementWithSeparator.statement();
 
@@ -265,9 +289,9 @@ public class PythonTreeMaker {
       List<StatementWithSeparator> statements = getStatements(astNode);
       if (statements.isEmpty()) {
         List<StatementWithSeparator> statementsWithSeparators = getStatementsWithSeparators(astNode);
-        return statementsWithSeparators.stream().map(this::statement).toList();
+        return statementsWithSeparators.stream().map(this::convertStatement).toList();
       }
-      return statements.stream().map(this::statement)
+      return statements.stream().map(this::convertStatement)
         .toList();
     }
     return Collections.emptyList();
@@ -40,7 +40,6 @@ import org.sonar.plugins.python.api.symbols.Usage;
 import org.sonar.plugins.python.api.tree.AnnotatedAssignment;
 import org.sonar.plugins.python.api.tree.AssignmentStatement;
 import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
-import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.CompoundAssignmentStatement;
 import org.sonar.plugins.python.api.tree.Expression;
 import org.sonar.plugins.python.api.tree.FileInput;
@@ -51,8 +50,8 @@ import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.Statement;
 import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.plugins.python.api.tree.TryStatement;
 import org.sonar.plugins.python.api.types.InferredType;
+import org.sonar.python.semantic.ScopeTrees;
 import org.sonar.python.semantic.SymbolImpl;
 import org.sonar.python.tree.FunctionDefImpl;
 import org.sonar.python.tree.NameImpl;
@@ -71,30 +70,23 @@ public class TypeInference extends BaseTreeVisitor {
   private Map<String, InferredType> parameterTypesByName = new HashMap<>();
 
   public static void inferTypes(FileInput fileInput, PythonFile pythonFile) {
-    fileInput.accept(new BaseTreeVisitor() {
-      @Override
-      public void visitFunctionDef(FunctionDef funcDef) {
-        super.visitFunctionDef(funcDef);
-        inferTypesAndMemberAccessSymbols(funcDef, pythonFile);
-      }
-    });
-    fileInput.accept(new BaseTreeVisitor() {
-      @Override
-      public void visitQualifiedExpression(QualifiedExpression qualifiedExpression) {
-        super.visitQualifiedExpression(qualifiedExpression);
-        Name name = qualifiedExpression.name();
-        InferredType type = qualifiedExpression.qualifier().type();
-        if (!type.equals(TYPE_OF_SUPER)) {
-          Optional<Symbol> resolvedMember = type.resolveMember(name.name());
-          resolvedMember.ifPresent(m -> {
-            NameImpl nameImpl = ((NameImpl) name);
-            nameImpl.setSymbol(m);
-            nameImpl.setInferredType(((SymbolImpl) m).inferredType());
-          });
-        }
-      }
-    });
-    inferTypesAndMemberAccessSymbols(fileInput, pythonFile);
+    ScopeTrees scopeTrees = ScopeTrees.of(fileInput);
+    scopeTrees.functionDefs().forEach(funcDef -> inferTypesAndMemberAccessSymbols(funcDef, pythonFile, scopeTrees));
+    scopeTrees.qualifiedExpressions().forEach(TypeInference::resolveMember);
+    inferTypesAndMemberAccessSymbols(fileInput, pythonFile, scopeTrees);
+  }
+
+  private static void resolveMember(QualifiedExpression qualifiedExpression) {
+    Name name = qualifiedExpression.name();
+    InferredType type = qualifiedExpression.qualifier().type();
+    if (!type.equals(TYPE_OF_SUPER)) {
+      Optional<Symbol> resolvedMember = type.resolveMember(name.name());
+      resolvedMember.ifPresent(m -> {
+        NameImpl nameImpl = ((NameImpl) name);
+        nameImpl.setSymbol(m);
+        nameImpl.setInferredType(((SymbolImpl) m).inferredType());
+      });
+    }
   }
 
   private static Set<Symbol> getTrackedVars(Set<Symbol> localVariables, Set<Name> assignedNames) {
@@ -111,7 +103,7 @@ public class TypeInference extends BaseTreeVisitor {
     return trackedVars;
   }
 
-  private static void inferTypesAndMemberAccessSymbols(FileInput fileInput, PythonFile pythonFile) {
+  private static void inferTypesAndMemberAccessSymbols(FileInput fileInput, PythonFile pythonFile, ScopeTrees scopeTrees) {
     StatementList statements = fileInput.statements();
     if (statements == null) {
       return;
@@ -121,11 +113,12 @@ public class TypeInference extends BaseTreeVisitor {
       statements,
       fileInput.globalVariables(),
       Collections.emptySet(),
+      scopeTrees.hasTryStatement(fileInput),
       () -> ControlFlowGraph.build(fileInput, pythonFile)
     );
   }
 
-  private static void inferTypesAndMemberAccessSymbols(FunctionDef functionDef, PythonFile pythonFile) {
+  private static void inferTypesAndMemberAccessSymbols(FunctionDef functionDef, PythonFile pythonFile, ScopeTrees scopeTrees) {
     Set<Name> annotatedParamNames = TreeUtils.nonTupleParameters(functionDef).stream()
       .filter(parameter -> parameter.typeAnnotation() != null)
       .map(Parameter::name)
@@ -135,6 +128,7 @@ public class TypeInference extends BaseTreeVisitor {
       functionDef.body(),
       functionDef.localVariables(),
       annotatedParamNames,
+      scopeTrees.hasTryStatement(functionDef),
       () -> ControlFlowGraph.build(functionDef, pythonFile)
     );
   }
@@ -143,6 +137,7 @@ public class TypeInference extends BaseTreeVisitor {
     StatementList statements,
     Set<Symbol> declaredVariables,
     Set<Name> annotatedParameterNames,
+    boolean hasTryStatement,
     Supplier<ControlFlowGraph> controlFlowGraphSupplier
   ) {
     TypeInference visitor = new TypeInference();
@@ -152,9 +147,7 @@ public class TypeInference extends BaseTreeVisitor {
       .map(a -> a.lhsName)
       .collect(Collectors.toSet());
 
-    TryStatementVisitor tryStatementVisitor = new TryStatementVisitor();
-    statements.accept(tryStatementVisitor);
-    if (tryStatementVisitor.hasTryStatement) {
+    if (hasTryStatement) {
       // CFG doesn't model precisely try-except statements. Hence we fallback to AST based type inference
       visitor.processPropagations(getTrackedVars(declaredVariables, assignedNames));
       statements.accept(new NameVisitor());
@@ -182,25 +175,6 @@ public class TypeInference extends BaseTreeVisitor {
     }
   }
 
-  private static class TryStatementVisitor extends BaseTreeVisitor {
-    boolean hasTryStatement = false;
-
-    @Override
-    public void visitClassDef(ClassDef classDef) {
-      // Don't visit nested classes
-    }
-
-    @Override
-    public void visitFunctionDef(FunctionDef visited) {
-      // Don't visit nested functions
-    }
-
-    @Override
-    public void visitTryStatement(TryStatement tryStatement) {
-      hasTryStatement = true;
-    }
-  }
-
   @Override
   public void visitAssignmentStatement(AssignmentStatement assignmentStatement) {
     super.visitAssignmentStatement(assignmentStatement);
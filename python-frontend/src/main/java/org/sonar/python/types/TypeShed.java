@@ -19,8 +19,12 @@
  */
 package org.sonar.python.types;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,6 +33,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -60,10 +65,20 @@ import static org.sonar.plugins.python.api.types.BuiltinTypes.NONE_TYPE;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.STR;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.TUPLE;
 
+/**
+ * Repository of the symbols deserialized from TypeShed stubs, shared by the whole analysis.
+ * <p>
+ * Loaded modules can be read concurrently without locking. Modules are loaded at most once, while holding a single lock:
+ * loading a module may recursively load the modules it depends on, possibly in cycles, which per-module locks could not
+ * handle without risking deadlocks. Modules which are still being loaded are only visible to the thread loading them.
+ */
 public class TypeShed {
 
-  private static Map<String, Symbol> builtins;
-  private static final Map<String, Map<String, Symbol>> typeShedSymbols = new HashMap<>();
+  private static final Object LOCK = new Object();
+  private static volatile Map<String, Symbol> builtins;
+  private static final Map<String, Map<String, Symbol>> typeShedSymbols = new ConcurrentHashMap<>();
+  // Symbols of the loaded modules by fully qualified name, indexed on the first lookup by fully qualified name
+  private static final Map<String, Map<String, Symbol>> typeShedSymbolsByFqn = new ConcurrentHashMap<>();
   private static final Map<String, Set<Symbol>> builtinGlobalSymbols = new HashMap<>();
   private static final Set<String> modulesInProgress = new HashSet<>();
 
@@ -71,6 +86,10 @@ public class TypeShed {
   private static final String PROTOBUF = "stdlib_protobuf/";
   private static final String PROTOBUF_THIRD_PARTY = "third_party_protobuf/";
   private static final String PROTOBUF_THIRD_PARTY_MYPY = "third_party_protobuf_mypy/";
+  // Directories in which stubs are searched, by order of precedence
+  private static final List<String> STUB_DIRECTORIES = List.of(PROTOBUF_CUSTOM_STUBS, PROTOBUF, PROTOBUF_THIRD_PARTY_MYPY, PROTOBUF_THIRD_PARTY);
+  private static final String PROTOBUF_EXTENSION = ".protobuf";
+  private static final String STUBS_INDEX = "stubs.index";
   private static final String BUILTINS_FQN = "builtins";
   private static final String BUILTINS_PREFIX = BUILTINS_FQN + ".";
   // Those fundamentals builtins symbols need not to be ambiguous for the frontend to work properly
@@ -90,8 +109,10 @@ public class TypeShed {
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(TypeShed.class);
-  private static Set<String> supportedPythonVersions;
-  private static ProjectLevelSymbolTable projectLevelSymbolTable;
+  private static volatile Set<String> supportedPythonVersions;
+  // the project versions for which the stubs have been loaded, compared by identity as they are only replaced when the configuration is read
+  private static volatile Set<PythonVersionUtils.Version> loadedPythonVersions;
+  private static volatile ProjectLevelSymbolTable projectLevelSymbolTable;
 
   private TypeShed() {
   }
@@ -105,14 +126,20 @@ public class TypeShed {
   }
 
   public static Map<String, Symbol> builtinSymbols() {
-    if ((TypeShed.builtins == null)) {
-      supportedPythonVersions = ProjectPythonVersion.currentVersions().stream().map(PythonVersionUtils.Version::serializedValue).collect(Collectors.toSet());
-      Map<String, Symbol> builtins = getSymbolsFromProtobufModule(BUILTINS_FQN, PROTOBUF);
-      builtins.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
-      TypeShed.builtins = Collections.unmodifiableMap(builtins);
-      TypeShed.builtinGlobalSymbols.put("", new HashSet<>(builtins.values()));
+    checkProjectPythonVersions();
+    Map<String, Symbol> loadedBuiltins = TypeShed.builtins;
+    if (loadedBuiltins != null) {
+      return loadedBuiltins;
+    }
+    synchronized (LOCK) {
+      if (TypeShed.builtins == null) {
+        Map<String, Symbol> symbols = new HashMap<>(getSymbolsFromProtobufModule(moduleStub(BUILTINS_FQN)));
+        symbols.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
+        TypeShed.builtins = Collections.unmodifiableMap(symbols);
+        TypeShed.builtinGlobalSymbols.put("", new HashSet<>(symbols.values()));
+      }
+      return TypeShed.builtins;
     }
-    return builtins;
   }
 
   public static Map<String, Map<String, Symbol>> getLoadedTypeShedSymbols() {
@@ -144,30 +171,39 @@ public class TypeShed {
     if (searchedModuleMatchesCurrentProject(moduleName)) {
       return Collections.emptyMap();
     }
-    if (!TypeShed.typeShedSymbols.containsKey(moduleName)) {
-      Map<String, Symbol> symbols = searchTypeShedForModule(moduleName);
+    return stubSymbolsForModule(moduleName);
+  }
+
+  /**
+   * Returns map of exported symbols by name for a given module, regardless of the project under analysis
+   */
+  public static Map<String, Symbol> stubSymbolsForModule(String moduleName) {
+    checkProjectPythonVersions();
+    Map<String, Symbol> symbols = typeShedSymbols.get(moduleName);
+    if (symbols != null) {
+      return symbols;
+    }
+    synchronized (LOCK) {
+      symbols = typeShedSymbols.get(moduleName);
+      if (symbols != null) {
+        return symbols;
+      }
+      if (modulesInProgress.contains(moduleName)) {
+        // Cyclic dependency between stubs: the module is not complete yet and must not be published
+        return new HashMap<>();
+      }
+      symbols = searchTypeShedForModule(moduleName);
       typeShedSymbols.put(moduleName, symbols);
       return symbols;
     }
-    return TypeShed.typeShedSymbols.get(moduleName);
   }
 
   @CheckForNull
   public static Symbol symbolWithFQN(String stdLibModuleName, String fullyQualifiedName) {
-    Map<String, Symbol> symbols = symbolsForModule(stdLibModuleName);
-    // TODO: improve performance - see SONARPY-955
-    Symbol symbolByFqn = symbols.values().stream().filter(s -> fullyQualifiedName.equals(s.fullyQualifiedName())).findFirst().orElse(null);
-    if (symbolByFqn != null || !fullyQualifiedName.contains(".")) {
-      return symbolByFqn;
+    if (searchedModuleMatchesCurrentProject(stdLibModuleName)) {
+      return null;
     }
-
-    // If FQN of the member does not match the pattern of "package_name.file_name.symbol_name"
-    // (e.g. it could be declared in package_name.file_name using import) or in case when
-    // we have import with an alias (from module import method as alias_method), we retrieve symbol_name out of
-    // FQN and try to look up by local symbol name, rather than FQN
-    String[] fqnSplittedByDot = fullyQualifiedName.split("\\.");
-    String symbolLocalNameFromFqn = fqnSplittedByDot[fqnSplittedByDot.length - 1];
-    return symbols.get(symbolLocalNameFromFqn);
+    return stubSymbolWithFQN(stdLibModuleName, fullyQualifiedName);
   }
 
   @CheckForNull
@@ -177,9 +213,58 @@ public class TypeShed {
     if (builtinSymbol != null) {
       return builtinSymbol;
     }
-    String[] fqnSplittedByDot = fullyQualifiedName.split("\\.");
-    String moduleName = Arrays.stream(fqnSplittedByDot, 0, fqnSplittedByDot.length - 1).collect(Collectors.joining("."));
-    return symbolWithFQN(moduleName, fullyQualifiedName);
+    return symbolWithFQN(moduleName(fullyQualifiedName), fullyQualifiedName);
+  }
+
+  /**
+   * Returns the symbol of the given module with the given fully qualified name, regardless of the project under analysis
+   */
+  @CheckForNull
+  public static Symbol stubSymbolWithFQN(String moduleName, String fullyQualifiedName) {
+    Symbol symbolByFqn = stubSymbolsByFqn(moduleName).get(fullyQualifiedName);
+    int lastDotIndex = fullyQualifiedName.lastIndexOf('.');
+    if (symbolByFqn != null || lastDotIndex < 0) {
+      return symbolByFqn;
+    }
+
+    // If FQN of the member does not match the pattern of "package_name.file_name.symbol_name"
+    // (e.g. it could be declared in package_name.file_name using import) or in case when
+    // we have import with an alias (from module import method as alias_method), we retrieve symbol_name out of
+    // FQN and try to look up by local symbol name, rather than FQN
+    return stubSymbolsForModule(moduleName).get(fullyQualifiedName.substring(lastDotIndex + 1));
+  }
+
+  /**
+   * Returns the name of the module declaring the given fully qualified name, or an empty string for top-level names
+   */
+  public static String moduleName(String fullyQualifiedName) {
+    int lastDotIndex = fullyQualifiedName.lastIndexOf('.');
+    return lastDotIndex < 0 ? "" : fullyQualifiedName.substring(0, lastDotIndex);
+  }
+
+  private static Map<String, Symbol> stubSymbolsByFqn(String moduleName) {
+    checkProjectPythonVersions();
+    Map<String, Symbol> symbolsByFqn = typeShedSymbolsByFqn.get(moduleName);
+    if (symbolsByFqn != null) {
+      return symbolsByFqn;
+    }
+    Map<String, Symbol> symbols = stubSymbolsForModule(moduleName);
+    if (typeShedSymbols.get(moduleName) != symbols) {
+      // Module which is still being loaded: it must not be indexed yet
+      return indexByFqn(symbols);
+    }
+    return typeShedSymbolsByFqn.computeIfAbsent(moduleName, name -> indexByFqn(symbols));
+  }
+
+  private static Map<String, Symbol> indexByFqn(Map<String, Symbol> symbols) {
+    Map<String, Symbol> symbolsByFqn = new HashMap<>();
+    for (Symbol symbol : symbols.values()) {
+      String fullyQualifiedName = symbol.fullyQualifiedName();
+      if (fullyQualifiedName != null) {
+        symbolsByFqn.putIfAbsent(fullyQualifiedName, symbol);
+      }
+    }
+    return symbolsByFqn;
   }
 
   /**
@@ -277,7 +362,8 @@ public class TypeShed {
     String[] fqnSplitByDot = fullyQualifiedName.split("\\.");
     String symbolLocalNameFromFqn = fqnSplitByDot[fqnSplitByDot.length - 1];
     String moduleName = Arrays.stream(fqnSplitByDot, 0, fqnSplitByDot.length - 1).collect(Collectors.joining("."));
-    InputStream resource = TypeShed.class.getResourceAsStream(PROTOBUF + moduleName + ".protobuf");
+    if (!hasStub(PROTOBUF, moduleName)) return null;
+    InputStream resource = TypeShed.class.getResourceAsStream(PROTOBUF + moduleName + PROTOBUF_EXTENSION);
     if (resource == null) return null;
     ModuleSymbol moduleSymbol = deserializedModule(moduleName, resource);
     if (moduleSymbol == null) return null;
@@ -293,38 +379,64 @@ public class TypeShed {
   // Private methods
   //================================================================================
 
+  /**
+   * Stubs are filtered according to the Python versions of the project. They are loaded again when these versions change, for instance
+   * when "sonar.python.version" is updated between two analyses of a long-running SonarLint process.
+   */
+  private static void checkProjectPythonVersions() {
+    Set<PythonVersionUtils.Version> currentVersions = ProjectPythonVersion.currentVersions();
+    if (currentVersions == loadedPythonVersions) {
+      return;
+    }
+    synchronized (LOCK) {
+      if (currentVersions == loadedPythonVersions) {
+        return;
+      }
+      Set<String> currentSerializedVersions = currentVersions.stream().map(PythonVersionUtils.Version::serializedValue).collect(Collectors.toSet());
+      if (!currentSerializedVersions.equals(supportedPythonVersions)) {
+        builtins = null;
+        builtinGlobalSymbols.clear();
+        typeShedSymbols.clear();
+        typeShedSymbolsByFqn.clear();
+        supportedPythonVersions = currentSerializedVersions;
+      }
+      loadedPythonVersions = currentVersions;
+    }
+  }
+
   // used by tests whenever 'sonar.python.version' changes
   public static void resetBuiltinSymbols() {
-    builtins = null;
-    typeShedSymbols.clear();
-    builtinSymbols();
+    synchronized (LOCK) {
+      loadedPythonVersions = null;
+      builtins = null;
+      typeShedSymbols.clear();
+      typeShedSymbolsByFqn.clear();
+      builtinSymbols();
+    }
   }
 
   private static Map<String, Symbol> searchTypeShedForModule(String moduleName) {
-    if (modulesInProgress.contains(moduleName)) {
-      return new HashMap<>();
-    }
     modulesInProgress.add(moduleName);
-    Map<String, Symbol> customSymbols = getSymbolsFromProtobufModule(moduleName, PROTOBUF_CUSTOM_STUBS);
-    if (!customSymbols.isEmpty()) {
-      modulesInProgress.remove(moduleName);
-      return customSymbols;
-    }
-    Map<String, Symbol> symbolsFromProtobuf = getSymbolsFromProtobufModule(moduleName, PROTOBUF);
-    if (!symbolsFromProtobuf.isEmpty()) {
+    try {
+      return getSymbolsFromProtobufModule(moduleStub(moduleName));
+    } finally {
       modulesInProgress.remove(moduleName);
-      return symbolsFromProtobuf;
     }
+  }
 
-    Map<String, Symbol> thirdPartySymbolsMypy = getSymbolsFromProtobufModule(moduleName, PROTOBUF_THIRD_PARTY_MYPY);
-    if (!thirdPartySymbolsMypy.isEmpty()) {
-      modulesInProgress.remove(moduleName);
-      return thirdPartySymbolsMypy;
+  /**
+   * Returns the first stub of the given module, by order of precedence of the stub directories, which still declares symbols
+   * once filtered for the Python versions of the project.
+   */
+  @CheckForNull
+  private static ModuleSymbol moduleStub(String moduleName) {
+    for (String dirName : STUB_DIRECTORIES) {
+      ModuleSymbol stub = filteredModuleStub(moduleName, dirName);
+      if (stub != null) {
+        return stub;
+      }
     }
-
-    Map<String, Symbol> thirdPartySymbols = getSymbolsFromProtobufModule(moduleName, PROTOBUF_THIRD_PARTY);
-    modulesInProgress.remove(moduleName);
-    return thirdPartySymbols;
+    return null;
   }
 
   /**
@@ -353,13 +465,65 @@ public class TypeShed {
     return false;
   }
 
-  private static Map<String, Symbol> getSymbolsFromProtobufModule(String moduleName, String dirName) {
+  @CheckForNull
+  private static ModuleSymbol filteredModuleStub(String moduleName, String dirName) {
     String fileName = MODULES_TO_DISAMBIGUATE.getOrDefault(moduleName, moduleName);
-    InputStream resource = TypeShed.class.getResourceAsStream(dirName + fileName + ".protobuf");
+    if (!hasStub(dirName, fileName)) {
+      return null;
+    }
+    InputStream resource = TypeShed.class.getResourceAsStream(dirName + fileName + PROTOBUF_EXTENSION);
     if (resource == null) {
-      return Collections.emptyMap();
+      return null;
+    }
+    ModuleSymbol moduleSymbol = deserializedModule(moduleName, resource);
+    if (moduleSymbol == null) {
+      return null;
+    }
+    ModuleSymbol filteredModuleSymbol = moduleSymbol.toBuilder()
+      .clearClasses()
+      .addAllClasses(moduleSymbol.getClassesList().stream().filter(d -> isValidForProjectPythonVersion(d.getValidForList())).toList())
+      .clearFunctions()
+      .addAllFunctions(moduleSymbol.getFunctionsList().stream().filter(d -> isValidForProjectPythonVersion(d.getValidForList())).toList())
+      .clearOverloadedFunctions()
+      .addAllOverloadedFunctions(moduleSymbol.getOverloadedFunctionsList().stream().filter(d -> isValidForProjectPythonVersion(d.getValidForList())).toList())
+      .clearVars()
+      .addAllVars(moduleSymbol.getVarsList().stream().filter(d -> isValidForProjectPythonVersion(d.getValidForList())).toList())
+      .build();
+    boolean declaresSymbols = filteredModuleSymbol.getClassesCount() + filteredModuleSymbol.getFunctionsCount()
+      + filteredModuleSymbol.getOverloadedFunctionsCount() + filteredModuleSymbol.getVarsCount() > 0;
+    return declaresSymbols ? filteredModuleSymbol : null;
+  }
+
+  /**
+   * Most searched modules have no stub, or a stub in a single directory: the index avoids looking up resources that do not exist,
+   * which is costly when they are packaged in a jar. Without index, every resource is looked up.
+   */
+  static boolean hasStub(String dirName, String fileName) {
+    Set<String> stubResources = StubsIndex.STUB_RESOURCES;
+    return stubResources == null || stubResources.contains(dirName + fileName);
+  }
+
+  private static final class StubsIndex {
+    @Nullable
+    private static final Set<String> STUB_RESOURCES = load();
+
+    private StubsIndex() {
+    }
+
+    @CheckForNull
+    private static Set<String> load() {
+      InputStream resource = TypeShed.class.getResourceAsStream(STUBS_INDEX);
+      if (resource == null) {
+        LOG.debug("No TypeShed stubs index found");
+        return null;
+      }
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+        return reader.lines().filter(line -> !line.isEmpty()).collect(Collectors.toUnmodifiableSet());
+      } catch (IOException | UncheckedIOException e) {
+        LOG.debug("Error while reading the TypeShed stubs index", e);
+        return null;
+      }
     }
-    return getSymbolsFromProtobufModule(deserializedModule(moduleName, resource));
   }
 
   @CheckForNull
@@ -372,7 +536,7 @@ public class TypeShed {
     }
   }
 
-  static Map<String, Symbol> getSymbolsFromProtobufModule(@Nullable ModuleSymbol moduleSymbol) {
+  public static Map<String, Symbol> getSymbolsFromProtobufModule(@Nullable ModuleSymbol moduleSymbol) {
     if (moduleSymbol == null) {
       return Collections.emptyMap();
     }
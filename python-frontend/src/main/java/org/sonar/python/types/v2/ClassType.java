@@ -19,13 +19,26 @@
  */
 package org.sonar.python.types.v2;
 
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.sonar.api.Beta;
@@ -44,6 +57,11 @@ public final class ClassType implements PythonType {
   private final List<PythonType> metaClasses;
   private final boolean hasDecorators;
   private final LocationInFile locationInFile;
+  // Incremented whenever the members or the superclasses of this class or of one of its ancestors change, which invalidates its memoized hierarchy
+  private final AtomicLong version = new AtomicLong();
+  // Classes which directly inherit from this class, to which changes are pushed. Weakly referenced, as shared classes outlive their subclasses.
+  private final Set<ClassType> subClasses = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+  private volatile Hierarchy hierarchy;
 
   public ClassType(
     String name,
@@ -54,14 +72,22 @@ public final class ClassType implements PythonType {
     boolean hasDecorators,
     @Nullable LocationInFile locationInFile) {
     this.name = name;
-    this.members = members;
+    this.members = new TrackedMembers(members);
     this.attributes = attributes;
-    this.superClasses = superClasses;
+    this.superClasses = new TrackedSuperClasses(superClasses);
+    superClasses.forEach(this::registerAsSubClassOf);
     this.metaClasses = metaClasses;
     this.hasDecorators = hasDecorators;
     this.locationInFile = locationInFile;
   }
 
+  /**
+   * Returns an object which stays the same as long as neither this class nor any of its ancestors change.
+   */
+  Object hierarchyStamp() {
+    return hierarchy();
+  }
+
   public ClassType(String name) {
     this(name, new HashSet<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), false, null);
   }
@@ -109,7 +135,15 @@ public final class ClassType implements PythonType {
 
   @Beta
   public boolean isASubClassFrom(ClassType other) {
-    return superClasses.stream().anyMatch(superClass -> superClass.isCompatibleWith(other));
+    Map<ClassType, SubClassCheck> subClassChecks = hierarchy().subClassChecks;
+    // the result also depends on the members of the other class
+    Hierarchy otherHierarchy = other.hierarchy();
+    SubClassCheck subClassCheck = subClassChecks.get(other);
+    if (subClassCheck == null || subClassCheck.otherHierarchy != otherHierarchy) {
+      subClassCheck = new SubClassCheck(otherHierarchy, superClasses.stream().anyMatch(superClass -> superClass.isCompatibleWith(other)));
+      subClassChecks.put(other, subClassCheck);
+    }
+    return subClassCheck.isASubClass;
   }
 
   @Beta
@@ -128,33 +162,32 @@ public final class ClassType implements PythonType {
 
   @Override
   public Optional<PythonType> resolveMember(String memberName) {
-    return localMember(memberName)
-      .or(() -> inheritedMember(memberName));
+    Hierarchy currentHierarchy = hierarchy();
+    Optional<PythonType> resolvedMember = currentHierarchy.resolvedMembers.get(memberName);
+    if (resolvedMember == null) {
+      resolvedMember = currentHierarchy.mro.stream()
+        .map(type -> type instanceof ClassType classType ? classType.localMember(memberName) : type.resolveMember(memberName))
+        .flatMap(Optional::stream)
+        .findFirst();
+      currentHierarchy.resolvedMembers.put(memberName, resolvedMember);
+    }
+    return resolvedMember;
   }
 
   private Optional<PythonType> localMember(String memberName) {
-    return members.stream()
-      .filter(m -> m.name().equals(memberName))
-      .map(Member::type)
-      .findFirst();
+    return Optional.ofNullable(hierarchy().localMembers.get(memberName));
   }
 
-  private Optional<PythonType> inheritedMember(String memberName) {
-    return superClasses.stream()
-      .map(s -> s.resolveMember(memberName))
-      .filter(Optional::isPresent)
-      .map(Optional::get)
-      .findFirst();
+  /**
+   * Method resolution order of the class: the class itself followed by all its ancestors, as linearized by Python.
+   * Superclasses which are not classes are kept as they are, without ancestors.
+   */
+  public List<PythonType> mro() {
+    return hierarchy().mro;
   }
 
   public boolean hasUnresolvedHierarchy() {
-    return superClasses.stream().anyMatch(s -> {
-        if (s instanceof ClassType parentClassType) {
-          return parentClassType.hasUnresolvedHierarchy();
-        }
-        return true;
-      }
-    );
+    return hierarchy().hasUnresolvedHierarchy;
   }
 
   @Override
@@ -171,12 +204,11 @@ public final class ClassType implements PythonType {
   }
 
   public boolean hasMetaClass() {
-    return !this.metaClasses.isEmpty() ||
-      this.superClasses()
-        .stream()
-        .filter(ClassType.class::isInstance)
-        .map(ClassType.class::cast)
-        .anyMatch(ClassType::hasMetaClass);
+    return hierarchy().mro
+      .stream()
+      .filter(ClassType.class::isInstance)
+      .map(ClassType.class::cast)
+      .anyMatch(classType -> !classType.metaClasses.isEmpty());
   }
 
   public TriBool instancesHaveMember(String memberName) {
@@ -224,4 +256,206 @@ public final class ClassType implements PythonType {
   public boolean hasDecorators() {
     return hasDecorators;
   }
+
+  private Hierarchy hierarchy() {
+    Hierarchy currentHierarchy = hierarchy;
+    // the version is read before the hierarchy is computed, so that concurrent changes are detected on the next access
+    long currentVersion = version.get();
+    if (currentHierarchy == null || currentHierarchy.version != currentVersion) {
+      List<PythonType> mro = linearize();
+      Map<String, PythonType> localMembers = new HashMap<>();
+      members.forEach(member -> localMembers.putIfAbsent(member.name(), member.type()));
+      currentHierarchy = new Hierarchy(currentVersion, mro, localMembers, mro.stream().anyMatch(type -> !(type instanceof ClassType)));
+      hierarchy = currentHierarchy;
+    }
+    return currentHierarchy;
+  }
+
+  /**
+   * Outdates the memoized hierarchies of this class and of all the classes inheriting from it.
+   */
+  private void changed() {
+    Set<ClassType> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<ClassType> toVisit = new ArrayDeque<>();
+    toVisit.push(this);
+    while (!toVisit.isEmpty()) {
+      ClassType classType = toVisit.pop();
+      if (visited.add(classType)) {
+        classType.version.incrementAndGet();
+        synchronized (classType.subClasses) {
+          toVisit.addAll(classType.subClasses);
+        }
+      }
+    }
+  }
+
+  private void registerAsSubClassOf(PythonType superClass) {
+    if (superClass instanceof ClassType classType) {
+      classType.subClasses.add(this);
+    }
+  }
+
+  private void unregisterAsSubClassOf(PythonType superClass) {
+    if (superClass instanceof ClassType classType && superClasses.stream().noneMatch(other -> other == classType)) {
+      classType.subClasses.remove(this);
+    }
+  }
+
+  /**
+   * C3 linearization of the hierarchy. Hierarchies which cannot be linearized, which Python rejects, fall back to a depth-first
+   * traversal of the superclasses.
+   */
+  private List<PythonType> linearize() {
+    List<List<PythonType>> sequences = new ArrayList<>();
+    for (PythonType superClass : superClasses) {
+      sequences.add(new ArrayList<>(superClass instanceof ClassType classType ? classType.mro() : List.of(superClass)));
+    }
+    sequences.add(new ArrayList<>(superClasses));
+    List<PythonType> mro = new ArrayList<>();
+    mro.add(this);
+    while (sequences.stream().anyMatch(sequence -> !sequence.isEmpty())) {
+      PythonType next = sequences.stream()
+        .filter(sequence -> !sequence.isEmpty())
+        .map(sequence -> sequence.get(0))
+        .filter(head -> sequences.stream().noneMatch(sequence -> sequence.indexOf(head) > 0))
+        .findFirst()
+        .orElse(null);
+      if (next == null) {
+        return depthFirstOrder();
+      }
+      mro.add(next);
+      sequences.forEach(sequence -> sequence.remove(next));
+    }
+    return List.copyOf(mro);
+  }
+
+  private List<PythonType> depthFirstOrder() {
+    Set<PythonType> order = new LinkedHashSet<>();
+    order.add(this);
+    for (PythonType superClass : superClasses) {
+      order.addAll(superClass instanceof ClassType classType ? classType.depthFirstOrder() : List.of(superClass));
+    }
+    return List.copyOf(order);
+  }
+
+  private static final class Hierarchy {
+    private final long version;
+    private final List<PythonType> mro;
+    private final Map<String, PythonType> localMembers;
+    private final boolean hasUnresolvedHierarchy;
+    private final Map<String, Optional<PythonType>> resolvedMembers = new ConcurrentHashMap<>();
+    private final Map<ClassType, SubClassCheck> subClassChecks = new ConcurrentHashMap<>();
+
+    private Hierarchy(long version, List<PythonType> mro, Map<String, PythonType> localMembers, boolean hasUnresolvedHierarchy) {
+      this.version = version;
+      this.mro = mro;
+      this.localMembers = localMembers;
+      this.hasUnresolvedHierarchy = hasUnresolvedHierarchy;
+    }
+  }
+
+  private record SubClassCheck(Hierarchy otherHierarchy, boolean isASubClass) {
+  }
+
+  private final class TrackedMembers extends AbstractSet<Member> {
+    private final Set<Member> members;
+
+    private TrackedMembers(Set<Member> members) {
+      this.members = members;
+    }
+
+    @Override
+    public Iterator<Member> iterator() {
+      Iterator<Member> iterator = members.iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Member next() {
+          return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+          iterator.remove();
+          changed();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return members.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return members.contains(o);
+    }
+
+    @Override
+    public boolean add(Member member) {
+      boolean added = members.add(member);
+      if (added) {
+        changed();
+      }
+      return added;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      boolean removed = members.remove(o);
+      if (removed) {
+        changed();
+      }
+      return removed;
+    }
+  }
+
+  private final class TrackedSuperClasses extends AbstractList<PythonType> {
+    private final List<PythonType> superClasses;
+
+    private TrackedSuperClasses(List<PythonType> superClasses) {
+      this.superClasses = superClasses;
+    }
+
+    @Override
+    public PythonType get(int index) {
+      return superClasses.get(index);
+    }
+
+    @Override
+    public int size() {
+      return superClasses.size();
+    }
+
+    @Override
+    public PythonType set(int index, PythonType type) {
+      PythonType previous = superClasses.set(index, type);
+      if (previous != type) {
+        unregisterAsSubClassOf(previous);
+        registerAsSubClassOf(type);
+        changed();
+      }
+      return previous;
+    }
+
+    @Override
+    public void add(int index, PythonType type) {
+      superClasses.add(index, type);
+      registerAsSubClassOf(type);
+      changed();
+    }
+
+    @Override
+    public PythonType remove(int index) {
+      PythonType removed = superClasses.remove(index);
+      unregisterAsSubClassOf(removed);
+      changed();
+      return removed;
+    }
+  }
 }
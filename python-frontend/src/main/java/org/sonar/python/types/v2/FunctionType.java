@@ -34,7 +34,7 @@ public final class FunctionType implements PythonType {
   private final String name;
   private final List<PythonType> attributes;
   private final List<ParameterV2> parameters;
-  private PythonType returnType;
+  private volatile PythonType returnType;
   private final TypeOrigin typeOrigin;
   private final boolean isAsynchronous;
   private final boolean hasDecorators;
@@ -43,22 +43,22 @@ public class LazyType implements PythonType {
     return fullyQualifiedName;
   }
 
-  public LazyType addConsumer(Consumer<PythonType> consumer) {
+  public synchronized LazyType addConsumer(Consumer<PythonType> consumer) {
     consumers.add(consumer);
     return this;
   }
 
-  public LazyType resolve(PythonType type) {
+  /**
+   * Hands the resolved type over to the consumers. Consumers are only notified once, even when the lazy type is resolved again.
+   */
+  public synchronized LazyType resolve(PythonType type) {
     consumers.forEach(c -> c.accept(type));
     consumers.clear();
     return this;
   }
 
   public PythonType resolve() {
-    PythonType resolvedType = lazyTypesContext.resolveLazyType(this);
-    consumers.forEach(c -> c.accept(resolvedType));
-    consumers.clear();
-    return resolvedType;
+    return lazyTypesContext.resolveLazyType(this);
   }
 
   @Override
@@ -19,9 +19,9 @@
  */
 package org.sonar.python.types.v2;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.api.Beta;
@@ -55,7 +55,8 @@ public final class ModuleType implements PythonType {
   }
 
   public ModuleType(@Nullable String name, @Nullable ModuleType parent) {
-    this(name, parent, new HashMap<>());
+    // Submodules can be added while the module is read by other analyses sharing the same project-level type table
+    this(name, parent, new ConcurrentHashMap<>());
   }
 
   @Override
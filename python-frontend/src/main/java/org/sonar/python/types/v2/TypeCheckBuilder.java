@@ -21,8 +21,10 @@ package org.sonar.python.types.v2;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
 
@@ -30,38 +32,87 @@ public class TypeCheckBuilder {
 
   ProjectLevelTypeTable projectLevelTypeTable;
   List<TypePredicate> predicates = new ArrayList<>();
+  // Results for classes and their instances, which only change when the hierarchy of their class or of an expected class changes
+  private final Map<ResultKey, Result> results = new HashMap<>();
+  private final List<ClassType> expectedClassTypes = new ArrayList<>();
 
   public TypeCheckBuilder(ProjectLevelTypeTable projectLevelTypeTable) {
     this.projectLevelTypeTable = projectLevelTypeTable;
   }
 
   public TypeCheckBuilder hasMember(String memberName) {
-    predicates.add(new HasMemberTypePredicate(memberName));
-    return this;
+    return addPredicate(new HasMemberTypePredicate(memberName));
   }
 
   public TypeCheckBuilder instancesHaveMember(String memberName) {
-    predicates.add(new InstancesHaveMemberTypePredicate(memberName));
-    return this;
+    return addPredicate(new InstancesHaveMemberTypePredicate(memberName));
   }
 
   public TypeCheckBuilder isTypeHintTypeSource() {
-    predicates.add(new TypeSourceMatcherTypePredicate(TypeSource.TYPE_HINT));
-    return this;
+    return addPredicate(new TypeSourceMatcherTypePredicate(TypeSource.TYPE_HINT));
   }
 
   public TypeCheckBuilder isExactTypeSource() {
-    predicates.add(new TypeSourceMatcherTypePredicate(TypeSource.EXACT));
-    return this;
+    return addPredicate(new TypeSourceMatcherTypePredicate(TypeSource.EXACT));
   }
 
   public TypeCheckBuilder isBuiltinWithName(String name) {
     PythonType builtinType = projectLevelTypeTable.getBuiltinsModule().resolveMember(name).orElse(PythonType.UNKNOWN);
-    predicates.add(new IsSameAsTypePredicate(builtinType));
+    return addPredicate(new IsSameAsTypePredicate(builtinType));
+  }
+
+  private TypeCheckBuilder addPredicate(TypePredicate predicate) {
+    predicates.add(predicate);
+    results.clear();
     return this;
   }
 
+  /**
+   * Builders are meant to be created once, for instance when a file is entered, and then used to check many types:
+   * results for classes are computed once per class, and results for their instances once per class and type source.
+   * Instances with their own members are always checked, as their members may be looked up by the predicates.
+   */
   public TriBool check(PythonType pythonType) {
+    ResultKey key;
+    if (pythonType instanceof ClassType classType) {
+      key = new ResultKey(classType, false, classType.typeSource());
+    } else if (pythonType instanceof ObjectType objectType && objectType.type() instanceof ClassType classType && objectType.members().isEmpty()) {
+      key = new ResultKey(classType, true, objectType.typeSource());
+    } else {
+      return evaluate(pythonType);
+    }
+    List<Object> hierarchyStamps = hierarchyStamps(key.classType);
+    Result result = results.get(key);
+    if (result == null || !sameStamps(result.hierarchyStamps, hierarchyStamps)) {
+      result = new Result(hierarchyStamps, evaluate(pythonType));
+      results.put(key, result);
+    }
+    return result.value;
+  }
+
+  private List<Object> hierarchyStamps(ClassType classType) {
+    List<Object> hierarchyStamps = new ArrayList<>(expectedClassTypes.size() + 1);
+    hierarchyStamps.add(classType.hierarchyStamp());
+    expectedClassTypes.forEach(expectedClassType -> hierarchyStamps.add(expectedClassType.hierarchyStamp()));
+    return hierarchyStamps;
+  }
+
+  private static boolean sameStamps(List<Object> stamps, List<Object> otherStamps) {
+    for (int i = 0; i < stamps.size(); i++) {
+      if (stamps.get(i) != otherStamps.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private record ResultKey(ClassType classType, boolean isInstance, TypeSource typeSource) {
+  }
+
+  private record Result(List<Object> hierarchyStamps, TriBool value) {
+  }
+
+  private TriBool evaluate(PythonType pythonType) {
     TriBool result = TriBool.TRUE;
     for (TypePredicate predicate : predicates) {
       TriBool partialResult = predicate.test(pythonType);
@@ -75,8 +126,10 @@ public class TypeCheckBuilder {
 
   public TypeCheckBuilder isInstanceOf(String fqn) {
     var expected = projectLevelTypeTable.getType(fqn);
-    predicates.add(new IsInstanceOfPredicate(expected));
-    return this;
+    if (expected instanceof ClassType expectedClassType) {
+      expectedClassTypes.add(expectedClassType);
+    }
+    return addPredicate(new IsInstanceOfPredicate(expected));
   }
 
   interface TypePredicate {
@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.sonar.api.SonarProduct;
 import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.ExpressionStatement;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.Tree;
@@ -39,9 +40,12 @@ import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.parser.PythonParser;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolImpl;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
 import org.sonar.python.semantic.v2.TypeShed;
 import org.sonar.python.tree.FileInputImpl;
 import org.sonar.python.tree.PythonTreeMaker;
+import org.sonar.python.types.v2.ModuleType;
+import org.sonar.python.types.v2.PythonType;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.Mockito.mock;
@@ -92,6 +96,22 @@ class PythonVisitorContextTest {
     assertThat(fileInput.globalVariables()).extracting(Symbol::name).containsExactlyInAnyOrder("a", "b");
   }
 
+  @Test
+  void shared_project_level_type_table() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable, new TypeShed(projectLevelSymbolTable));
+    FileInput fileInput1 = new PythonTreeMaker().fileInput(PythonParser.create().parse("import typing\ntyping"));
+    FileInput fileInput2 = new PythonTreeMaker().fileInput(PythonParser.create().parse("import typing\ntyping"));
+    new PythonVisitorContext(fileInput1, pythonFile("mod1.py"), null, "", projectLevelSymbolTable, projectLevelTypeTable,
+      CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE);
+    new PythonVisitorContext(fileInput2, pythonFile("mod2.py"), null, "", projectLevelSymbolTable, projectLevelTypeTable,
+      CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE);
+
+    PythonType typing1 = ((ExpressionStatement) fileInput1.statements().statements().get(1)).expressions().get(0).typeV2();
+    PythonType typing2 = ((ExpressionStatement) fileInput2.statements().statements().get(1)).expressions().get(0).typeV2();
+    assertThat(typing1).isInstanceOf(ModuleType.class).isSameAs(typing2).isSameAs(projectLevelTypeTable.getType("typing"));
+  }
+
   @Test
   void sonar_product() {
     CacheContextImpl cacheContext = CacheContextImpl.dummyCache();
@@ -23,7 +23,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mockito;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.tree.ExpressionStatement;
 import org.sonar.plugins.python.api.tree.FileInput;
@@ -36,11 +39,16 @@ import org.sonar.python.cfg.PythonCfgBlock;
 import org.sonar.python.cfg.PythonCfgBranchingBlock;
 import org.sonar.python.cfg.PythonCfgEndBlock;
 import org.sonar.python.cfg.PythonCfgSimpleBlock;
+import org.sonar.python.profiling.AnalysisProfiler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class ControlFlowGraphTest {
 
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.WARN);
+
   private PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
 
   @Test
@@ -748,6 +756,37 @@ class ControlFlowGraphTest {
     assertThat(cfg.start().elements()).extracting(element -> ((Parameter) element).name().name()).containsExactlyInAnyOrder("p1", "p2", "p3", "p4");
   }
 
+  @Test
+  void built_once_per_tree() {
+    FileInput fileInput = PythonTestUtils.parse("def f(p): return p", "x = f(1)");
+    FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
+    ControlFlowGraph functionCfg = ControlFlowGraph.build(fun, file);
+    assertThat(ControlFlowGraph.build(fun, file)).isSameAs(functionCfg);
+    assertThat(ControlFlowGraph.build(fun, Mockito.mock(PythonFile.class, "file2.py"))).isSameAs(functionCfg);
+    ControlFlowGraph fileCfg = ControlFlowGraph.build(fileInput, file);
+    assertThat(fileCfg).isNotSameAs(functionCfg);
+    assertThat(ControlFlowGraph.build(fileInput, file)).isSameAs(fileCfg);
+
+    FileInput otherFileInput = PythonTestUtils.parse("def f(p): return p", "x = f(1)");
+    assertThat(ControlFlowGraph.build(otherFileInput, file)).isNotSameAs(fileCfg);
+  }
+
+  @Test
+  void not_built_again_after_failure() {
+    FileInput fileInput = PythonTestUtils.parseWithoutSymbols("def f():", "  continue");
+    FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
+    AnalysisProfiler profiler = AnalysisProfiler.activate(1);
+    try {
+      assertThat(ControlFlowGraph.build(fun, file)).isNull();
+      assertThat(ControlFlowGraph.build(fun, file)).isNull();
+    } finally {
+      AnalysisProfiler.deactivate();
+    }
+    assertThat(profiler.phases()).extracting(AnalysisProfiler.Measurement::name, AnalysisProfiler.Measurement::count)
+      .containsExactly(tuple(AnalysisProfiler.PHASE_CFG, 1L));
+    assertThat(logTester.logs(Level.WARN)).hasSize(1).allMatch(log -> log.startsWith("Failed to build control flow graph in file [file1.py]"));
+  }
+
   @Test
   void successors_predecessors_order() {
     ControlFlowGraph cfg = cfg(
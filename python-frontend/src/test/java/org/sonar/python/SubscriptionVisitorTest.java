@@ -19,7 +19,10 @@
  */
 package org.sonar.python;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -27,13 +30,20 @@ import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionCheck.Context;
+import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Name;
 import org.sonar.plugins.python.api.tree.StringElement;
+import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.regex.RegexContext;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.tree.TreeUtils;
 import org.sonar.python.types.v2.TriBool;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
@@ -87,6 +97,81 @@ class SubscriptionVisitorTest {
     SubscriptionVisitor.analyze(Collections.singleton(check), context);
   }
 
+  @Test
+  void visit_order() {
+    FileInput fileInput = PythonTestUtils.parse("x = foo(1, None)\npass");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    List<String> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.NAME, ctx -> visited.add(((Name) ctx.syntaxNode()).name()));
+        context.registerSyntaxNodeConsumer(Tree.Kind.NUMERIC_LITERAL, ctx -> visited.add("number"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.NONE, ctx -> visited.add("none"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.PASS_STMT, ctx -> visited.add("pass"));
+      }
+    };
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+    assertThat(visited).containsExactly("x", "foo", "number", "none", "pass");
+
+    List<String> tokens = new ArrayList<>();
+    PythonSubscriptionCheck tokenCheck = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.TOKEN, ctx -> tokens.add(((Token) ctx.syntaxNode()).value()));
+      }
+    };
+    visited.clear();
+    SubscriptionVisitor.analyze(List.of(check, tokenCheck), context);
+    assertThat(visited).containsExactly("x", "foo", "number", "none", "pass");
+    assertThat(tokens).containsSubsequence("x", "=", "foo", "(", "1", ",", "None", ")", "pass");
+  }
+
+  @Test
+  void call_consumers() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "import mod",
+      "from pkg.sub import bar",
+      "mod.foo()",
+      "bar(mod.baz())",
+      "pkg.other()",
+      "unknown()");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    List<String> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> visited.add("call"));
+        context.registerCallConsumer(Set.of("mod.foo", "pkg.sub.bar"), ctx -> visited.add("exact"));
+        context.registerCallConsumer(Set.of("mod.*", "mod.baz"), ctx -> visited.add("prefix"));
+        context.registerCallConsumer(Set.of("unknown"), ctx -> visited.add("unresolved"));
+        context.registerCallConsumer(Set.of("pkg.*", "pkg.sub.*"), ctx -> visited.add("nested prefix"));
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> visited.add("last"));
+      }
+    };
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+    assertThat(visited).containsExactly(
+      "call", "exact", "prefix", "last",
+      "call", "exact", "nested prefix", "last",
+      "call", "prefix", "last",
+      "call", "last",
+      "call", "last");
+
+    // the default implementation filters the call expressions
+    List<String> filtered = new ArrayList<>();
+    Context filteringContext = (elementType, consumer) -> fileInput.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitCallExpression(CallExpression callExpression) {
+        SubscriptionContext subscriptionContext = Mockito.mock(SubscriptionContext.class);
+        Mockito.when(subscriptionContext.syntaxNode()).thenReturn(callExpression);
+        consumer.accept(subscriptionContext);
+        super.visitCallExpression(callExpression);
+      }
+    });
+    filteringContext.registerCallConsumer(Set.of("mod.foo", "pkg.*"), ctx -> filtered.add(TreeUtils.treeToString(ctx.syntaxNode(), false)));
+    assertThat(filtered).containsExactly("mod.foo()", "bar(mod.baz())");
+  }
+
   @Test
   void typeChecker() {
     PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
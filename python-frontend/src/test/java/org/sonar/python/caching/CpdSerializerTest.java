@@ -53,6 +53,23 @@ class CpdSerializerTest {
       .usingRecursiveComparison().isEqualTo(new CpdSerializer.TokenInfo(1, 0, 1, 4, "pass"));
   }
 
+  @Test
+  void streaming_serializer() throws IOException {
+    CpdSerializer.Serializer serializer = CpdSerializer.serializer();
+    // more than 127 tokens, so that the token count is encoded on several bytes
+    for (int line = 1; line <= 200; line++) {
+      serializer.write(line, 0, line, 4, line % 2 == 0 ? "pass" : "x");
+    }
+    CpdSerializer.SerializationResult result = serializer.finish();
+
+    List<CpdSerializer.TokenInfo> tokenInfos = CpdSerializer.deserialize(result.data, result.stringTable);
+
+    assertThat(tokenInfos).hasSize(200);
+    assertThat(tokenInfos.get(199))
+      .usingRecursiveComparison().isEqualTo(new CpdSerializer.TokenInfo(200, 0, 200, 4, "pass"));
+    assertThat(tokenInfos.get(0).value).isEqualTo("x");
+  }
+
   @Test
   void corrupted_string_table_format() {
     // A string table with zero elements and an invalid terminator
@@ -0,0 +1,106 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.cfg.fixpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.CfgBlock;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.python.PythonTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CfgWorkListTest {
+
+  private final PythonFile file = Mockito.mock(PythonFile.class, "file1.py");
+
+  @Test
+  void forward_order() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  if cond:",
+      "    a()",
+      "  else:",
+      "    b()",
+      "  c()",
+      "  return",
+      "  unreachable()");
+    List<CfgBlock> blocks = drain(CfgWorkList.forward(cfg));
+    assertThat(blocks).hasSize(cfg.blocks().size()).containsExactlyInAnyOrderElementsOf(cfg.blocks());
+    assertThat(blocks.get(0)).isSameAs(cfg.start());
+    CfgBlock unreachable = blocks.get(blocks.size() - 1);
+    assertThat(unreachable.predecessors()).isEmpty();
+    for (CfgBlock block : blocks.subList(0, blocks.size() - 1)) {
+      block.predecessors().stream()
+        .filter(predecessor -> predecessor != unreachable)
+        .forEach(predecessor -> assertThat(blocks.indexOf(predecessor)).isLessThan(blocks.indexOf(block)));
+    }
+  }
+
+  @Test
+  void backward_order() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  if cond:",
+      "    a()",
+      "  else:",
+      "    b()",
+      "  c()",
+      "  return",
+      "  unreachable()");
+    List<CfgBlock> blocks = drain(CfgWorkList.backward(cfg));
+    assertThat(blocks).hasSize(cfg.blocks().size()).containsExactlyInAnyOrderElementsOf(cfg.blocks());
+    assertThat(blocks.get(0)).isSameAs(cfg.end());
+    assertThat(blocks.get(blocks.size() - 2)).isSameAs(cfg.start());
+    assertThat(blocks.get(blocks.size() - 1).predecessors()).isEmpty();
+  }
+
+  @Test
+  void block_queued_once() {
+    ControlFlowGraph cfg = cfg(
+      "def f():",
+      "  while cond:",
+      "    a()");
+    CfgWorkList workList = CfgWorkList.forward(cfg);
+    List<CfgBlock> blocks = drain(workList);
+    workList.pushAll(blocks);
+    workList.pushAll(blocks);
+    assertThat(drain(workList)).containsExactlyElementsOf(blocks);
+  }
+
+  private ControlFlowGraph cfg(String... lines) {
+    FileInput fileInput = PythonTestUtils.parse(lines);
+    FunctionDef fun = (FunctionDef) fileInput.statements().statements().get(0);
+    return ControlFlowGraph.build(fun, file);
+  }
+
+  private static List<CfgBlock> drain(CfgWorkList workList) {
+    List<CfgBlock> blocks = new ArrayList<>();
+    while (!workList.isEmpty()) {
+      blocks.add(workList.pop());
+    }
+    return blocks;
+  }
+}
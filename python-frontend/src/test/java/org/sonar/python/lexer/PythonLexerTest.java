@@ -22,18 +22,36 @@ package org.sonar.python.lexer;
 import com.google.common.collect.ImmutableSet;
 import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.api.Trivia;
 import com.sonar.sslr.impl.Lexer;
+import com.sonar.sslr.impl.channel.BlackHoleChannel;
+import com.sonar.sslr.impl.channel.IdentifierAndKeywordChannel;
+import com.sonar.sslr.impl.channel.UnknownCharacterChannel;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.sonar.python.api.PythonKeyword;
 import org.sonar.python.api.PythonPunctuator;
 import org.sonar.python.api.PythonTokenType;
 
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.and;
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.commentRegexp;
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.o2n;
+import static com.sonar.sslr.impl.channel.RegexpChannelBuilder.regexp;
 import static com.sonar.sslr.test.lexer.LexerMatchers.hasComment;
 import static com.sonar.sslr.test.lexer.LexerMatchers.hasToken;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
@@ -63,6 +81,8 @@ class PythonLexerTest {
   @Test
   void comments() {
     assertThat(lexer.lex("# My comment \n new line"), hasComment("# My comment "));
+    assertThat(lexer.lex("x # comment at end of file"), hasComment("# comment at end of file"));
+    assertThat(lexer.lex("x #\r\ny"), hasComment("#"));
   }
 
   /**
@@ -572,6 +592,11 @@ class PythonLexerTest {
     assertThat("2.7.3 long hex integer", lexer.lex("0xffL"), hasToken("0xffL", PythonTokenType.NUMBER));
 
     assertThat("2.7.3 octal integer", lexer.lex("0700"), hasToken("0700", PythonTokenType.NUMBER));
+
+    assertThat(lexer.lex("1__0"), allOf(hasToken("1", PythonTokenType.NUMBER), hasToken("__0", GenericTokenType.IDENTIFIER)));
+    assertThat(lexer.lex("0o8"), allOf(hasToken("0", PythonTokenType.NUMBER), hasToken("o8", GenericTokenType.IDENTIFIER)));
+    assertThat(lexer.lex("09"), allOf(hasToken("0", PythonTokenType.NUMBER), hasToken("9", PythonTokenType.NUMBER)));
+    assertThat(lexer.lex("0x_fL"), hasToken("0x_fL", PythonTokenType.NUMBER));
   }
 
   /**
@@ -589,6 +614,9 @@ class PythonLexerTest {
     assertThat(lexer.lex("3_0.1_4e-1_0"), hasToken("3_0.1_4e-1_0", PythonTokenType.NUMBER));
     assertThat(lexer.lex("0e0"), hasToken("0e0", PythonTokenType.NUMBER));
     assertThat(lexer.lex("0_0e0_0"), hasToken("0_0e0_0", PythonTokenType.NUMBER));
+    assertThat(lexer.lex("1.e5"), hasToken("1.e5", PythonTokenType.NUMBER));
+    assertThat(lexer.lex("1e+"), allOf(hasToken("1", PythonTokenType.NUMBER), hasToken("e", GenericTokenType.IDENTIFIER)));
+    assertThat(lexer.lex("x.real"), allOf(hasToken(".", PythonPunctuator.DOT), hasToken("real", GenericTokenType.IDENTIFIER)));
   }
 
   /**
@@ -625,6 +653,9 @@ class PythonLexerTest {
     assertThat(lexer.lex("<<"), hasToken("<<", PythonPunctuator.LEFT_OP));
     assertThat(lexer.lex("+="), hasToken("+=", PythonPunctuator.PLUS_ASSIGN));
     assertThat(lexer.lex("@="), hasToken("@=", PythonPunctuator.MATRIX_MULT_ASSIGN));
+    assertThat(lexer.lex("//="), hasToken("//=", PythonPunctuator.DIV_DIV_ASSIGN));
+    assertThat(lexer.lex("a>>=b"), hasToken(">>=", PythonPunctuator.RIGHT_ASSIGN));
+    assertThat(lexer.lex("a**b"), hasToken("**", PythonPunctuator.MUL_MUL));
   }
 
   /**
@@ -695,5 +726,151 @@ class PythonLexerTest {
     assertThat(lexer.lex("_hello123"), hasToken(GenericTokenType.IDENTIFIER));
     assertThat(lexer.lex("こんにちは"), hasToken(GenericTokenType.IDENTIFIER));
     assertThat(lexer.lex("_你好"), hasToken(GenericTokenType.IDENTIFIER));
+    assertThat(lexer.lex("\uD835\uDC65 = 1"), hasToken("\uD835\uDC65", GenericTokenType.IDENTIFIER));
+    assertThat(lexer.lex("x\u0301y"), hasToken("x\u0301y", GenericTokenType.IDENTIFIER));
+    assertThat(lexer.lex("Class"), hasToken("Class", GenericTokenType.IDENTIFIER));
+  }
+
+  @Test
+  void number_edge_cases() {
+    assertTokens("1_000_000", tuple("1_000_000", PythonTokenType.NUMBER));
+    assertTokens("1_", tuple("1", PythonTokenType.NUMBER), tuple("_", GenericTokenType.IDENTIFIER));
+    assertTokens("0X1F 0O17 0B1", tuple("0X1F", PythonTokenType.NUMBER), tuple("0O17", PythonTokenType.NUMBER), tuple("0B1", PythonTokenType.NUMBER));
+    assertTokens("0o_17 0b_1_0", tuple("0o_17", PythonTokenType.NUMBER), tuple("0b_1_0", PythonTokenType.NUMBER));
+    assertTokens("0x", tuple("0", PythonTokenType.NUMBER), tuple("x", GenericTokenType.IDENTIFIER));
+    assertTokens("0b2", tuple("0", PythonTokenType.NUMBER), tuple("b2", GenericTokenType.IDENTIFIER));
+    assertTokens("00 0_0L", tuple("00", PythonTokenType.NUMBER), tuple("0_0L", PythonTokenType.NUMBER));
+    assertTokens("1E5 1e+5 1e-5 1e_5", tuple("1E5", PythonTokenType.NUMBER), tuple("1e+5", PythonTokenType.NUMBER), tuple("1e-5", PythonTokenType.NUMBER),
+      tuple("1e_5", PythonTokenType.NUMBER));
+    assertTokens("1e5J .1e1j 1.j", tuple("1e5J", PythonTokenType.NUMBER), tuple(".1e1j", PythonTokenType.NUMBER), tuple("1.j", PythonTokenType.NUMBER));
+    assertTokens("0x1j", tuple("0x1", PythonTokenType.NUMBER), tuple("j", GenericTokenType.IDENTIFIER));
+    assertTokens("1. .1", tuple("1.", PythonTokenType.NUMBER), tuple(".1", PythonTokenType.NUMBER));
+    assertTokens("1..2", tuple("1.", PythonTokenType.NUMBER), tuple(".2", PythonTokenType.NUMBER));
+    assertTokens("1.__class__", tuple("1.", PythonTokenType.NUMBER), tuple("__class__", GenericTokenType.IDENTIFIER));
+    assertTokens("._1", tuple(".", PythonPunctuator.DOT), tuple("_1", GenericTokenType.IDENTIFIER));
+    assertTokens("1if x else 2", tuple("1", PythonTokenType.NUMBER), tuple("if", PythonKeyword.IF), tuple("x", GenericTokenType.IDENTIFIER),
+      tuple("else", PythonKeyword.ELSE), tuple("2", PythonTokenType.NUMBER));
+    assertTokens("0x1for", tuple("0x1f", PythonTokenType.NUMBER), tuple("or", PythonKeyword.OR));
+    assertTokens("1or 2", tuple("1", PythonTokenType.NUMBER), tuple("or", PythonKeyword.OR), tuple("2", PythonTokenType.NUMBER));
+  }
+
+  @Test
+  void non_ascii_identifier_edge_cases() {
+    assertTokens("café", tuple("café", GenericTokenType.IDENTIFIER));
+    assertTokens("Ⅻ", tuple("Ⅻ", GenericTokenType.IDENTIFIER));
+    assertTokens("x١٢", tuple("x١٢", GenericTokenType.IDENTIFIER));
+    assertTokens("\uD835\uDD18\uD835\uDD2B", tuple("\uD835\uDD18\uD835\uDD2B", GenericTokenType.IDENTIFIER));
+    assertTokens("x\uFE33y", tuple("x\uFE33y", GenericTokenType.IDENTIFIER));
+    assertTokens("x²", tuple("x", GenericTokenType.IDENTIFIER), tuple("²", GenericTokenType.UNKNOWN_CHAR));
+    assertTokens("\u0301x", tuple("\u0301", GenericTokenType.UNKNOWN_CHAR), tuple("x", GenericTokenType.IDENTIFIER));
+    assertTokens("١", tuple("١", GenericTokenType.UNKNOWN_CHAR));
+    assertTokens("\uD835", tuple("\uD835", GenericTokenType.UNKNOWN_CHAR));
+    assertTokens("ifé", tuple("ifé", GenericTokenType.IDENTIFIER));
+  }
+
+  @Test
+  void multi_character_operator_edge_cases() {
+    assertTokens("->", tuple("-", PythonPunctuator.MINUS), tuple(">", PythonPunctuator.GT));
+    assertTokens("x:=1", tuple("x", GenericTokenType.IDENTIFIER), tuple(":=", PythonPunctuator.WALRUS_OPERATOR), tuple("1", PythonTokenType.NUMBER));
+    assertTokens("**= //= >>= <<=", tuple("**=", PythonPunctuator.MUL_MUL_ASSIGN), tuple("//=", PythonPunctuator.DIV_DIV_ASSIGN),
+      tuple(">>=", PythonPunctuator.RIGHT_ASSIGN), tuple("<<=", PythonPunctuator.LEFT_ASSIGN));
+    assertTokens("***", tuple("**", PythonPunctuator.MUL_MUL), tuple("*", PythonPunctuator.MUL));
+    assertTokens("...", tuple(".", PythonPunctuator.DOT), tuple(".", PythonPunctuator.DOT), tuple(".", PythonPunctuator.DOT));
+    assertTokens("<>= !=", tuple("<>", PythonPunctuator.NOT_EQU2), tuple("=", PythonPunctuator.ASSIGN), tuple("!=", PythonPunctuator.NOT_EQU));
+    assertTokens("!", tuple("!", GenericTokenType.UNKNOWN_CHAR));
+  }
+
+  @Test
+  void whitespace_edge_cases() {
+    assertTokens("x\f=\t\u000B1", tuple("x", GenericTokenType.IDENTIFIER), tuple("=", PythonPunctuator.ASSIGN), tuple("1", PythonTokenType.NUMBER));
+    assertTokens("\fx", tuple("x", GenericTokenType.IDENTIFIER));
+    assertTokens("x \\\n  y", tuple("x", GenericTokenType.IDENTIFIER), tuple("y", GenericTokenType.IDENTIFIER));
+    List<Token> tokens = lexer.lex("x = \\\r\n\f  1");
+    assertThat(tokens.get(2).getValue()).isEqualTo("1");
+    assertThat(tokens.get(2).getLine()).isEqualTo(2);
+    assertThat(tokens.get(2).getColumn()).isEqualTo(3);
+  }
+
+  @Test
+  void same_tokens_as_regular_expression_channels() throws IOException {
+    List<String> corpus = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(Path.of("src/test/resources"))) {
+      for (Path file : files.filter(file -> file.toString().endsWith(".py")).toList()) {
+        corpus.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      }
+    }
+    String alphabet = "0123456789_.eEjJxXoObBlLaf+-*/<>=!:@ \t\f\n\\#(é\u0301١²";
+    Random random = new Random(42);
+    for (int i = 0; i < 20_000; i++) {
+      StringBuilder code = new StringBuilder();
+      for (int j = random.nextInt(12); j >= 0; j--) {
+        code.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      corpus.add(code.toString());
+    }
+
+    LexerState referenceLexerState = new LexerState();
+    Lexer referenceLexer = regularExpressionLexer(referenceLexerState);
+    for (String code : corpus) {
+      referenceLexerState.reset();
+      List<String> expected = describe(referenceLexer.lex(code));
+      assertThat(describe(lexer.lex(code))).as(code).isEqualTo(expected);
+    }
+  }
+
+  private static void assertTokens(String code, Tuple... expectedTokens) {
+    List<Token> tokens = lexer.lex(code);
+    assertThat(tokens.subList(0, tokens.size() - 1)).extracting(Token::getValue, Token::getType)
+      .filteredOn(t -> t.toList().get(1) != PythonTokenType.NEWLINE)
+      .containsExactly(expectedTokens);
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> descriptions = new ArrayList<>();
+    for (Token token : tokens) {
+      for (Trivia trivia : token.getTrivia()) {
+        descriptions.add("trivia " + trivia.getToken().getValue() + " " + trivia.getToken().getLine() + ":" + trivia.getToken().getColumn());
+      }
+      TokenType type = token.getType();
+      descriptions.add(type.getName() + " " + token.getValue() + " " + token.getLine() + ":" + token.getColumn());
+    }
+    return descriptions;
+  }
+
+  /**
+   * The channels of the lexer before blanks, comments, numbers, identifiers and punctuators were recognized without regular expressions.
+   */
+  private static Lexer regularExpressionLexer(LexerState lexerState) {
+    String exp = "([Ee][+-]?+[0-9_]++)";
+    String bytesPrefix = "([bB][Rr]?|[rR][bB]?)";
+    String imaginarySuffix = "(j|J)";
+    String longIntegerSuffix = "(l|L)";
+    String identifierStart = "[\\p{Lu}\\p{Ll}\\p{Lt}\\p{Lm}\\p{Lo}\\p{Nl}_]";
+    String identifierContinue = "[" + identifierStart + "\\p{Mn}\\p{Mc}\\p{Nd}\\p{Pc}]";
+    String singleQuoteString = "\'([^\'\\\\]*+(\\\\[\\s\\S])?+)*+\'";
+    String doubleQuotesString = "\"([^\"\\\\]*+(\\\\[\\s\\S])?+)*+\"";
+    String numberRegex = "[0-9]++(_?[0-9])*+";
+    return Lexer.builder().withFailIfNoChannelToConsumeOneCharacter(true)
+      .withChannel(new NewLineChannel(lexerState))
+      .withChannel(new IndentationChannel(lexerState))
+      .withChannel(new BlackHoleChannel("\\s"))
+      .withChannel(commentRegexp("#[^\\n\\r]*+"))
+      .withChannel(new StringLiteralsChannel())
+      .withChannel(new FStringChannel(lexerState))
+      .withChannel(regexp(PythonTokenType.STRING, bytesPrefix + singleQuoteString))
+      .withChannel(regexp(PythonTokenType.STRING, bytesPrefix + doubleQuotesString))
+      .withChannel(regexp(PythonTokenType.NUMBER, "[0-9]++(_?[0-9])*+\\.[0-9]*+(_?[0-9])*+" + exp + "?+" + imaginarySuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, "\\.[0-9]++(_?[0-9])*+" + exp + "?+" + imaginarySuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, numberRegex + exp + imaginarySuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, numberRegex + imaginarySuffix))
+      .withChannel(regexp(PythonTokenType.NUMBER, "0[oO]?+(_?[0-7])++" + longIntegerSuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, "0[xX](_?[0-9a-fA-F])++" + longIntegerSuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, "0[bB](_?[01])++" + longIntegerSuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, "[1-9](_?[0-9])*+" + longIntegerSuffix + "?+"))
+      .withChannel(regexp(PythonTokenType.NUMBER, "0(_?0)*+" + longIntegerSuffix + "?+"))
+      .withChannel(new IdentifierAndKeywordChannel(and(identifierStart, o2n(identifierContinue)), true, PythonKeyword.values()))
+      .withChannel(new com.sonar.sslr.impl.channel.PunctuatorChannel(PythonPunctuator.values()))
+      .withChannel(new UnknownCharacterChannel())
+      .build();
   }
 }
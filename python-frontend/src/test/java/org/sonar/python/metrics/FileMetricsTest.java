@@ -20,7 +20,12 @@
 package org.sonar.python.metrics;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.python.TestPythonVisitorRunner;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -58,6 +63,24 @@ class FileMetricsTest {
     assertThat(metrics("function-complexities.py").functionComplexities()).containsExactly(3, 1);
   }
 
+  @Test
+  void complexities_consistent_with_visitors() {
+    File file = new File("src/test/resources/metrics/cognitive-complexities.py");
+    PythonVisitorContext context = TestPythonVisitorRunner.createContext(file);
+    FileMetrics fileMetrics = new FileMetrics(context);
+    List<Integer> expectedFunctionComplexities = new ArrayList<>();
+    context.rootTree().accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef pyFunctionDefTree) {
+        expectedFunctionComplexities.add(ComplexityVisitor.complexity(pyFunctionDefTree));
+        super.visitFunctionDef(pyFunctionDefTree);
+      }
+    });
+    assertThat(fileMetrics.functionComplexities()).isEqualTo(expectedFunctionComplexities);
+    assertThat(fileMetrics.complexity()).isEqualTo(ComplexityVisitor.complexity(context.rootTree()));
+    assertThat(fileMetrics.cognitiveComplexity()).isEqualTo(CognitiveComplexityVisitor.complexity(context.rootTree(), null));
+  }
+
   private static FileMetrics metrics(String fileName) {
     File baseDir = new File("src/test/resources/metrics/");
     File file = new File(baseDir, fileName);
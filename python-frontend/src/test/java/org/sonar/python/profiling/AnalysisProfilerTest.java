@@ -0,0 +1,122 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.profiling;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.SubscriptionVisitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class AnalysisProfilerTest {
+
+  @AfterEach
+  void deactivate() {
+    AnalysisProfiler.deactivate();
+  }
+
+  @Test
+  void disabled_by_default() {
+    assertThat(AnalysisProfiler.current()).isNull();
+    AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_PARSING).stop();
+    AnalysisProfiler.startCheck("check").stop();
+    AnalysisProfiler.startFile("file").stop();
+    AnalysisProfiler profiler = AnalysisProfiler.activate(10);
+    assertThat(profiler.phases()).isEmpty();
+    assertThat(profiler.checks()).isEmpty();
+    assertThat(profiler.slowestFiles()).isEmpty();
+  }
+
+  @Test
+  void phases_and_checks() {
+    AnalysisProfiler profiler = AnalysisProfiler.activate(10);
+    assertThat(AnalysisProfiler.current()).isSameAs(profiler);
+
+    FileInput fileInput = PythonTestUtils.parse("def foo(x):\n  if x:\n    return 1");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, "");
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> ControlFlowGraph.build((FileInput) ctx.syntaxNode(), ctx.pythonFile()));
+        context.registerSyntaxNodeConsumer(Tree.Kind.NAME, ctx -> {
+        });
+      }
+    };
+    SubscriptionVisitor.analyze(List.of(check), context);
+
+    assertThat(profiler.phases()).extracting(AnalysisProfiler.Measurement::name)
+      .contains(AnalysisProfiler.PHASE_SYMBOL_TABLE_V1, AnalysisProfiler.PHASE_TYPE_INFERENCE_V1, AnalysisProfiler.PHASE_SYMBOL_TABLE_V2,
+        AnalysisProfiler.PHASE_TYPE_INFERENCE_V2, AnalysisProfiler.PHASE_CFG);
+    assertThat(profiler.checks()).hasSize(1);
+    AnalysisProfiler.Measurement checkMeasurement = profiler.checks().get(0);
+    assertThat(checkMeasurement.name()).isEqualTo(check.getClass().getName());
+    // one call for the file, one for each of the names "foo" and "x" (twice)
+    assertThat(checkMeasurement.count()).isEqualTo(4);
+    assertThat(checkMeasurement.wallNanos()).isPositive();
+    assertThat(checkMeasurement.cpuNanos()).isNotNegative();
+    assertThat(checkMeasurement.allocatedBytes()).isNotNegative();
+
+    AnalysisProfiler.deactivate();
+    assertThat(AnalysisProfiler.current()).isNull();
+    SubscriptionVisitor.analyze(List.of(check), context);
+    assertThat(profiler.checks().get(0).count()).isEqualTo(4);
+  }
+
+  @Test
+  void wall_time() {
+    AtomicLong time = new AtomicLong();
+    AnalysisProfiler profiler = AnalysisProfiler.activate(10, time::get);
+    AnalysisProfiler.Measure parsing = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_PARSING);
+    time.addAndGet(10);
+    AnalysisProfiler.Measure check = AnalysisProfiler.startCheck("check");
+    time.addAndGet(5);
+    check.stop();
+    parsing.stop();
+    check = profiler.measureCheck("check");
+    time.addAndGet(20);
+    check.stop();
+
+    assertThat(profiler.phases()).extracting(AnalysisProfiler.Measurement::name, AnalysisProfiler.Measurement::count, AnalysisProfiler.Measurement::wallNanos)
+      .containsExactly(tuple(AnalysisProfiler.PHASE_PARSING, 1L, 15L));
+    assertThat(profiler.checks()).extracting(AnalysisProfiler.Measurement::name, AnalysisProfiler.Measurement::count, AnalysisProfiler.Measurement::wallNanos)
+      .containsExactly(tuple("check", 2L, 25L));
+  }
+
+  @Test
+  void slowest_files() {
+    AtomicLong time = new AtomicLong();
+    AnalysisProfiler profiler = AnalysisProfiler.activate(2, time::get);
+    for (int i = 1; i <= 3; i++) {
+      AnalysisProfiler.Measure measure = AnalysisProfiler.startFile("file" + i);
+      time.addAndGet((i - 1) * 50L);
+      measure.stop();
+    }
+    assertThat(profiler.slowestFiles()).containsExactly(new AnalysisProfiler.FileMeasurement("file3", 100L), new AnalysisProfiler.FileMeasurement("file2", 50L));
+  }
+}
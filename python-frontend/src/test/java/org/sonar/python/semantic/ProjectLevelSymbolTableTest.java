@@ -46,6 +46,7 @@ import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.Statement;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.PythonTestUtils;
+import org.sonar.python.index.ClassDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.DescriptorUtils;
 import org.sonar.python.index.VariableDescriptor;
@@ -54,6 +55,7 @@ import org.sonar.python.types.DeclaredType;
 import org.sonar.python.types.InferredTypes;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.sonar.python.PythonTestUtils.parse;
 import static org.sonar.python.PythonTestUtils.parseWithoutSymbols;
@@ -456,6 +458,53 @@ class ProjectLevelSymbolTableTest {
     assertThat(projectLevelSymbolTable.getSymbol("mod.x").name()).isEqualTo("x");
   }
 
+  @Test
+  void global_descriptors_by_fqn_updated_incrementally() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    projectLevelSymbolTable.insertEntry("a", Set.of(new VariableDescriptor("x", "shared.x", null)));
+    assertThat(projectLevelSymbolTable.getSymbol("shared.x").kind()).isEqualTo(Symbol.Kind.OTHER);
+
+    projectLevelSymbolTable.insertEntry("b", Set.of(new VariableDescriptor("x", "shared.x", null), new VariableDescriptor("y", "b.y", null)));
+    Symbol sharedSymbol = projectLevelSymbolTable.getSymbol("shared.x");
+    assertThat(sharedSymbol.kind()).isEqualTo(Symbol.Kind.AMBIGUOUS);
+    assertThat(((AmbiguousSymbol) sharedSymbol).alternatives()).hasSize(2);
+    assertThat(projectLevelSymbolTable.getSymbol("b.y")).isNotNull();
+
+    projectLevelSymbolTable.insertEntry("c", Set.of(new VariableDescriptor("x", "shared.x", null)));
+    assertThat(((AmbiguousSymbol) projectLevelSymbolTable.getSymbol("shared.x")).alternatives()).hasSize(3);
+
+    projectLevelSymbolTable.removeModule("", "b.py");
+    assertThat(((AmbiguousSymbol) projectLevelSymbolTable.getSymbol("shared.x")).alternatives()).hasSize(2);
+    assertThat(projectLevelSymbolTable.getSymbol("b.y")).isNull();
+
+    projectLevelSymbolTable.removeModule("", "c.py");
+    assertThat(projectLevelSymbolTable.getSymbol("shared.x").kind()).isEqualTo(Symbol.Kind.OTHER);
+
+    // a module added again replaces its previous descriptors
+    projectLevelSymbolTable.insertEntry("a", Set.of(new VariableDescriptor("z", "a.z", null)));
+    assertThat(projectLevelSymbolTable.getSymbol("shared.x")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("a.z")).isNotNull();
+
+    projectLevelSymbolTable.removeModule("", "a.py");
+    projectLevelSymbolTable.removeModule("", "unknown.py");
+    assertThat(projectLevelSymbolTable.getSymbol("a.z")).isNull();
+  }
+
+  @Test
+  void module_replaced_before_global_descriptors_by_fqn_built() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("def f(): pass"), "", pythonFile("mod.py"));
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("def g(): pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.f")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.g")).isNotNull();
+
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("def f(): pass", "def f(x): pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.g")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.f").kind()).isEqualTo(Symbol.Kind.AMBIGUOUS);
+    projectLevelSymbolTable.removeModule("", "mod.py");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.f")).isNull();
+  }
+
   @Test
   void test_add_module_after_creation() {
     FileInput tree = parseWithoutSymbols(
@@ -904,6 +953,75 @@ class ProjectLevelSymbolTableTest {
     assertThat(localSymbol.alternatives()).extracting(Symbol::kind).containsExactlyInAnyOrder(Symbol.Kind.CLASS, Symbol.Kind.OTHER);
   }
 
+  @Test
+  void referenced_symbols_shared_until_modules_change() {
+    ProjectLevelSymbolTable projectSymbolTable = new ProjectLevelSymbolTable();
+    projectSymbolTable.addModule(parseWithoutSymbols("class Base: ..."), "", pythonFile("base.py"));
+    projectSymbolTable.addModule(parseWithoutSymbols(
+      "from base import Base",
+      "class Child(Base):",
+      "  def method(self, param: Base): ..."), "", pythonFile("child.py"));
+
+    ClassSymbol child = (ClassSymbol) projectSymbolTable.getSymbol("child.Child");
+    ClassSymbol otherChild = (ClassSymbol) projectSymbolTable.getSymbol("child.Child", "Aliased");
+    assertThat(child).isNotSameAs(otherChild);
+    assertThat(otherChild.name()).isEqualTo("Aliased");
+    Symbol base = child.superClasses().get(0);
+    assertThat(base.fullyQualifiedName()).isEqualTo("base.Base");
+    assertThat(otherChild.superClasses()).containsExactly(base);
+    FunctionSymbol method = (FunctionSymbol) otherChild.declaredMembers().iterator().next();
+    assertThat(((DeclaredType) method.parameters().get(1).declaredType()).getTypeClass()).isSameAs(base);
+
+    projectSymbolTable.addModule(parseWithoutSymbols("class Base: ..."), "", pythonFile("base.py"));
+    assertThat(((ClassSymbol) projectSymbolTable.getSymbol("child.Child")).superClasses().get(0)).isNotSameAs(base);
+  }
+
+  @Test
+  void same_module_symbols_not_shared() {
+    ProjectLevelSymbolTable projectSymbolTable = new ProjectLevelSymbolTable();
+    projectSymbolTable.addModule(parseWithoutSymbols(
+      "class Base: ...",
+      "class Child(Base):",
+      "  def method(self, param: Base): ..."), "", pythonFile("mod.py"));
+
+    Set<Symbol> symbols = projectSymbolTable.getSymbolsFromModule("mod");
+    Symbol base = symbols.stream().filter(s -> "mod.Base".equals(s.fullyQualifiedName())).findFirst().get();
+    ClassSymbol child = (ClassSymbol) symbols.stream().filter(s -> "mod.Child".equals(s.fullyQualifiedName())).findFirst().get();
+    assertThat(child.superClasses().get(0)).isSameAs(base);
+    FunctionSymbol method = (FunctionSymbol) child.declaredMembers().iterator().next();
+    assertThat(((DeclaredType) method.parameters().get(1).declaredType()).getTypeClass()).isSameAs(base);
+
+    assertThat(projectSymbolTable.getSymbolsFromModule("mod")).noneMatch(s -> s == base);
+  }
+
+  @Test
+  void referenced_symbols_initialized_before_being_shared() {
+    ProjectLevelSymbolTable projectSymbolTable = new ProjectLevelSymbolTable();
+    projectSymbolTable.addModule(parseWithoutSymbols("class Base: ..."), "", pythonFile("base.py"));
+
+    ClassSymbolImpl base = (ClassSymbolImpl) projectSymbolTable.getReferencedSymbol("base.Base", new HashMap<>(), new HashMap<>());
+    assertThatThrownBy(() -> base.addMembers(Collections.emptyList())).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> base.addSuperClass(base)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void least_recently_used_referenced_symbols_evicted() {
+    ProjectLevelSymbolTable projectSymbolTable = new ProjectLevelSymbolTable();
+    for (int i = 0; i <= 10_000; i++) {
+      String moduleName = "mod" + i;
+      projectSymbolTable.insertEntry(moduleName, Set.of(new ClassDescriptor.ClassDescriptorBuilder().withName("A").withFullyQualifiedName(moduleName + ".A").build()));
+    }
+
+    Symbol first = projectSymbolTable.getReferencedSymbol("mod0.A", new HashMap<>(), new HashMap<>());
+    Symbol second = projectSymbolTable.getReferencedSymbol("mod1.A", new HashMap<>(), new HashMap<>());
+    for (int i = 2; i <= 10_000; i++) {
+      assertThat(projectSymbolTable.getReferencedSymbol("mod0.A", new HashMap<>(), new HashMap<>())).isSameAs(first);
+      projectSymbolTable.getReferencedSymbol("mod" + i + ".A", new HashMap<>(), new HashMap<>());
+    }
+    assertThat(projectSymbolTable.getReferencedSymbol("mod0.A", new HashMap<>(), new HashMap<>())).isSameAs(first);
+    assertThat(projectSymbolTable.getReferencedSymbol("mod1.A", new HashMap<>(), new HashMap<>())).isNotSameAs(second);
+  }
+
   @Test
   void loop_in_inheritance_with_method_paraneters_of_same_type() {
     String[] foo = {
@@ -965,6 +1083,28 @@ class ProjectLevelSymbolTableTest {
     assertThat(bar.isDjangoView()).isFalse();
   }
 
+  @Test
+  void module_descriptors_merged_later() {
+    FileInput tree = parseWithoutSymbols(
+      "from django.urls import path",
+      "import views",
+      "urlpatterns = [path('foo', views.foo, name='foo')]",
+      "class A: ..."
+    );
+    ProjectLevelSymbolTable.ModuleDescriptors moduleDescriptors = ProjectLevelSymbolTable.moduleDescriptors(tree, "pkg", pythonFile("urls.py"));
+    assertThat(moduleDescriptors.fullyQualifiedModuleName()).isEqualTo("pkg.urls");
+    assertThat(moduleDescriptors.descriptors()).extracting(Descriptor::name).containsExactlyInAnyOrder("urlpatterns", "A");
+    assertThat(moduleDescriptors.importedModulesFQN()).containsExactlyInAnyOrder("django.urls.path", "views");
+    assertThat(moduleDescriptors.djangoViewsFQN()).containsExactly("views.foo");
+
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.urls.A")).isNull();
+    projectLevelSymbolTable.addModule(moduleDescriptors);
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.urls.A")).isNotNull();
+    assertThat(projectLevelSymbolTable.isDjangoView("views.foo")).isTrue();
+    assertThat(projectLevelSymbolTable.importsByModule()).containsOnlyKeys("pkg.urls");
+  }
+
   /**
    * The variable `foo` which is assigned in the decorator of the function should belong to the global scope not the function scope
    */
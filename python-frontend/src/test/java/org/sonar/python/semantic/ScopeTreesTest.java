@@ -0,0 +1,92 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.semantic;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.tree.ClassDef;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonar.python.tree.TreeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScopeTreesTest {
+
+  @Test
+  void function_defs() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def outer():",
+      "  def inner(): pass",
+      "class A:",
+      "  def method(self): pass",
+      "def last(): pass");
+    assertThat(ScopeTrees.of(fileInput).functionDefs())
+      .extracting(functionDef -> functionDef.name().name())
+      .containsExactly("inner", "outer", "method", "last");
+  }
+
+  @Test
+  void qualified_expressions() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "a.b.c",
+      "def f(): x.y");
+    assertThat(ScopeTrees.of(fileInput).qualifiedExpressions())
+      .extracting(qualifiedExpression -> qualifiedExpression.name().name())
+      .containsExactly("b", "c", "y");
+  }
+
+  @Test
+  void try_statements() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def with_try():",
+      "  try: pass",
+      "  except: pass",
+      "def with_nested_try():",
+      "  def nested():",
+      "    try: pass",
+      "    finally: pass",
+      "class A:",
+      "  try: pass",
+      "  except: pass");
+    ScopeTrees scopeTrees = ScopeTrees.of(fileInput);
+    assertThat(scopeTrees.hasTryStatement(fileInput)).isFalse();
+    assertThat(scopeTrees.hasTryStatement(functionDef(fileInput, "with_try"))).isTrue();
+    assertThat(scopeTrees.hasTryStatement(functionDef(fileInput, "with_nested_try"))).isFalse();
+    assertThat(scopeTrees.hasTryStatement(functionDef(fileInput, "nested"))).isTrue();
+    ClassDef classDef = (ClassDef) TreeUtils.firstChild(fileInput, tree -> tree.is(Tree.Kind.CLASSDEF)).get();
+    assertThat(scopeTrees.hasTryStatement(classDef)).isFalse();
+
+
+    FileInput moduleWithTry = PythonTestUtils.parse("try: pass", "except: pass");
+    assertThat(ScopeTrees.of(moduleWithTry).hasTryStatement(moduleWithTry)).isTrue();
+  }
+
+  @Test
+  void collected_once_per_file() {
+    FileInput fileInput = PythonTestUtils.parse("def f(): pass");
+    assertThat(ScopeTrees.of(fileInput)).isSameAs(ScopeTrees.of(fileInput));
+  }
+
+  private static FunctionDef functionDef(FileInput fileInput, String name) {
+    return (FunctionDef) TreeUtils.firstChild(fileInput, tree -> tree.is(Tree.Kind.FUNCDEF) && ((FunctionDef) tree).name().name().equals(name)).get();
+  }
+}
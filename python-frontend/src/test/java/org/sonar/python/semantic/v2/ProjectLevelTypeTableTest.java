@@ -19,13 +19,22 @@
  */
 package org.sonar.python.semantic.v2;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.types.v2.ClassType;
+import org.sonar.python.types.v2.FunctionType;
+import org.sonar.python.types.v2.LazyType;
 import org.sonar.python.types.v2.ModuleType;
 import org.sonar.python.types.v2.PythonType;
 import org.sonar.python.types.v2.TriBool;
+import org.sonar.python.types.v2.UnionType;
 
 class ProjectLevelTypeTableTest {
   
@@ -75,4 +84,40 @@ class ProjectLevelTypeTableTest {
     Assertions.assertThat(rootModuleType.hasMember("typing")).isEqualTo(TriBool.TRUE);
     Assertions.assertThat(rootModuleType.resolveMember("typing")).containsSame(typingModuleType);
   }
+
+  @Test
+  void shared_table_used_concurrently() throws Exception {
+    var symbolTable = ProjectLevelSymbolTable.empty();
+    var table = new ProjectLevelTypeTable(symbolTable, new TypeShed(symbolTable));
+    // return types of these functions are lazy types, resolved on their first access
+    List<String> functionFqns = List.of("re.compile", "json.loads", "os.getcwd", "calendar.Calendar.iterweekdays", "subprocess.run",
+      "logging.getLogger", "email.message_from_string", "socket.create_connection", "datetime.datetime.now", "typing.get_type_hints");
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<List<PythonType>>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          List<PythonType> returnTypes = new ArrayList<>();
+          for (String functionFqn : functionFqns) {
+            PythonType type = table.getType(functionFqn);
+            // overloaded functions are union types of their signatures
+            List<PythonType> functionTypes = type instanceof UnionType unionType ? List.copyOf(unionType.candidates()) : List.of(type);
+            functionTypes.forEach(functionType -> returnTypes.add(((FunctionType) functionType).returnType()));
+          }
+          return returnTypes;
+        }));
+      }
+      start.countDown();
+      List<PythonType> expected = futures.get(0).get();
+      Assertions.assertThat(expected).hasSizeGreaterThanOrEqualTo(functionFqns.size()).noneMatch(LazyType.class::isInstance);
+      for (Future<List<PythonType>> future : futures) {
+        Assertions.assertThat(future.get()).usingElementComparator((a, b) -> a == b ? 0 : 1).containsExactlyElementsOf(expected);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
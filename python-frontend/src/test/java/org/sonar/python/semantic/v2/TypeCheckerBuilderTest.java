@@ -23,6 +23,7 @@ import java.util.List;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.types.v2.Member;
 import org.sonar.python.types.v2.ObjectType;
 import org.sonar.python.types.v2.PythonType;
 import org.sonar.python.types.v2.TriBool;
@@ -41,6 +42,60 @@ class TypeCheckerBuilderTest {
       .isEqualTo(TriBool.FALSE);
   }
 
+  @Test
+  void reused_builder() {
+    var symbolTable = ProjectLevelSymbolTable.empty();
+    var table = new ProjectLevelTypeTable(symbolTable, new TypeShed(symbolTable));
+    var classType = new ClassTypeBuilder().withName("A").build();
+    var objectType = new ObjectType(classType);
+    var builder = new TypeCheckBuilder(table).instancesHaveMember("foo");
+    Assertions.assertThat(builder.check(classType)).isEqualTo(TriBool.FALSE);
+    Assertions.assertThat(builder.check(objectType)).isEqualTo(TriBool.FALSE);
+
+    classType.members().add(new Member("foo", PythonType.UNKNOWN));
+    Assertions.assertThat(builder.check(classType)).isEqualTo(TriBool.TRUE);
+    Assertions.assertThat(builder.check(objectType)).isEqualTo(TriBool.FALSE);
+
+    builder.isTypeHintTypeSource();
+    Assertions.assertThat(builder.check(classType)).isEqualTo(TriBool.FALSE);
+
+    Assertions.assertThat(table.getType("typing.Coroutine")).isSameAs(table.getType("typing.Coroutine"));
+  }
+
+  @Test
+  void reused_builder_results_follow_ancestor_changes() {
+    var symbolTable = ProjectLevelSymbolTable.empty();
+    var table = new ProjectLevelTypeTable(symbolTable, new TypeShed(symbolTable));
+    var parentType = new ClassTypeBuilder().withName("A").build();
+    var childType = new ClassTypeBuilder().withName("B").withSuperClasses(parentType).build();
+    var unrelatedType = new ClassTypeBuilder().withName("C").build();
+    var builder = new TypeCheckBuilder(table).instancesHaveMember("foo");
+    Assertions.assertThat(builder.check(childType)).isEqualTo(TriBool.FALSE);
+
+    unrelatedType.members().add(new Member("foo", PythonType.UNKNOWN));
+    Assertions.assertThat(builder.check(childType)).isEqualTo(TriBool.FALSE);
+
+    parentType.members().add(new Member("foo", PythonType.UNKNOWN));
+    Assertions.assertThat(builder.check(childType)).isEqualTo(TriBool.TRUE);
+  }
+
+  @Test
+  void reused_builder_results_shared_by_instances() {
+    var symbolTable = ProjectLevelSymbolTable.empty();
+    var table = new ProjectLevelTypeTable(symbolTable, new TypeShed(symbolTable));
+    var classType = new ClassTypeBuilder().withName("A").build();
+    var builder = new TypeCheckBuilder(table).hasMember("foo");
+    Assertions.assertThat(builder.check(new ObjectType(classType))).isEqualTo(TriBool.FALSE);
+    Assertions.assertThat(builder.check(new ObjectType(classType))).isEqualTo(TriBool.FALSE);
+    // instances with their own members are not memoized
+    var objectWithMember = new ObjectType(classType, List.of(), List.of(new Member("foo", PythonType.UNKNOWN)));
+    Assertions.assertThat(builder.check(objectWithMember)).isEqualTo(TriBool.TRUE);
+
+    builder = new TypeCheckBuilder(table).isTypeHintTypeSource();
+    Assertions.assertThat(builder.check(new ObjectType(classType, TypeSource.EXACT))).isEqualTo(TriBool.FALSE);
+    Assertions.assertThat(builder.check(new ObjectType(classType, TypeSource.TYPE_HINT))).isEqualTo(TriBool.TRUE);
+  }
+
   @Test
   void isInstanceOfTest() {
     var symbolTable = ProjectLevelSymbolTable.empty();
@@ -93,6 +93,29 @@ class TypeShedTest {
     setPythonVersions(PythonVersionUtils.allVersions());
   }
 
+  @Test
+  void stubs_reloaded_when_python_versions_change() {
+    TypeShed typeShed = new TypeShed(ProjectLevelSymbolTable.empty());
+    ClassSymbol strClass = (ClassSymbol) typeShed.builtinSymbols().get("str");
+    assertThat(strClass.resolveMember("removeprefix")).isNotEmpty();
+    Map<String, Symbol> mathSymbols = typeShed.symbolsForModule("math");
+
+    // no explicit reset: the configured versions are checked whenever stubs are requested
+    ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromString("3.8"));
+    strClass = (ClassSymbol) typeShed.builtinSymbols().get("str");
+    assertThat(strClass.resolveMember("removeprefix")).isEmpty();
+    assertThat(typeShed.symbolsForModule("math")).isNotSameAs(mathSymbols);
+    Map<String, Symbol> mathSymbolsFor38 = typeShed.symbolsForModule("math");
+
+    // same versions, read again from the configuration: nothing is reloaded
+    ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromString("3.8"));
+    assertThat(typeShed.symbolsForModule("math")).isSameAs(mathSymbolsFor38);
+
+    ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.allVersions());
+    strClass = (ClassSymbol) typeShed.builtinSymbols().get("str");
+    assertThat(strClass.resolveMember("removeprefix")).isNotEmpty();
+  }
+
   @Test
   void not_a_class() {
     assertThatThrownBy(() -> org.sonar.python.types.TypeShed.typeShedClass("repr")).isInstanceOf(IllegalArgumentException.class);
@@ -118,11 +118,13 @@ import org.sonar.plugins.python.api.tree.YieldStatement;
 import org.sonar.python.api.PythonGrammar;
 import org.sonar.python.api.PythonPunctuator;
 import org.sonar.python.api.PythonTokenType;
+import org.sonar.python.parser.PythonParser;
 import org.sonar.python.parser.RuleTest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
+import static org.assertj.core.api.Assertions.tuple;
 
 class PythonTreeMakerTest extends RuleTest {
 
@@ -150,6 +152,31 @@ class PythonTreeMakerTest extends RuleTest {
     assertThat(((Token) fileInput.children().get(1)).type()).isEqualTo(GenericTokenType.EOF);
   }
 
+  @Test
+  void file_input_releasing_ast_nodes() {
+    String code = """
+      import os
+      x = 1; y = 2
+      class A:
+        def f(self, a):
+          if a:
+            return [i for i in a]
+          else:
+            pass
+      """;
+    PythonParser parser = PythonParser.create();
+    FileInput expected = new PythonTreeMaker().fileInput(parser.parse(code));
+    AstNode astNode = parser.parse(code);
+    FileInput fileInput = new PythonTreeMaker().fileInputReleasingAstNodes(astNode);
+
+    assertThat(TreeUtils.tokens(fileInput)).extracting(Token::value, Token::line, Token::column)
+      .containsExactlyElementsOf(TreeUtils.tokens(expected).stream().map(t -> tuple(t.value(), t.line(), t.column())).toList());
+    assertThat(fileInput.statements().statements()).extracting(Tree::getKind)
+      .containsExactly(Tree.Kind.IMPORT_NAME, Tree.Kind.ASSIGNMENT_STMT, Tree.Kind.ASSIGNMENT_STMT, Tree.Kind.CLASSDEF);
+    assertThat(astNode.getDescendants(PythonGrammar.NAME)).isEmpty();
+    assertThat(astNode.getFirstChild(GenericTokenType.EOF)).isNotNull();
+  }
+
   @Test
   void variadic_is_kind() {
     FileInput fileInput = parse("def foo(): pass", treeMaker::fileInput);
@@ -22,10 +22,19 @@ package org.sonar.python.types;
 import com.google.protobuf.TextFormat;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -111,6 +120,25 @@ class TypeShedTest {
     assertThat(noneType.superClasses()).isEmpty();
   }
 
+  @Test
+  void stubs_index() throws Exception {
+    Path typesDirectory = Paths.get(TypeShed.class.getResource("stubs.index").toURI()).getParent();
+    List<String> stubResources;
+    try (Stream<Path> files = Files.walk(typesDirectory, 2)) {
+      stubResources = files
+        .map(file -> file.getParent().getFileName() + "/" + file.getFileName())
+        .filter(file -> file.endsWith(".protobuf"))
+        .map(file -> file.substring(0, file.length() - ".protobuf".length()))
+        .toList();
+    }
+    assertThat(Files.readAllLines(typesDirectory.resolve("stubs.index"))).containsExactlyInAnyOrderElementsOf(stubResources);
+
+    assertThat(TypeShed.hasStub("stdlib_protobuf/", "os.path")).isTrue();
+    assertThat(TypeShed.hasStub("custom_protobuf/", "os.path")).isFalse();
+    assertThat(TypeShed.hasStub("third_party_protobuf/", "google.protobuf")).isTrue();
+    assertThat(TypeShed.hasStub("stdlib_protobuf/", "unknown_module")).isFalse();
+  }
+
   @Test
   void typing_module() {
     Map<String, Symbol> symbols = symbolsForModule("typing");
@@ -489,6 +517,24 @@ class TypeShedTest {
     assertThat(sequence).isSameAs(typing.get("Sequence"));
   }
 
+  @Test
+  void symbolWithFQN_index_reset() {
+    Symbol acos = TypeShed.symbolWithFQN("math", "math.acos");
+    assertThat(acos).isSameAs(symbolsForModule("math").get("acos"));
+    TypeShed.resetBuiltinSymbols();
+    Symbol reloadedAcos = TypeShed.symbolWithFQN("math", "math.acos");
+    assertThat(reloadedAcos).isNotSameAs(acos).isSameAs(symbolsForModule("math").get("acos"));
+    assertThat(TypeShed.symbolWithFQN("math", "math.unknown")).isNull();
+    assertThat(TypeShed.symbolWithFQN("math", "unknown")).isNull();
+  }
+
+  @Test
+  void module_name() {
+    assertThat(TypeShed.moduleName("os.path.join")).isEqualTo("os.path");
+    assertThat(TypeShed.moduleName("math.acos")).isEqualTo("math");
+    assertThat(TypeShed.moduleName("len")).isEmpty();
+  }
+
   @Test
   void stubModules() {
     TypeShed.symbolsForModule("doesnotexist");
@@ -496,6 +542,32 @@ class TypeShedTest {
     assertThat(TypeShed.stubModules()).containsExactly("math");
   }
 
+  @Test
+  void modules_loaded_once_when_accessed_concurrently() throws Exception {
+    List<String> moduleNames = List.of("smtplib", "typing", "os", "email.message", "django.http", "math");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Map<String, Map<String, Symbol>>>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executor.submit(() -> moduleNames.stream().collect(Collectors.toMap(m -> m, TypeShed::symbolsForModule))));
+      }
+      Map<String, Map<String, Symbol>> first = futures.get(0).get();
+      for (Future<Map<String, Map<String, Symbol>>> future : futures) {
+        Map<String, Map<String, Symbol>> symbolsByModule = future.get();
+        moduleNames.forEach(m -> assertThat(symbolsByModule.get(m)).isNotEmpty().isSameAs(first.get(m)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void v2_typeshed_shares_loaded_symbols() {
+    org.sonar.python.semantic.v2.TypeShed typeShedV2 = new org.sonar.python.semantic.v2.TypeShed(ProjectLevelSymbolTable.empty());
+    assertThat(typeShedV2.symbolsForModule("math")).isSameAs(symbolsForModule("math"));
+    assertThat(typeShedV2.builtinSymbols()).isSameAs(TypeShed.builtinSymbols());
+  }
+
   private static SymbolsProtos.ModuleSymbol moduleSymbol(String protobuf) throws TextFormat.ParseException {
     SymbolsProtos.ModuleSymbol.Builder builder = SymbolsProtos.ModuleSymbol.newBuilder();
     TextFormat.merge(protobuf, builder);
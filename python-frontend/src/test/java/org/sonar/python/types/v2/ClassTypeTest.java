@@ -33,6 +33,7 @@ import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.PythonTestUtils;
 import org.sonar.python.semantic.SymbolUtils;
 import org.sonar.python.semantic.v2.ClassTypeBuilder;
+import org.sonar.python.semantic.v2.FunctionTypeBuilder;
 import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
 import org.sonar.python.semantic.v2.SymbolV2;
 import org.sonar.python.semantic.v2.TypeInferenceV2;
@@ -605,6 +606,130 @@ public class ClassTypeTest {
     assertThat(classType.displayName()).contains("type");
   }
 
+  @Test
+  void mro_c3_linearization() {
+    List<ClassType> classTypes = classTypes(
+      "class A:",
+      "  def foo(self): ...",
+      "class B(A): ...",
+      "class C(A):",
+      "  def foo(self): ...",
+      "class D(B, C): ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    ClassType classC = classTypes.get(2);
+    ClassType classD = classTypes.get(3);
+    assertThat(classD.mro()).containsExactly(classD, classB, classC, classA);
+    assertThat(classD.resolveMember("foo")).containsSame(classC.resolveMember("foo").get());
+    assertThat(classD.hasUnresolvedHierarchy()).isFalse();
+  }
+
+  @Test
+  void mro_inconsistent_hierarchy() {
+    List<ClassType> classTypes = classTypes(
+      "class A: ...",
+      "class B(A): ...",
+      "class C(A, B): ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    ClassType classC = classTypes.get(2);
+    assertThat(classC.mro()).containsExactly(classC, classA, classB);
+  }
+
+  @Test
+  void mro_unresolved_parent() {
+    List<ClassType> classTypes = classTypes(
+      "class A(Unknown): ...",
+      "class B(A): ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    assertThat(classB.mro()).containsExactly(classB, classA, PythonType.UNKNOWN);
+    assertThat(classB.hasUnresolvedHierarchy()).isTrue();
+  }
+
+  @Test
+  void memoized_hierarchy_updated_on_change() {
+    List<ClassType> classTypes = classTypes(
+      "class A: ...",
+      "class B(A): ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    assertThat(classB.resolveMember("foo")).isEmpty();
+    assertThat(classB.isASubClassFrom(classA)).isTrue();
+
+    FunctionType foo = new FunctionTypeBuilder("foo").build();
+    classA.members().add(new Member("foo", foo));
+    assertThat(classB.resolveMember("foo")).containsSame(foo);
+    assertThat(classB.instancesHaveMember("foo")).isEqualTo(TriBool.TRUE);
+
+    classB.superClasses().add(PythonType.UNKNOWN);
+    assertThat(classB.hasUnresolvedHierarchy()).isTrue();
+    assertThat(classB.instancesHaveMember("foo")).isEqualTo(TriBool.UNKNOWN);
+
+    classB.superClasses().remove(PythonType.UNKNOWN);
+    classA.members().removeIf(member -> member.name().equals("foo"));
+    assertThat(classB.hasUnresolvedHierarchy()).isFalse();
+    assertThat(classB.resolveMember("foo")).isEmpty();
+  }
+
+  @Test
+  void memoized_hierarchy_invalidated_only_for_changed_class_and_subclasses() {
+    List<ClassType> classTypes = classTypes(
+      "class A: ...",
+      "class B(A): ...",
+      "class C: ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    ClassType classC = classTypes.get(2);
+    Object stampA = classA.hierarchyStamp();
+    Object stampB = classB.hierarchyStamp();
+    Object stampC = classC.hierarchyStamp();
+
+    classA.members().add(new Member("foo", PythonType.UNKNOWN));
+    assertThat(classA.hierarchyStamp()).isNotSameAs(stampA);
+    assertThat(classB.hierarchyStamp()).isNotSameAs(stampB);
+    assertThat(classC.hierarchyStamp()).isSameAs(stampC);
+
+    stampA = classA.hierarchyStamp();
+    stampB = classB.hierarchyStamp();
+    classB.members().add(new Member("bar", PythonType.UNKNOWN));
+    assertThat(classA.hierarchyStamp()).isSameAs(stampA);
+    assertThat(classB.hierarchyStamp()).isNotSameAs(stampB);
+
+    // changes which leave the class as it is do not invalidate anything
+    stampB = classB.hierarchyStamp();
+    assertThat(classA.members().add(new Member("foo", PythonType.UNKNOWN))).isFalse();
+    assertThat(classB.members().remove(new Member("unknown", PythonType.UNKNOWN))).isFalse();
+    classB.superClasses().set(0, classA);
+    assertThat(classB.hierarchyStamp()).isSameAs(stampB);
+  }
+
+  @Test
+  void memoized_hierarchy_invalidation_pushed_to_subclasses() {
+    List<ClassType> classTypes = classTypes(
+      "class A: ...",
+      "class B(A): ...",
+      "class C(A): ...",
+      "class D(B, C): ...");
+    ClassType classA = classTypes.get(0);
+    ClassType classB = classTypes.get(1);
+    ClassType classD = classTypes.get(3);
+    Object stampD = classD.hierarchyStamp();
+    assertThat(classD.hierarchyStamp()).isSameAs(stampD);
+
+    FunctionType foo = new FunctionTypeBuilder("foo").build();
+    classA.members().add(new Member("foo", foo));
+    assertThat(classD.hierarchyStamp()).isNotSameAs(stampD);
+    assertThat(classD.resolveMember("foo")).containsSame(foo);
+
+    // classes which are no longer superclasses do not outdate their former subclasses
+    classD.superClasses().remove(classB);
+    stampD = classD.hierarchyStamp();
+    classB.members().add(new Member("bar", PythonType.UNKNOWN));
+    assertThat(classD.hierarchyStamp()).isSameAs(stampD);
+    assertThat(classD.mro()).containsExactly(classD, classTypes.get(2), classA);
+  }
+
   public static ClassType classType(String... code) {
     return classTypes(code).get(0);
   }
@@ -0,0 +1,39 @@
+# -*- coding: utf-8 -*-
+# Generated by the protocol buffer compiler.  DO NOT EDIT!
+# source: descriptors.proto
+# Protobuf Python Version: 4.25.1
+"""Generated protocol buffer code."""
+from google.protobuf import descriptor as _descriptor
+from google.protobuf import descriptor_pool as _descriptor_pool
+from google.protobuf import symbol_database as _symbol_database
+from google.protobuf.internal import builder as _builder
+# @@protoc_insertion_point(imports)
+
+_sym_db = _symbol_database.Default()
+
+
+
+
+DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x11\x64\x65scriptors.proto\x12\tprotoblog\"\xf4\x01\n\x10ModuleDescriptor\x12\x34\n\x10\x63lassDescriptors\x18\x01 \x03(\x0b\x32\x1a.protoblog.ClassDescriptor\x12:\n\x13\x66unctionDescriptors\x18\x02 \x03(\x0b\x32\x1d.protoblog.FunctionDescriptor\x12\x30\n\x0evarDescriptors\x18\x03 \x03(\x0b\x32\x18.protoblog.VarDescriptor\x12<\n\x14\x61mbiguousDescriptors\x18\x04 \x03(\x0b\x32\x1e.protoblog.AmbiguousDescriptor\"t\n\x0eLocationInFile\x12\x0e\n\x06\x66ileId\x18\x01 \x01(\t\x12\x11\n\tstartLine\x18\x02 \x01(\x05\x12\x17\n\x0fstartLineOffset\x18\x03 \x01(\x05\x12\x0f\n\x07\x65ndLine\x18\x04 \x01(\x05\x12\x15\n\rendLineOffset\x18\x05 \x01(\x05\"\xff\x01\n\x13\x41mbiguousDescriptor\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x1f\n\x12\x66ullyQualifiedName\x18\x02 \x01(\tH\x00\x88\x01\x01\x12\x34\n\x10\x63lassDescriptors\x18\x03 \x03(\x0b\x32\x1a.protoblog.ClassDescriptor\x12:\n\x13\x66unctionDescriptors\x18\x04 \x03(\x0b\x32\x1d.protoblog.FunctionDescriptor\x12\x30\n\x0evarDescriptors\x18\x05 \x03(\x0b\x32\x18.protoblog.VarDescriptorB\x15\n\x13_fullyQualifiedName\"\x91\x04\n\x0f\x43lassDescriptor\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x1f\n\x12\x66ullyQualifiedName\x18\x02 \x01(\tH\x00\x88\x01\x01\x12\x14\n\x0csuperClasses\x18\x03 \x03(\t\x12\x36\n\x0f\x66unctionMembers\x18\x04 \x03(\x0b\x32\x1d.protoblog.FunctionDescriptor\x12,\n\nvarMembers\x18\x05 \x03(\x0b\x32\x18.protoblog.VarDescriptor\x12\x38\n\x10\x61mbiguousMembers\x18\x06 \x03(\x0b\x32\x1e.protoblog.AmbiguousDescriptor\x12\x30\n\x0c\x63lassMembers\x18\x07 \x03(\x0b\x32\x1a.protoblog.ClassDescriptor\x12\x15\n\rhasDecorators\x18\x08 \x01(\x08\x12\x35\n\x12\x64\x65\x66initionLocation\x18\t \x01(\x0b\x32\x19.protoblog.LocationInFile\x12&\n\x1ehasSuperClassWithoutDescriptor\x18\n \x01(\x08\x12\x14\n\x0chasMetaClass\x18\x0b \x01(\x08\x12\x19\n\x0cmetaClassFQN\x18\x0c \x01(\tH\x01\x88\x01\x01\x12\x18\n\x10supportsGenerics\x18\r \x01(\x08\x42\x15\n\x13_fullyQualifiedNameB\x0f\n\r_metaClassFQN\"\xb5\x02\n\x13ParameterDescriptor\x12\x11\n\x04name\x18\x01 \x01(\tH\x00\x88\x01\x01\x12\x1a\n\rannotatedType\x18\x02 \x01(\tH\x01\x88\x01\x01\x12\x17\n\x0fhasDefaultValue\x18\x03 \x01(\x08\x12\x19\n\x11isKeywordVariadic\x18\x04 \x01(\x08\x12\x1c\n\x14isPositionalVariadic\x18\x05 \x01(\x08\x12\x15\n\risKeywordOnly\x18\x06 \x01(\x08\x12\x18\n\x10isPositionalOnly\x18\x07 \x01(\x08\x12:\n\x12\x64\x65\x66initionLocation\x18\x08 \x01(\x0b\x32\x19.protoblog.LocationInFileH\x02\x88\x01\x01\x42\x07\n\x05_nameB\x10\n\x0e_annotatedTypeB\x15\n\x13_definitionLocation\"\xea\x02\n\x12\x46unctionDescriptor\x12\x11\n\x04name\x18\x01 \x01(\tH\x00\x88\x01\x01\x12\x1f\n\x12\x66ullyQualifiedName\x18\x02 \x01(\tH\x01\x88\x01\x01\x12\x32\n\nparameters\x18\x03 \x03(\x0b\x32\x1e.protoblog.ParameterDescriptor\x12\x16\n\x0eisAsynchronous\x18\x04 \x01(\x08\x12\x18\n\x10isInstanceMethod\x18\x05 \x01(\x08\x12\x12\n\ndecorators\x18\x06 \x03(\t\x12\x15\n\rhasDecorators\x18\x07 \x01(\x08\x12\x35\n\x12\x64\x65\x66initionLocation\x18\x08 \x01(\x0b\x32\x19.protoblog.LocationInFile\x12 \n\x13\x61nnotatedReturnType\x18\t \x01(\tH\x02\x88\x01\x01\x42\x07\n\x05_nameB\x15\n\x13_fullyQualifiedNameB\x16\n\x14_annotatedReturnType\"\x87\x01\n\rVarDescriptor\x12\x0c\n\x04name\x18\x01 \x01(\t\x12!\n\x14\x66ully_qualified_name\x18\x02 \x01(\tH\x00\x88\x01\x01\x12\x1a\n\rannotatedType\x18\x03 \x01(\tH\x01\x88\x01\x01\x42\x17\n\x15_fully_qualified_nameB\x10\n\x0e_annotatedTypeB4\n\x1forg.sonar.python.types.protobufB\x11\x44\x65scriptorsProtosb\x06proto3')
+
+_globals = globals()
+_builder.BuildMessageAndEnumDescriptors(DESCRIPTOR, _globals)
+_builder.BuildTopDescriptorsAndMessages(DESCRIPTOR, 'descriptors_pb2', _globals)
+if _descriptor._USE_C_DESCRIPTORS == False:
+  _globals['DESCRIPTOR']._options = None
+  _globals['DESCRIPTOR']._serialized_options = b'\n\037org.sonar.python.types.protobufB\021DescriptorsProtos'
+  _globals['_MODULEDESCRIPTOR']._serialized_start=33
+  _globals['_MODULEDESCRIPTOR']._serialized_end=277
+  _globals['_LOCATIONINFILE']._serialized_start=279
+  _globals['_LOCATIONINFILE']._serialized_end=395
+  _globals['_AMBIGUOUSDESCRIPTOR']._serialized_start=398
+  _globals['_AMBIGUOUSDESCRIPTOR']._serialized_end=653
+  _globals['_CLASSDESCRIPTOR']._serialized_start=656
+  _globals['_CLASSDESCRIPTOR']._serialized_end=1185
+  _globals['_PARAMETERDESCRIPTOR']._serialized_start=1188
+  _globals['_PARAMETERDESCRIPTOR']._serialized_end=1497
+  _globals['_FUNCTIONDESCRIPTOR']._serialized_start=1500
+  _globals['_FUNCTIONDESCRIPTOR']._serialized_end=1862
+  _globals['_VARDESCRIPTOR']._serialized_start=1865
+  _globals['_VARDESCRIPTOR']._serialized_end=2000
+# @@protoc_insertion_point(module_scope)
@@ -0,0 +1,43 @@
+# -*- coding: utf-8 -*-
+# Generated by the protocol buffer compiler.  DO NOT EDIT!
+# source: symbols.proto
+# Protobuf Python Version: 4.25.1
+"""Generated protocol buffer code."""
+from google.protobuf import descriptor as _descriptor
+from google.protobuf import descriptor_pool as _descriptor_pool
+from google.protobuf import symbol_database as _symbol_database
+from google.protobuf.internal import builder as _builder
+# @@protoc_insertion_point(imports)
+
+_sym_db = _symbol_database.Default()
+
+
+
+
+DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\rsymbols.proto\x12\tprotoblog\"\xa1\x01\n\x04Type\x12\x1b\n\x13pretty_printed_name\x18\x01 \x01(\t\x12!\n\x04kind\x18\x02 \x01(\x0e\x32\x13.protoblog.TypeKind\x12\x1d\n\x04\x61rgs\x18\x03 \x03(\x0b\x32\x0f.protoblog.Type\x12!\n\x14\x66ully_qualified_name\x18\x04 \x01(\tH\x00\x88\x01\x01\x42\x17\n\x15_fully_qualified_name\"\xad\x01\n\x0fParameterSymbol\x12\x11\n\x04name\x18\x01 \x01(\tH\x00\x88\x01\x01\x12&\n\x04kind\x18\x02 \x01(\x0e\x32\x18.protoblog.ParameterKind\x12-\n\x0ftype_annotation\x18\x03 \x01(\x0b\x32\x0f.protoblog.TypeH\x01\x88\x01\x01\x12\x13\n\x0bhas_default\x18\x04 \x01(\x08\x42\x07\n\x05_nameB\x12\n\x10_type_annotation\"\x96\x03\n\x0e\x46unctionSymbol\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x1c\n\x14\x66ully_qualified_name\x18\x02 \x01(\t\x12/\n\x11return_annotation\x18\x04 \x01(\x0b\x32\x0f.protoblog.TypeH\x00\x88\x01\x01\x12.\n\nparameters\x18\x05 \x03(\x0b\x32\x1a.protoblog.ParameterSymbol\x12\x16\n\x0ehas_decorators\x18\x06 \x01(\x08\x12 \n\x18resolved_decorator_names\x18\x07 \x03(\t\x12\x13\n\x0bis_abstract\x18\x08 \x01(\x08\x12\x17\n\x0fis_asynchronous\x18\t \x01(\x08\x12\x10\n\x08is_final\x18\n \x01(\x08\x12\x13\n\x0bis_overload\x18\x0b \x01(\x08\x12\x13\n\x0bis_property\x18\x0c \x01(\x08\x12\x11\n\tis_static\x18\r \x01(\x08\x12\x17\n\x0fis_class_method\x18\x0e \x01(\x08\x12\x11\n\tvalid_for\x18\x0f \x03(\tB\x14\n\x12_return_annotation\"}\n\x18OverloadedFunctionSymbol\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x10\n\x08\x66ullname\x18\x02 \x01(\t\x12.\n\x0b\x64\x65\x66initions\x18\x03 \x03(\x0b\x32\x19.protoblog.FunctionSymbol\x12\x11\n\tvalid_for\x18\x04 \x03(\t\"\x93\x03\n\x0b\x43lassSymbol\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x1c\n\x14\x66ully_qualified_name\x18\x02 \x01(\t\x12\x15\n\rsuper_classes\x18\x04 \x03(\t\x12*\n\x07methods\x18\x05 \x03(\x0b\x32\x19.protoblog.FunctionSymbol\x12?\n\x12overloaded_methods\x18\x06 \x03(\x0b\x32#.protoblog.OverloadedFunctionSymbol\x12\x16\n\x0ehas_decorators\x18\x07 \x01(\x08\x12\x15\n\rhas_metaclass\x18\x08 \x01(\x08\x12\x0f\n\x07is_enum\x18\t \x01(\x08\x12\x12\n\nis_generic\x18\n \x01(\x08\x12\x13\n\x0bis_protocol\x18\x0b \x01(\x08\x12\x1b\n\x0emetaclass_name\x18\x0c \x01(\tH\x00\x88\x01\x01\x12\x11\n\tvalid_for\x18\r \x03(\t\x12(\n\nattributes\x18\x0e \x03(\x0b\x32\x14.protoblog.VarSymbolB\x11\n\x0f_metaclass_name\"\xea\x01\n\x0cModuleSymbol\x12\x1c\n\x14\x66ully_qualified_name\x18\x01 \x01(\t\x12\'\n\x07\x63lasses\x18\x02 \x03(\x0b\x32\x16.protoblog.ClassSymbol\x12,\n\tfunctions\x18\x03 \x03(\x0b\x32\x19.protoblog.FunctionSymbol\x12\x41\n\x14overloaded_functions\x18\x04 \x03(\x0b\x32#.protoblog.OverloadedFunctionSymbol\x12\"\n\x04vars\x18\x05 \x03(\x0b\x32\x14.protoblog.VarSymbol\"\xa9\x01\n\tVarSymbol\x12\x0c\n\x04name\x18\x01 \x01(\t\x12\x1c\n\x14\x66ully_qualified_name\x18\x02 \x01(\t\x12-\n\x0ftype_annotation\x18\x03 \x01(\x0b\x32\x0f.protoblog.TypeH\x00\x88\x01\x01\x12\x1a\n\x12is_imported_module\x18\x04 \x01(\x08\x12\x11\n\tvalid_for\x18\x05 \x03(\tB\x12\n\x10_type_annotation*v\n\rParameterKind\x12\x13\n\x0fPOSITIONAL_ONLY\x10\x00\x12\x19\n\x15POSITIONAL_OR_KEYWORD\x10\x01\x12\x10\n\x0cKEYWORD_ONLY\x10\x02\x12\x0f\n\x0bVAR_KEYWORD\x10\x03\x12\x12\n\x0eVAR_POSITIONAL\x10\x04*\xb2\x01\n\x08TypeKind\x12\x0c\n\x08INSTANCE\x10\x00\x12\t\n\x05UNION\x10\x01\x12\x08\n\x04TYPE\x10\x02\x12\t\n\x05TUPLE\x10\x03\x12\x0c\n\x08TYPE_VAR\x10\x04\x12\x07\n\x03\x41NY\x10\x05\x12\x08\n\x04NONE\x10\x06\x12\x0e\n\nTYPE_ALIAS\x10\x07\x12\x0c\n\x08\x43\x41LLABLE\x10\x08\x12\x0b\n\x07LITERAL\x10\t\x12\x0f\n\x0bUNINHABITED\x10\n\x12\x0b\n\x07UNBOUND\x10\x0b\x12\x0e\n\nTYPED_DICT\x10\x0c\x42\x30\n\x1forg.sonar.python.types.protobufB\rSymbolsProtosb\x06proto3')
+
+_globals = globals()
+_builder.BuildMessageAndEnumDescriptors(DESCRIPTOR, _globals)
+_builder.BuildTopDescriptorsAndMessages(DESCRIPTOR, 'symbols_pb2', _globals)
+if _descriptor._USE_C_DESCRIPTORS == False:
+  _globals['DESCRIPTOR']._options = None
+  _globals['DESCRIPTOR']._serialized_options = b'\n\037org.sonar.python.types.protobufB\rSymbolsProtos'
+  _globals['_PARAMETERKIND']._serialized_start=1719
+  _globals['_PARAMETERKIND']._serialized_end=1837
+  _globals['_TYPEKIND']._serialized_start=1840
+  _globals['_TYPEKIND']._serialized_end=2018
+  _globals['_TYPE']._serialized_start=29
+  _globals['_TYPE']._serialized_end=190
+  _globals['_PARAMETERSYMBOL']._serialized_start=193
+  _globals['_PARAMETERSYMBOL']._serialized_end=366
+  _globals['_FUNCTIONSYMBOL']._serialized_start=369
+  _globals['_FUNCTIONSYMBOL']._serialized_end=775
+  _globals['_OVERLOADEDFUNCTIONSYMBOL']._serialized_start=777
+  _globals['_OVERLOADEDFUNCTIONSYMBOL']._serialized_end=902
+  _globals['_CLASSSYMBOL']._serialized_start=905
+  _globals['_CLASSSYMBOL']._serialized_end=1308
+  _globals['_MODULESYMBOL']._serialized_start=1311
+  _globals['_MODULESYMBOL']._serialized_end=1545
+  _globals['_VARSYMBOL']._serialized_start=1548
+  _globals['_VARSYMBOL']._serialized_end=1717
+# @@protoc_insertion_point(module_scope)
@@ -0,0 +1,29 @@
+# -*- coding: utf-8 -*-
+# Generated by the protocol buffer compiler.  DO NOT EDIT!
+# source: tokens.proto
+# Protobuf Python Version: 4.25.1
+"""Generated protocol buffer code."""
+from google.protobuf import descriptor as _descriptor
+from google.protobuf import descriptor_pool as _descriptor_pool
+from google.protobuf import symbol_database as _symbol_database
+from google.protobuf.internal import builder as _builder
+# @@protoc_insertion_point(imports)
+
+_sym_db = _symbol_database.Default()
+
+
+
+
+DESCRIPTOR = _descriptor_pool.Default().AddSerializedFile(b'\n\x0ctokens.proto\x12\tprotoblog\"j\n\x05Token\x12\r\n\x05value\x18\x01 \x01(\t\x12\x11\n\tstartLine\x18\x02 \x01(\x05\x12\x17\n\x0fstartLineOffset\x18\x03 \x01(\x05\x12\x0f\n\x07\x65ndLine\x18\x04 \x01(\x05\x12\x15\n\rendLineOffset\x18\x05 \x01(\x05\"1\n\rFileCpdTokens\x12 \n\x06tokens\x18\x01 \x03(\x0b\x32\x10.protoblog.TokenB1\n\x1forg.sonar.python.types.protobufB\x0e\x43pdTokenProtosb\x06proto3')
+
+_globals = globals()
+_builder.BuildMessageAndEnumDescriptors(DESCRIPTOR, _globals)
+_builder.BuildTopDescriptorsAndMessages(DESCRIPTOR, 'tokens_pb2', _globals)
+if _descriptor._USE_C_DESCRIPTORS == False:
+  _globals['DESCRIPTOR']._options = None
+  _globals['DESCRIPTOR']._serialized_options = b'\n\037org.sonar.python.types.protobufB\016CpdTokenProtos'
+  _globals['_TOKEN']._serialized_start=27
+  _globals['_TOKEN']._serialized_end=133
+  _globals['_FILECPDTOKENS']._serialized_start=135
+  _globals['_FILECPDTOKENS']._serialized_end=184
+# @@protoc_insertion_point(module_scope)
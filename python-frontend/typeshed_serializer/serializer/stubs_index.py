@@ -0,0 +1,50 @@
+#
+# SonarQube Python Plugin
+# Copyright (C) 2011-2024 SonarSource SA
+# mailto:info AT sonarsource DOT com
+#
+# This program is free software; you can redistribute it and/or
+# modify it under the terms of the GNU Lesser General Public
+# License as published by the Free Software Foundation; either
+# version 3 of the License, or (at your option) any later version.
+#
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+# Lesser General Public License for more details.
+#
+# You should have received a copy of the GNU Lesser General Public License
+# along with this program; if not, write to the Free Software Foundation,
+# Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+#
+
+import os
+
+from utils.folder_manager import FolderManager
+
+STUBS_INDEX_FILE_NAME = "stubs.index"
+PROTOBUF_EXTENSION = ".protobuf"
+
+
+def write_stubs_index(output_folder: str = FolderManager.output_folder):
+    """ Lists every serialized stub as '<stub directory>/<module file name>', one per line.
+    The analyzer loads this index once, so that it only looks up the stub resources which actually exist.
+    """
+    entries = []
+    for dir_name in os.listdir(output_folder):
+        dir_path = os.path.join(output_folder, dir_name)
+        if not os.path.isdir(dir_path):
+            continue
+        for file_name in os.listdir(dir_path):
+            if file_name.endswith(PROTOBUF_EXTENSION):
+                entries.append(f"{dir_name}/{file_name[:-len(PROTOBUF_EXTENSION)]}")
+    with open(os.path.join(output_folder, STUBS_INDEX_FILE_NAME), "w", newline="\n") as f:
+        f.writelines(f"{entry}\n" for entry in sorted(entries))
+
+
+def main():
+    write_stubs_index()
+
+
+if __name__ == '__main__':
+    main()
@@ -18,6 +18,7 @@
 # Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
 #
 
+from serializer import stubs_index
 from serializer.serializers import MicrosoftStubsSerializer, TypeshedSerializer, CustomStubsSerializer, ImporterSerializer
 
 
@@ -27,6 +28,7 @@ def main():
     CustomStubsSerializer().serialize()
     ImporterSerializer().serialize()
     MicrosoftStubsSerializer().serialize()
+    stubs_index.write_stubs_index()
 
 
 if __name__ == '__main__':
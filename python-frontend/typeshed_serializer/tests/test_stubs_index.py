@@ -0,0 +1,40 @@
+#
+# SonarQube Python Plugin
+# Copyright (C) 2011-2024 SonarSource SA
+# mailto:info AT sonarsource DOT com
+#
+# This program is free software; you can redistribute it and/or
+# modify it under the terms of the GNU Lesser General Public
+# License as published by the Free Software Foundation; either
+# version 3 of the License, or (at your option) any later version.
+#
+# This program is distributed in the hope that it will be useful,
+# but WITHOUT ANY WARRANTY; without even the implied warranty of
+# MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+# Lesser General Public License for more details.
+#
+# You should have received a copy of the GNU Lesser General Public License
+# along with this program; if not, write to the Free Software Foundation,
+# Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+#
+
+import os
+
+from serializer import stubs_index
+
+
+def test_write_stubs_index(tmp_path):
+    os.makedirs(tmp_path / "stdlib_protobuf")
+    os.makedirs(tmp_path / "third_party_protobuf")
+    (tmp_path / "stdlib_protobuf" / "os.path.protobuf").write_bytes(b"")
+    (tmp_path / "stdlib_protobuf" / "2@ConfigParser.protobuf").write_bytes(b"")
+    (tmp_path / "third_party_protobuf" / "os.path.protobuf").write_bytes(b"")
+    (tmp_path / "third_party_protobuf" / "README").write_text("")
+    (tmp_path / "LICENSE").write_text("")
+    stubs_index.write_stubs_index(str(tmp_path))
+    with open(tmp_path / stubs_index.STUBS_INDEX_FILE_NAME) as f:
+        assert f.read().splitlines() == [
+            "stdlib_protobuf/2@ConfigParser",
+            "stdlib_protobuf/os.path",
+            "third_party_protobuf/os.path",
+        ]
@@ -20,7 +20,7 @@
 
 from unittest.mock import Mock
 
-from serializer import typeshed_serializer
+from serializer import typeshed_serializer, stubs_index
 
 from serializer.serializers import CustomStubsSerializer, MicrosoftStubsSerializer, TypeshedSerializer, ImporterSerializer
 
@@ -30,8 +30,10 @@ def test_typeshed_serializer():
     CustomStubsSerializer.serialize = Mock()
     ImporterSerializer.serialize = Mock()
     MicrosoftStubsSerializer.serialize = Mock()
+    stubs_index.write_stubs_index = Mock()
     typeshed_serializer.main()
     assert TypeshedSerializer.serialize_merged_modules.call_count == 2
     assert CustomStubsSerializer.serialize.call_count == 1
     assert ImporterSerializer.serialize.call_count == 1
     assert MicrosoftStubsSerializer.serialize.call_count == 1
+    assert stubs_index.write_stubs_index.call_count == 1
@@ -0,0 +1,85 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.python.profiling.AnalysisProfiler;
+
+/**
+ * Writes the measures recorded by an {@link AnalysisProfiler} as a JSON report.
+ */
+public class AnalysisProfileReport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisProfileReport.class);
+
+  private AnalysisProfileReport() {
+  }
+
+  public static void write(AnalysisProfiler profiler, Path destination) {
+    try {
+      Path parent = destination.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (Writer writer = Files.newBufferedWriter(destination, StandardCharsets.UTF_8);
+        JsonGenerator generator = new JsonFactory().createGenerator(writer)) {
+        generator.useDefaultPrettyPrinter();
+        generator.writeStartObject();
+        writeMeasurements(generator, "phases", profiler.phases());
+        writeMeasurements(generator, "checks", profiler.checks());
+        generator.writeArrayFieldStart("slowestFiles");
+        for (AnalysisProfiler.FileMeasurement file : profiler.slowestFiles()) {
+          generator.writeStartObject();
+          generator.writeStringField("file", file.file());
+          generator.writeNumberField("wallNanos", file.wallNanos());
+          generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      LOG.info("Analysis profile report written to {}", destination);
+    } catch (IOException e) {
+      LOG.error("Can't write analysis profile report to {}", destination, e);
+    }
+  }
+
+  private static void writeMeasurements(JsonGenerator generator, String fieldName, List<AnalysisProfiler.Measurement> measurements) throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (AnalysisProfiler.Measurement measurement : measurements) {
+      generator.writeStartObject();
+      generator.writeStringField("name", measurement.name());
+      generator.writeNumberField("count", measurement.count());
+      generator.writeNumberField("wallNanos", measurement.wallNanos());
+      generator.writeNumberField("cpuNanos", measurement.cpuNanos());
+      generator.writeNumberField("allocatedBytes", measurement.allocatedBytes());
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+}
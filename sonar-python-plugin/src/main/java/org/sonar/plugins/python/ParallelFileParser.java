@@ -0,0 +1,116 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.sonar.python.parser.PythonParser;
+
+/**
+ * Parses files ahead of the scanner on a pool of worker threads, and computes from each tree the result {@code T} consumed by the scanner.
+ * Lexing, parsing and tree making do not depend on any shared mutable state, so they can safely run concurrently, while
+ * the scanner still consumes the results on its own thread, one file at a time and in the original order.
+ * At most {@code lookahead} files are parsed in advance, to bound the number of results kept in memory.
+ */
+public class ParallelFileParser<T> implements AutoCloseable {
+
+  @FunctionalInterface
+  public interface FileParser<T> {
+    T parse(PythonParser parser, PythonInputFile inputFile) throws IOException;
+  }
+
+  private final ExecutorService executor;
+  private final ThreadLocal<PythonParser> parsers;
+  private final FileParser<T> fileParser;
+  private final int lookahead;
+  private final Map<PythonInputFile, Future<T>> inFlight = new HashMap<>();
+  private Iterator<PythonInputFile> pending;
+
+  public ParallelFileParser(int threads, Supplier<PythonParser> parserFactory, FileParser<T> fileParser) {
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "sonar-python-parser-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.parsers = ThreadLocal.withInitial(parserFactory);
+    this.fileParser = fileParser;
+    this.lookahead = threads * 2;
+  }
+
+  /**
+   * Schedules the given files for parsing, in the order in which they will be requested through {@link #parse}.
+   */
+  void schedule(List<PythonInputFile> files) {
+    pending = files.iterator();
+    fill();
+  }
+
+  /**
+   * Returns the result of a scheduled file, waiting for its parsing to complete if needed.
+   * Returns {@code null} if the file has not been scheduled: it should then be parsed by the caller.
+   */
+  T parse(PythonInputFile inputFile) throws IOException {
+    Future<T> future = inFlight.remove(inputFile);
+    fill();
+    if (future == null) {
+      return null;
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while parsing " + inputFile, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IllegalStateException("Unable to parse " + inputFile, cause);
+    }
+  }
+
+  private void fill() {
+    while (pending != null && pending.hasNext() && inFlight.size() < lookahead) {
+      PythonInputFile next = pending.next();
+      inFlight.put(next, executor.submit(() -> fileParser.parse(parsers.get(), next)));
+    }
+  }
+
+  @Override
+  public void close() {
+    pending = null;
+    inFlight.values().forEach(future -> future.cancel(true));
+    inFlight.clear();
+    executor.shutdownNow();
+  }
+}
@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,13 +67,15 @@ import org.sonar.python.SubscriptionVisitor;
 import org.sonar.python.metrics.FileLinesVisitor;
 import org.sonar.python.metrics.FileMetrics;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.tree.IPythonTreeMaker;
 import org.sonar.python.tree.PythonTreeMaker;
 
-public class PythonScanner extends Scanner {
+public class PythonScanner extends Scanner<FileInput> {
 
   private static final Logger LOG = LoggerFactory.getLogger(PythonScanner.class);
 
+  private final Supplier<PythonParser> parserFactory;
   private final PythonParser parser;
   private final PythonChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
@@ -83,13 +86,14 @@ public class PythonScanner extends Scanner {
 
   public PythonScanner(
     SensorContext context, PythonChecks checks,
-    FileLinesContextFactory fileLinesContextFactory, NoSonarFilter noSonarFilter, PythonParser parser, PythonIndexer indexer) {
+    FileLinesContextFactory fileLinesContextFactory, NoSonarFilter noSonarFilter, Supplier<PythonParser> parserFactory, PythonIndexer indexer) {
     super(context);
     this.checks = checks;
     this.fileLinesContextFactory = fileLinesContextFactory;
     this.noSonarFilter = noSonarFilter;
     this.cpdAnalyzer = new PythonCpdAnalyzer(context);
-    this.parser = parser;
+    this.parserFactory = parserFactory;
+    this.parser = parserFactory.get();
     this.indexer = indexer;
     this.indexer.buildOnce(context);
   }
@@ -99,26 +103,49 @@ public class PythonScanner extends Scanner {
     return "rules execution";
   }
 
+  @Override
+  protected ParallelFileParser<FileInput> createParallelFileParser(int threads) {
+    return new ParallelFileParser<>(threads, parserFactory, this::parse);
+  }
+
+  @Override
+  public void execute(List<PythonInputFile> files, SensorContext context) {
+    try {
+      super.execute(files, context);
+    } finally {
+      // Trees which have not been reused, for instance for files scanned without parsing, are not needed anymore
+      indexer.parseTreeCache().clear();
+    }
+  }
+
   @Override
   protected void scanFile(PythonInputFile inputFile) throws IOException {
+    AnalysisProfiler.Measure fileMeasure = AnalysisProfiler.startFile(inputFile.toString());
+    try {
+      analyzeFile(inputFile);
+    } finally {
+      fileMeasure.stop();
+    }
+  }
+
+  private void analyzeFile(PythonInputFile inputFile) throws IOException {
     PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
     PythonVisitorContext visitorContext;
     InputFile.Type fileType = inputFile.wrappedFile().type();
     try {
-      AstNode astNode = parser.parse(inputFile.contents());
-      PythonTreeMaker treeMaker = getTreeMaker(inputFile);
-      FileInput parse = treeMaker.fileInput(astNode);
+      FileInput parse = parsedAhead(inputFile);
+      if (parse == null) {
+        parse = parse(parser, inputFile);
+      }
       visitorContext = new PythonVisitorContext(parse,
         pythonFile,
         getWorkingDirectory(context),
         indexer.packageName(inputFile),
         indexer.projectLevelSymbolTable(),
-        indexer.typeShed(),
+        indexer.projectLevelTypeTable(),
         indexer.cacheContext(),
         context.runtime().getProduct());
-      if (fileType == InputFile.Type.MAIN) {
-        saveMeasures(inputFile, visitorContext);
-      }
+      scanTokensIsolated(inputFile, visitorContext);
     } catch (RecognitionException e) {
       visitorContext = new PythonVisitorContext(pythonFile, e, context.runtime().getProduct());
 
@@ -133,6 +160,7 @@ public class PythonScanner extends Scanner {
         .message(newMessage)
         .save();
     }
+    AnalysisProfiler.Measure rulesMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_RULES);
     List<PythonSubscriptionCheck> checksBasedOnTree = new ArrayList<>();
     for (PythonCheck check : checks.all()) {
       if (!isCheckApplicable(check, fileType)
@@ -142,16 +170,33 @@ public class PythonScanner extends Scanner {
       if (check instanceof PythonSubscriptionCheck pythonSubscriptionCheck) {
         checksBasedOnTree.add(pythonSubscriptionCheck);
       } else {
+        AnalysisProfiler.Measure checkMeasure = AnalysisProfiler.startCheck(check.getClass().getName());
         check.scanFile(visitorContext);
+        checkMeasure.stop();
       }
     }
     SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext);
+    rulesMeasure.stop();
+    AnalysisProfiler.Measure issuesMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_ISSUES);
     saveIssues(inputFile, visitorContext.getIssues());
+    issuesMeasure.stop();
+  }
 
-    if (visitorContext.rootTree() != null && !isInSonarLint(context)) {
-      new SymbolVisitor(context.newSymbolTable().onFile(inputFile.wrappedFile())).visitFileInput(visitorContext.rootTree());
-      new PythonHighlighter(context, inputFile).scanFile(visitorContext);
+  private FileInput parse(PythonParser parser, PythonInputFile inputFile) throws IOException {
+    String contents = inputFile.contents();
+    AstNode astNode = null;
+    if (inputFile.kind() == PythonInputFile.Kind.PYTHON && Python.KEY.equals(inputFile.wrappedFile().language())) {
+      astNode = indexer.parseTreeCache().take(inputFile, contents);
+    }
+    if (astNode == null) {
+      AnalysisProfiler.Measure parsingMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_PARSING);
+      astNode = parser.parse(contents);
+      parsingMeasure.stop();
     }
+    AnalysisProfiler.Measure treeMakingMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_TREE_MAKING);
+    FileInput fileInput = getTreeMaker(inputFile).fileInputReleasingAstNodes(astNode);
+    treeMakingMeasure.stop();
+    return fileInput;
   }
 
   private static PythonTreeMaker getTreeMaker(PythonInputFile inputFile) {
@@ -313,19 +358,51 @@ public class PythonScanner extends Scanner {
     return newLocation;
   }
 
-  private void saveMeasures(PythonInputFile inputFile, PythonVisitorContext visitorContext) {
-    FileMetrics fileMetrics = new FileMetrics(visitorContext, isNotebook(inputFile));
+  private void scanTokensIsolated(PythonInputFile inputFile, PythonVisitorContext visitorContext) {
+    try {
+      scanTokens(inputFile, visitorContext);
+    } catch (RuntimeException e) {
+      // The rules are still executed and their issues reported if the tokens of the file could not be processed.
+      LOG.warn("Unable to compute the measures, highlighting, symbols and duplications of file: " + inputFile, e);
+    }
+  }
+
+  /**
+   * Line metrics, NOSONAR lines, CPD tokens, symbol references and highlighting are all fed by the same walk over the tree,
+   * so that the tokens of the file are iterated only once.
+   */
+  private void scanTokens(PythonInputFile inputFile, PythonVisitorContext visitorContext) {
+    boolean isMainFile = inputFile.wrappedFile().type() == InputFile.Type.MAIN;
+    List<PythonSubscriptionCheck> tokenVisitors = new ArrayList<>();
+    FileLinesVisitor fileLinesVisitor = new FileLinesVisitor(isNotebook(inputFile));
+    if (isMainFile) {
+      tokenVisitors.add(fileLinesVisitor);
+    }
+    if (!isInSonarLint(context)) {
+      if (isMainFile && inputFile.kind() == PythonInputFile.Kind.PYTHON) {
+        tokenVisitors.add(cpdAnalyzer.cpdTokensVisitor(inputFile.wrappedFile(), visitorContext));
+      }
+      tokenVisitors.add(new SymbolVisitor(context.newSymbolTable().onFile(inputFile.wrappedFile())));
+      tokenVisitors.add(new PythonHighlighter(context, inputFile));
+    }
+    AnalysisProfiler.Measure tokenVisitorsMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_TOKEN_VISITORS);
+    SubscriptionVisitor.analyze(tokenVisitors, visitorContext);
+    tokenVisitorsMeasure.stop();
+    if (isMainFile) {
+      AnalysisProfiler.Measure metricsMeasure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_COMPLEXITY_METRICS);
+      FileMetrics fileMetrics = new FileMetrics(visitorContext, fileLinesVisitor);
+      metricsMeasure.stop();
+      saveMeasures(inputFile, fileMetrics);
+    }
+  }
+
+  private void saveMeasures(PythonInputFile inputFile, FileMetrics fileMetrics) {
     FileLinesVisitor fileLinesVisitor = fileMetrics.fileLinesVisitor();
 
     noSonarFilter.noSonarInFile(inputFile.wrappedFile(), fileLinesVisitor.getLinesWithNoSonar());
 
     if (!isInSonarLint(context)) {
-      if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
-        cpdAnalyzer.pushCpdTokens(inputFile.wrappedFile(), visitorContext);
-      }
-
-      Set<Integer> linesOfCode = fileLinesVisitor.getLinesOfCode();
-      saveMetricOnFile(inputFile, CoreMetrics.NCLOC, linesOfCode.size());
+      saveMetricOnFile(inputFile, CoreMetrics.NCLOC, fileLinesVisitor.getLinesOfCodeCount());
       saveMetricOnFile(inputFile, CoreMetrics.STATEMENTS, fileMetrics.numberOfStatements());
       saveMetricOnFile(inputFile, CoreMetrics.FUNCTIONS, fileMetrics.numberOfFunctions());
       saveMetricOnFile(inputFile, CoreMetrics.CLASSES, fileMetrics.numberOfClasses());
@@ -335,7 +412,7 @@ public class PythonScanner extends Scanner {
 
       FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(inputFile.wrappedFile());
       if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
-        for (int line : linesOfCode) {
+        for (int line : fileLinesVisitor.getLinesOfCode()) {
           fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, 1);
         }
       }
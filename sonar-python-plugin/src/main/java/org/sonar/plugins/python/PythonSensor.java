@@ -20,10 +20,12 @@
 package org.sonar.plugins.python;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +50,7 @@ import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.checks.CheckList;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.types.TypeShed;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 
@@ -59,6 +62,9 @@ public final class PythonSensor implements Sensor {
   private static final String PERFORMANCE_MEASURE_PROPERTY = "sonar.python.performance.measure";
   private static final String PERFORMANCE_MEASURE_FILE_PATH_PROPERTY = "sonar.python.performance.measure.path";
   private static final String PERFORMANCE_MEASURE_DESTINATION_FILE = "sonar-python-performance-measure.json";
+  private static final String PERFORMANCE_PROFILE_PROPERTY = "sonar.python.performance.profile";
+  private static final String PERFORMANCE_PROFILE_DESTINATION_FILE = "sonar-python-performance-profile.json";
+  private static final int PERFORMANCE_PROFILE_SLOWEST_FILES = 20;
 
   private final PythonChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
@@ -115,6 +121,23 @@ public final class PythonSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     PerformanceMeasure.Duration durationReport = createPerformanceMeasureReport(context);
+    AnalysisProfiler profiler = context.config().getBoolean(PERFORMANCE_PROFILE_PROPERTY).orElse(Boolean.FALSE)
+      ? AnalysisProfiler.activate(PERFORMANCE_PROFILE_SLOWEST_FILES)
+      : null;
+    try {
+      analyze(context);
+    } finally {
+      if (profiler != null) {
+        AnalysisProfiler.deactivate();
+        Path profilePath = performanceProfileFilePath(context);
+        LOG.debug("Writing the analysis profile to \"{}\"", profilePath);
+        AnalysisProfileReport.write(profiler, profilePath);
+      }
+    }
+    durationReport.stop();
+  }
+
+  private void analyze(SensorContext context) {
     List<PythonInputFile> pythonFiles = getInputFiles(context);
     String[] pythonVersionParameter = context.config().getStringArray(PYTHON_VERSION_KEY);
     if (pythonVersionParameter.length == 0 && context.runtime().getProduct() != SonarProduct.SONARLINT) {
@@ -128,9 +151,8 @@ public final class PythonSensor implements Sensor {
     PythonIndexer pythonIndexer = this.indexer != null ? this.indexer : new SonarQubePythonIndexer(pythonFiles, cacheContext, context);
     pythonIndexer.setSonarLintCache(sonarLintCache);
     TypeShed.setProjectLevelSymbolTable(pythonIndexer.projectLevelSymbolTable());
-    PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser.create(), pythonIndexer);
+    PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser::create, pythonIndexer);
     scanner.execute(pythonFiles, context);
-    durationReport.stop();
   }
 
   private static List<PythonInputFile> getInputFiles(SensorContext context) {
@@ -144,13 +166,29 @@ public final class PythonSensor implements Sensor {
   private static PerformanceMeasure.Duration createPerformanceMeasureReport(SensorContext context) {
     return PerformanceMeasure.reportBuilder()
       .activate(context.config().getBoolean(PERFORMANCE_MEASURE_PROPERTY).orElse(Boolean.FALSE))
-      .toFile(context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
-        .filter(path -> !path.isEmpty())
-        .orElseGet(() -> Optional.ofNullable(context.fileSystem().workDir())
-          .filter(File::exists)
-          .map(file -> file.toPath().resolve(PERFORMANCE_MEASURE_DESTINATION_FILE).toString())
-          .orElse(null)))
+      .toFile(performanceMeasureFilePath(context))
       .appendMeasurementCost()
       .start("PythonSensor");
   }
+
+  /**
+   * The profile is written next to the performance measures, or in the project base directory when they have no location.
+   */
+  private static Path performanceProfileFilePath(SensorContext context) {
+    String performanceMeasureFilePath = performanceMeasureFilePath(context);
+    if (performanceMeasureFilePath == null) {
+      return context.fileSystem().baseDir().toPath().resolve(PERFORMANCE_PROFILE_DESTINATION_FILE);
+    }
+    return Path.of(performanceMeasureFilePath).resolveSibling(PERFORMANCE_PROFILE_DESTINATION_FILE);
+  }
+
+  @CheckForNull
+  private static String performanceMeasureFilePath(SensorContext context) {
+    return context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
+      .filter(path -> !path.isEmpty())
+      .orElseGet(() -> Optional.ofNullable(context.fileSystem().workDir())
+        .filter(File::exists)
+        .map(file -> file.toPath().resolve(PERFORMANCE_MEASURE_DESTINATION_FILE).toString())
+        .orElse(null));
+  }
 }
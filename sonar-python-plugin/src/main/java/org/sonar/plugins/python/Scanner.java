@@ -23,22 +23,45 @@ import com.sonar.sslr.api.RecognitionException;
 import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonarsource.analyzer.commons.ProgressReport;
 
-public abstract class Scanner {
+/**
+ * @param <T> result of the parsing of a file when files are parsed ahead of their scan, see {@link #createParallelFileParser(int)}
+ */
+public abstract class Scanner<T> {
   private static final Logger LOG = LoggerFactory.getLogger(Scanner.class);
   private static final String FAIL_FAST_PROPERTY_NAME = "sonar.internal.analysis.failFast";
+  public static final String ANALYSIS_THREADS_PROPERTY = "sonar.python.analysis.threads";
   protected final SensorContext context;
+  private ParallelFileParser<T> parallelFileParser = null;
 
   protected Scanner(SensorContext context) {
     this.context = context;
   }
 
   public void execute(List<PythonInputFile> files, SensorContext context) {
+    int threads = context.config().getInt(ANALYSIS_THREADS_PROPERTY).orElse(1);
+    ParallelFileParser<T> fileParser = threads > 1 ? createParallelFileParser(threads) : null;
+    if (fileParser == null) {
+      scanFiles(files, context);
+      return;
+    }
+    LOG.debug("Parsing files using {} threads", threads);
+    try (fileParser) {
+      parallelFileParser = fileParser;
+      fileParser.schedule(files.stream().filter(this::canBeParsedAhead).toList());
+      scanFiles(files, context);
+    } finally {
+      parallelFileParser = null;
+    }
+  }
+
+  private void scanFiles(List<PythonInputFile> files, SensorContext context) {
     ProgressReport progressReport = new ProgressReport(this.name() + " progress", TimeUnit.SECONDS.toMillis(10));
     String name = this.name();
     LOG.info("Starting {}", name);
@@ -87,6 +110,30 @@ public abstract class Scanner {
     // no op
   }
 
+  /**
+   * Returns a parser which parses files ahead of their scan on the given number of threads,
+   * or null if this scanner parses files on demand only.
+   */
+  @CheckForNull
+  protected ParallelFileParser<T> createParallelFileParser(int threads) {
+    return null;
+  }
+
+  /**
+   * Files which may be scanned without parsing are parsed on demand, to avoid parsing them needlessly.
+   */
+  protected boolean canBeParsedAhead(PythonInputFile file) {
+    return !canBeScannedWithoutParsing(file);
+  }
+
+  /**
+   * Returns the result of a file which has been parsed ahead, or null if it should be parsed by the caller.
+   */
+  @CheckForNull
+  protected T parsedAhead(PythonInputFile file) throws IOException {
+    return parallelFileParser != null ? parallelFileParser.parse(file) : null;
+  }
+
   protected abstract void processException(Exception e, PythonInputFile file);
 
   protected void reportStatistics(int numSkippedFiles, int numTotalFiles) {
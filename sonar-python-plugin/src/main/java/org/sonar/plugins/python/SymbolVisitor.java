@@ -20,13 +20,15 @@
 package org.sonar.plugins.python;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.ComprehensionExpression;
 import org.sonar.plugins.python.api.tree.DictCompExpression;
@@ -34,8 +36,9 @@ import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.LambdaExpression;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.SubscriptionVisitor;
 
-public class SymbolVisitor extends BaseTreeVisitor {
+public class SymbolVisitor extends PythonSubscriptionCheck {
 
   private final NewSymbolTable newSymbolTable;
 
@@ -44,40 +47,28 @@ public class SymbolVisitor extends BaseTreeVisitor {
   }
 
   @Override
-  public void visitClassDef(ClassDef classDef) {
-    classDef.classFields().forEach(this::handleSymbol);
-    classDef.instanceFields().forEach(this::handleSymbol);
-    super.visitClassDef(classDef);
+  public void scanFile(PythonVisitorContext visitorContext) {
+    SubscriptionVisitor.analyze(Collections.singletonList(this), visitorContext);
   }
 
   @Override
-  public void visitFunctionDef(FunctionDef functionDef) {
-    functionDef.localVariables().forEach(this::handleSymbol);
-    super.visitFunctionDef(functionDef);
-  }
-
-  @Override
-  public void visitLambda(LambdaExpression lambdaExpression) {
-    lambdaExpression.localVariables().forEach(this::handleSymbol);
-    super.visitLambda(lambdaExpression);
-  }
-
-  @Override
-  public void visitPyListOrSetCompExpression(ComprehensionExpression tree) {
-    tree.localVariables().forEach(this::handleSymbol);
-    super.visitPyListOrSetCompExpression(tree);
-  }
-
-  @Override
-  public void visitDictCompExpression(DictCompExpression tree) {
-    tree.localVariables().forEach(this::handleSymbol);
-    super.visitDictCompExpression(tree);
+  public void initialize(Context context) {
+    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> ((FileInput) ctx.syntaxNode()).globalVariables().forEach(this::handleSymbol));
+    context.registerSyntaxNodeConsumer(Tree.Kind.CLASSDEF, ctx -> {
+      ClassDef classDef = (ClassDef) ctx.syntaxNode();
+      classDef.classFields().forEach(this::handleSymbol);
+      classDef.instanceFields().forEach(this::handleSymbol);
+    });
+    context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> ((FunctionDef) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    context.registerSyntaxNodeConsumer(Tree.Kind.LAMBDA, ctx -> ((LambdaExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    for (Tree.Kind kind : List.of(Tree.Kind.LIST_COMPREHENSION, Tree.Kind.SET_COMPREHENSION, Tree.Kind.GENERATOR_EXPR)) {
+      context.registerSyntaxNodeConsumer(kind, ctx -> ((ComprehensionExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    }
+    context.registerSyntaxNodeConsumer(Tree.Kind.DICT_COMPREHENSION, ctx -> ((DictCompExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
   }
 
   @Override
-  public void visitFileInput(FileInput fileInput) {
-    fileInput.globalVariables().forEach(this::handleSymbol);
-    super.visitFileInput(fileInput);
+  public void leaveFile() {
     newSymbolTable.save();
   }
 
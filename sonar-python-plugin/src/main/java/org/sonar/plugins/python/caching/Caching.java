@@ -52,6 +52,7 @@ public class Caching {
   private static final Logger LOG = LoggerFactory.getLogger(Caching.class);
 
   public final String cacheVersion;
+  private Boolean cacheVersionUpToDate;
 
   public Caching(CacheContext cacheContext, String cacheVersion) {
     this.cacheContext = cacheContext;
@@ -141,7 +142,17 @@ public class Caching {
     return Collections.emptySet();
   }
 
+  /**
+   * The version of the previous cache is only checked, and logged, once per analysis.
+   */
   public boolean isCacheVersionUpToDate() {
+    if (cacheVersionUpToDate == null) {
+      cacheVersionUpToDate = checkCacheVersion();
+    }
+    return cacheVersionUpToDate;
+  }
+
+  private boolean checkCacheVersion() {
     byte[] bytes = cacheContext.getReadCache().readBytes(CACHE_VERSION_KEY);
     if (bytes != null) {
       String retrievedVersion = new String(bytes, StandardCharsets.UTF_8);
@@ -22,21 +22,22 @@ package org.sonar.plugins.python.cpd;
 import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.TokenType;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.cpd.NewCpdTokens;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.python.SubscriptionVisitor;
 import org.sonar.python.TokenLocation;
 import org.sonar.python.api.PythonTokenType;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.caching.CpdSerializer;
-import org.sonar.python.tree.TreeUtils;
 
 import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_CACHE_KEY_PREFIX;
 import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_STRING_TABLE_KEY_PREFIX;
@@ -52,27 +53,92 @@ public class PythonCpdAnalyzer {
   }
 
   public void pushCpdTokens(InputFile inputFile, PythonVisitorContext visitorContext) {
-    Tree root = visitorContext.rootTree();
-    if (root != null) {
-      NewCpdTokens cpdTokens = context.newCpdTokens().onFile(inputFile);
-      List<Token> tokens = TreeUtils.tokens(root);
-      List<Token> tokensToCache = new ArrayList<>();
-      for (int i = 0; i < tokens.size(); i++) {
-        Token token = tokens.get(i);
-        TokenType currentTokenType = token.type();
-        TokenType nextTokenType = i + 1 < tokens.size() ? tokens.get(i + 1).type() : GenericTokenType.EOF;
-        // INDENT/DEDENT could not be completely ignored during CPD see https://docs.python.org/3/reference/lexical_analysis.html#indentation
-        // Just taking into account DEDENT is enough, but because the DEDENT token has an empty value, it's the
-        // preceding new line which is added in its place to create a difference
-        if (isNewLineWithIndentationChange(currentTokenType, nextTokenType) || !isIgnoredType(currentTokenType)) {
-          TokenLocation location = new TokenLocation(token);
-          cpdTokens.addToken(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), token.value());
-          tokensToCache.add(token);
+    SubscriptionVisitor.analyze(List.of(cpdTokensVisitor(inputFile, visitorContext)), visitorContext);
+  }
+
+  /**
+   * Returns a visitor which pushes the CPD tokens of the file, and saves them to the cache, as tokens are visited.
+   * It is meant to be run along with the other visitors of the same file, so that tokens are iterated only once.
+   */
+  public PythonSubscriptionCheck cpdTokensVisitor(InputFile inputFile, PythonVisitorContext visitorContext) {
+    return new CpdTokensVisitor(context.newCpdTokens().onFile(inputFile), visitorContext);
+  }
+
+  private static class CpdTokensVisitor extends PythonSubscriptionCheck {
+
+    private final NewCpdTokens cpdTokens;
+    private final PythonVisitorContext visitorContext;
+    @Nullable
+    private CpdSerializer.Serializer serializer;
+    // a token is only pushed once the next one is known, to detect the new lines followed by a DEDENT
+    @Nullable
+    private Token previousToken = null;
+
+    private CpdTokensVisitor(NewCpdTokens cpdTokens, PythonVisitorContext visitorContext) {
+      this.cpdTokens = cpdTokens;
+      this.visitorContext = visitorContext;
+      this.serializer = visitorContext.cacheContext().isCacheEnabled() ? CpdSerializer.serializer() : null;
+    }
+
+    @Override
+    public void initialize(Context context) {
+      context.registerSyntaxNodeConsumer(Tree.Kind.TOKEN, ctx -> {
+        Token token = (Token) ctx.syntaxNode();
+        if (previousToken != null) {
+          pushToken(previousToken, token.type());
         }
+        previousToken = token;
+      });
+    }
+
+    private void pushToken(Token token, TokenType nextTokenType) {
+      TokenType currentTokenType = token.type();
+      // INDENT/DEDENT could not be completely ignored during CPD see https://docs.python.org/3/reference/lexical_analysis.html#indentation
+      // Just taking into account DEDENT is enough, but because the DEDENT token has an empty value, it's the
+      // preceding new line which is added in its place to create a difference
+      if (isNewLineWithIndentationChange(currentTokenType, nextTokenType) || !isIgnoredType(currentTokenType)) {
+        TokenLocation location = new TokenLocation(token);
+        cpdTokens.addToken(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), token.value());
+        writeToCache(location, token.value());
+      }
+    }
+
+    private void writeToCache(TokenLocation location, String value) {
+      if (serializer == null) {
+        return;
+      }
+      try {
+        serializer.write(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), value);
+      } catch (IOException e) {
+        LOG.warn("Could not write CPD tokens to cache ({}: {})", e.getClass().getSimpleName(), e.getMessage());
+        serializer = null;
       }
-      saveTokensToCache(visitorContext, tokensToCache);
+    }
+
+    @Override
+    public void leaveFile() {
+      if (previousToken != null) {
+        pushToken(previousToken, GenericTokenType.EOF);
+      }
+      saveTokensToCache();
       cpdTokens.save();
     }
+
+    private void saveTokensToCache() {
+      if (serializer == null) {
+        return;
+      }
+      try {
+        String fileKey = visitorContext.pythonFile().key();
+
+        CpdSerializer.SerializationResult result = serializer.finish();
+        CacheContext cacheContext = visitorContext.cacheContext();
+        cacheContext.getWriteCache().write(stringTableCacheKey(fileKey), result.stringTable);
+        cacheContext.getWriteCache().write(dataCacheKey(fileKey), result.data);
+      } catch (Exception e) {
+        LOG.warn("Could not write CPD tokens to cache ({}: {})", e.getClass().getSimpleName(), e.getMessage());
+      }
+    }
   }
 
   public boolean pushCachedCpdTokens(InputFile inputFile, CacheContext cacheContext) {
@@ -101,23 +167,6 @@ public class PythonCpdAnalyzer {
     return false;
   }
 
-  private static void saveTokensToCache(PythonVisitorContext visitorContext, List<Token> tokensToCache) {
-    CacheContext cacheContext = visitorContext.cacheContext();
-    if (!cacheContext.isCacheEnabled()) {
-      return;
-    }
-
-    try {
-      String fileKey = visitorContext.pythonFile().key();
-
-      CpdSerializer.SerializationResult result = CpdSerializer.serialize(tokensToCache);
-      cacheContext.getWriteCache().write(stringTableCacheKey(fileKey), result.stringTable);
-      cacheContext.getWriteCache().write(dataCacheKey(fileKey), result.data);
-    } catch (Exception e) {
-      LOG.warn("Could not write CPD tokens to cache ({}: {})", e.getClass().getSimpleName(), e.getMessage());
-    }
-  }
-
   private static boolean isNewLineWithIndentationChange(TokenType currentTokenType, TokenType nextTokenType) {
     return currentTokenType.equals(PythonTokenType.NEWLINE) && nextTokenType.equals(PythonTokenType.DEDENT);
   }
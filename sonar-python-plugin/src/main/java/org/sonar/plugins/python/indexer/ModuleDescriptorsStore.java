@@ -0,0 +1,179 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleDescriptors;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+
+/**
+ * Persists the descriptors of project modules on disk, so that they can be loaded instead of being recomputed when the project is opened again.
+ * <p>
+ * There is one entry per file. An entry is only used if it has been written by the same version of the analyzer, for the same module name
+ * and for the same file contents: otherwise, the module has to be parsed again.
+ */
+public class ModuleDescriptorsStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ModuleDescriptorsStore.class);
+
+  private final Path directory;
+  private final String version;
+
+  public ModuleDescriptorsStore(Path directory, String version) {
+    this.directory = directory;
+    this.version = version;
+  }
+
+  @CheckForNull
+  public ModuleDescriptors read(PythonInputFile inputFile, String fullyQualifiedModuleName) {
+    String uri = inputFile.wrappedFile().uri().toString();
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(entryPath(uri))))) {
+      if (!version.equals(input.readUTF()) || !uri.equals(input.readUTF()) || !fullyQualifiedModuleName.equals(input.readUTF())
+        || !contentHash(inputFile).equals(input.readUTF())) {
+        return null;
+      }
+      Set<String> importedModulesFQN = readStrings(input);
+      Set<String> djangoViewsFQN = readStrings(input);
+      byte[] descriptorBytes = new byte[input.readInt()];
+      input.readFully(descriptorBytes);
+      Set<Descriptor> descriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(descriptorBytes));
+      return new ModuleDescriptors(fullyQualifiedModuleName, descriptors, importedModulesFQN, djangoViewsFQN);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      LOG.debug("Failed to read the stored descriptors of module \"{}\"", fullyQualifiedModuleName);
+      return null;
+    }
+  }
+
+  public void write(PythonInputFile inputFile, ModuleDescriptors moduleDescriptors) {
+    String uri = inputFile.wrappedFile().uri().toString();
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream output = new DataOutputStream(bytes)) {
+        output.writeUTF(version);
+        output.writeUTF(uri);
+        output.writeUTF(moduleDescriptors.fullyQualifiedModuleName());
+        output.writeUTF(contentHash(inputFile));
+        writeStrings(output, moduleDescriptors.importedModulesFQN());
+        writeStrings(output, moduleDescriptors.djangoViewsFQN());
+        byte[] descriptorBytes = toProtobufModuleDescriptor(moduleDescriptors.descriptors()).toByteArray();
+        output.writeInt(descriptorBytes.length);
+        output.write(descriptorBytes);
+      }
+      Files.createDirectories(directory);
+      // entries are written in a temporary file first, so that a partially written entry is never read
+      Path temporaryFile = Files.createTempFile(directory, "module", ".tmp");
+      Files.write(temporaryFile, bytes.toByteArray());
+      Files.move(temporaryFile, entryPath(uri), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOG.debug("Failed to store the descriptors of module \"{}\"", moduleDescriptors.fullyQualifiedModuleName());
+    }
+  }
+
+  public void delete(PythonInputFile inputFile) {
+    try {
+      Files.deleteIfExists(entryPath(inputFile.wrappedFile().uri().toString()));
+    } catch (IOException e) {
+      LOG.debug("Failed to delete the stored descriptors of file \"{}\"", inputFile);
+    }
+  }
+
+  /**
+   * Deletes the entries of files which are not part of the project anymore, e.g. files deleted while the project was closed.
+   */
+  public void retainAll(Collection<PythonInputFile> inputFiles) {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    Set<String> entryNames = inputFiles.stream()
+      .map(inputFile -> entryName(inputFile.wrappedFile().uri().toString()))
+      .collect(Collectors.toSet());
+    try (Stream<Path> entries = Files.list(directory)) {
+      for (Path entry : entries.filter(entry -> !entryNames.contains(entry.getFileName().toString())).toList()) {
+        Files.deleteIfExists(entry);
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to delete the stored descriptors of removed files");
+    }
+  }
+
+  private Path entryPath(String uri) {
+    return directory.resolve(entryName(uri));
+  }
+
+  private static String entryName(String uri) {
+    return hash(uri.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String contentHash(PythonInputFile inputFile) throws IOException {
+    return hash(inputFile.wrappedFile().contents().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String hash(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every Java platform
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Set<String> readStrings(DataInputStream input) throws IOException {
+    int size = input.readInt();
+    Set<String> strings = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      strings.add(input.readUTF());
+    }
+    return strings;
+  }
+
+  private static void writeStrings(DataOutputStream output, Set<String> strings) throws IOException {
+    output.writeInt(strings.size());
+    for (String string : strings) {
+      output.writeUTF(string);
+    }
+  }
+}
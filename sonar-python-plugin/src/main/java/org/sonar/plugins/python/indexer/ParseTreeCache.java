@@ -0,0 +1,86 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import com.sonar.sslr.api.AstNode;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.python.PythonInputFile;
+
+/**
+ * Hands the parse trees computed while indexing over to the rules execution, so that files are not parsed twice.
+ * <p>
+ * The memory retained by the cached trees is bounded by an estimate of their size, derived from the length of their source code.
+ * Trees are also only softly referenced, so that they are reclaimed under memory pressure, in which case the file is simply parsed again.
+ * As files are scanned in the same order as they are indexed, new trees are rejected once the cache is full rather than evicting
+ * older ones, which are the first to be requested. Each tree can be taken only once: it is then owned by the caller.
+ */
+public class ParseTreeCache {
+
+  // Measured on the Python sources of the rules tests: SSLR trees retain about 66 bytes per character of source code
+  static final long ESTIMATED_BYTES_PER_CHARACTER = 70;
+
+  private final long maxCachedBytes;
+  private final Map<URI, Entry> entries = new HashMap<>();
+  private long cachedBytes = 0;
+
+  public ParseTreeCache(long maxCachedBytes) {
+    this.maxCachedBytes = maxCachedBytes;
+  }
+
+  public synchronized void put(PythonInputFile inputFile, String contents, AstNode astNode) {
+    if (cachedBytes + estimatedSize(contents) > maxCachedBytes) {
+      return;
+    }
+    Entry previous = entries.put(inputFile.wrappedFile().uri(), new Entry(contents, new SoftReference<>(astNode)));
+    if (previous != null) {
+      cachedBytes -= estimatedSize(previous.contents);
+    }
+    cachedBytes += estimatedSize(contents);
+  }
+
+  /**
+   * Returns the tree of the given file if it is still available and has been computed from the same contents.
+   */
+  @CheckForNull
+  public synchronized AstNode take(PythonInputFile inputFile, String contents) {
+    Entry entry = entries.remove(inputFile.wrappedFile().uri());
+    if (entry == null) {
+      return null;
+    }
+    cachedBytes -= estimatedSize(entry.contents);
+    return entry.contents.equals(contents) ? entry.astNode.get() : null;
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    cachedBytes = 0;
+  }
+
+  private static long estimatedSize(String contents) {
+    return contents.length() * ESTIMATED_BYTES_PER_CHARACTER;
+  }
+
+  private record Entry(String contents, SoftReference<AstNode> astNode) {
+  }
+}
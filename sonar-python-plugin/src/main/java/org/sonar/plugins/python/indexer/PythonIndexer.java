@@ -25,21 +25,28 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.plugins.python.ParallelFileParser;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.Scanner;
 import org.sonar.plugins.python.SonarQubePythonFile;
+import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleDescriptors;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
 import org.sonar.python.semantic.v2.TypeShed;
 import org.sonar.python.tree.PythonTreeMaker;
 
@@ -48,6 +55,8 @@ import static org.sonar.python.semantic.SymbolUtils.pythonPackageName;
 public abstract class PythonIndexer {
 
   private static final Logger LOG = LoggerFactory.getLogger(PythonIndexer.class);
+  // Parse trees waiting to be reused by the rules execution retain at most a tenth of the heap
+  private static final long MAX_CACHED_PARSE_TREE_BYTES = Runtime.getRuntime().maxMemory() / 10;
 
   protected String projectBaseDirAbsolutePath;
 
@@ -55,6 +64,9 @@ public abstract class PythonIndexer {
   private final PythonParser parser = PythonParser.create();
   private final ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
   private final TypeShed typeShed = new TypeShed(projectLevelSymbolTable);
+  private final ParseTreeCache parseTreeCache = new ParseTreeCache(MAX_CACHED_PARSE_TREE_BYTES);
+  private ProjectLevelTypeTable projectLevelTypeTable;
+  private Set<PythonVersionUtils.Version> projectLevelTypeTablePythonVersions;
 
   public ProjectLevelSymbolTable projectLevelSymbolTable() {
     return projectLevelSymbolTable;
@@ -64,6 +76,37 @@ public abstract class PythonIndexer {
     return typeShed;
   }
 
+  /**
+   * Types resolved from the project-level symbol table and TypeShed, shared by all the analyzed files until the project-level symbol table
+   * or the Python versions of the project change.
+   */
+  public synchronized ProjectLevelTypeTable projectLevelTypeTable() {
+    Set<PythonVersionUtils.Version> pythonVersions = ProjectPythonVersion.currentVersions();
+    if (projectLevelTypeTable == null || !pythonVersions.equals(projectLevelTypeTablePythonVersions)) {
+      projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable, typeShed);
+      projectLevelTypeTablePythonVersions = pythonVersions;
+    }
+    return projectLevelTypeTable;
+  }
+
+  protected synchronized void projectLevelSymbolTableChanged() {
+    projectLevelTypeTable = null;
+  }
+
+  /**
+   * Parse trees computed during the global symbols computation, which can be reused once by the rules execution.
+   */
+  public ParseTreeCache parseTreeCache() {
+    return parseTreeCache;
+  }
+
+  /**
+   * Only the trees of the files on which the rules are executed after indexing are worth caching.
+   */
+  protected boolean isScannedAfterIndexing(PythonInputFile inputFile) {
+    return false;
+  }
+
   public String packageName(PythonInputFile inputFile) {
     if (!packageNames.containsKey(inputFile.wrappedFile().uri())) {
       String name = pythonPackageName(inputFile.wrappedFile().file(), projectBaseDirAbsolutePath);
@@ -89,16 +132,63 @@ public abstract class PythonIndexer {
     }
     packageNames.remove(inputFile.wrappedFile().uri());
     projectLevelSymbolTable.removeModule(packageName, filename);
+    projectLevelSymbolTableChanged();
   }
 
   void addFile(PythonInputFile inputFile) throws IOException {
-    AstNode astNode = parser.parse(inputFile.wrappedFile().contents());
-    FileInput astRoot = new PythonTreeMaker().fileInput(astNode);
+    IndexedFile indexedFile = indexedFile(inputFile, parse(parser, inputFile));
+    addModule(inputFile, indexedFile.packageName(), indexedFile.moduleDescriptors());
+  }
+
+  /**
+   * Computes the descriptors of a file without modifying the project-level symbol table, so that it can run on any thread.
+   */
+  private IndexedFile indexedFile(PythonInputFile inputFile, FileInput astRoot) {
     String packageName = pythonPackageName(inputFile.wrappedFile().file(), projectBaseDirAbsolutePath);
+    PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
+    return new IndexedFile(packageName, ProjectLevelSymbolTable.moduleDescriptors(astRoot, packageName, pythonFile));
+  }
+
+  private IndexedFile parseAndIndex(PythonParser parser, PythonInputFile inputFile) throws IOException {
+    return indexedFile(inputFile, parseAndCache(parser, inputFile));
+  }
+
+  void addModule(PythonInputFile inputFile, String packageName, ModuleDescriptors moduleDescriptors) {
     packageNames.put(inputFile.wrappedFile().uri(), packageName);
     projectLevelSymbolTable.addProjectPackage(packageName);
-    PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
-    projectLevelSymbolTable.addModule(astRoot, packageName, pythonFile);
+    projectLevelSymbolTable.addModule(moduleDescriptors);
+    projectLevelSymbolTableChanged();
+  }
+
+  private static FileInput parse(PythonParser parser, PythonInputFile inputFile) throws IOException {
+    AstNode astNode = parse(parser, inputFile.wrappedFile().contents());
+    return makeTree(astNode, true);
+  }
+
+  private FileInput parseAndCache(PythonParser parser, PythonInputFile inputFile) throws IOException {
+    if (!isScannedAfterIndexing(inputFile)) {
+      return parse(parser, inputFile);
+    }
+    String contents = inputFile.wrappedFile().contents();
+    AstNode astNode = parse(parser, contents);
+    parseTreeCache.put(inputFile, contents, astNode);
+    // the cached tree is converted again by the scanner, so it must be left intact
+    return makeTree(astNode, false);
+  }
+
+  private static AstNode parse(PythonParser parser, String contents) {
+    AnalysisProfiler.Measure measure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_PARSING);
+    AstNode astNode = parser.parse(contents);
+    measure.stop();
+    return astNode;
+  }
+
+  private static FileInput makeTree(AstNode astNode, boolean releaseAstNodes) {
+    AnalysisProfiler.Measure measure = AnalysisProfiler.startPhase(AnalysisProfiler.PHASE_TREE_MAKING);
+    PythonTreeMaker treeMaker = new PythonTreeMaker();
+    FileInput fileInput = releaseAstNodes ? treeMaker.fileInputReleasingAstNodes(astNode) : treeMaker.fileInput(astNode);
+    measure.stop();
+    return fileInput;
   }
 
   public abstract void buildOnce(SensorContext context);
@@ -138,7 +228,14 @@ public abstract class PythonIndexer {
 
   public abstract CacheContext cacheContext();
 
-  class GlobalSymbolsScanner extends Scanner {
+  private record IndexedFile(String packageName, ModuleDescriptors moduleDescriptors) {
+  }
+
+  /**
+   * When files are parsed ahead, their descriptors are computed by the worker threads as well: only their merge into the project-level
+   * symbol table runs on the scanner thread.
+   */
+  class GlobalSymbolsScanner extends Scanner<IndexedFile> {
 
     protected GlobalSymbolsScanner(SensorContext context) {
       super(context);
@@ -153,10 +250,24 @@ public abstract class PythonIndexer {
     protected void scanFile(PythonInputFile inputFile) throws IOException {
       // Global Symbol Table is deactivated for Notebooks see: SONARPY-2021
       if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
-        addFile(inputFile);
+        IndexedFile indexedFile = parsedAhead(inputFile);
+        if (indexedFile == null) {
+          indexedFile = parseAndIndex(parser, inputFile);
+        }
+        addModule(inputFile, indexedFile.packageName(), indexedFile.moduleDescriptors());
       }
     }
 
+    @Override
+    protected ParallelFileParser<IndexedFile> createParallelFileParser(int threads) {
+      return new ParallelFileParser<>(threads, PythonParser::create, PythonIndexer.this::parseAndIndex);
+    }
+
+    @Override
+    protected boolean canBeParsedAhead(PythonInputFile file) {
+      return file.kind() == PythonInputFile.Kind.PYTHON;
+    }
+
     @Override
     protected void processException(Exception e, PythonInputFile file) {
       LOG.debug("Unable to construct project-level symbol table for file: {}", file);
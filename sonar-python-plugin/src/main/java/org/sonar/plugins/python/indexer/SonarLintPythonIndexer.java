@@ -20,9 +20,12 @@
 package org.sonar.plugins.python.indexer;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
@@ -38,6 +41,8 @@ import org.sonar.plugins.python.PythonInputFileImpl;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleDescriptors;
+import org.sonar.python.semantic.SymbolUtils;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileListener;
@@ -51,30 +56,64 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   private CacheContext cacheContext;
   private final Map<String, InputFile> indexedFiles = new HashMap<>();
   private static final Logger LOG = LoggerFactory.getLogger(SonarLintPythonIndexer.class);
-  private boolean shouldBuildProjectSymbolTable = true;
   private static final long DEFAULT_MAX_LINES_FOR_INDEXING = 300_000;
   private static final String MAX_LINES_PROPERTY = "sonar.python.sonarlint.indexing.maxlines";
+  private static final String STORE_DIRECTORY = "python-project-index";
+  // files which remain to be parsed for the project symbol table, "null" until the first analysis
+  private Deque<PythonInputFile> pendingFiles;
+  private ModuleDescriptorsStore store;
 
   public SonarLintPythonIndexer(ModuleFileSystem moduleFileSystem) {
     this.moduleFileSystem = moduleFileSystem;
   }
 
+  /**
+   * On the first analysis, modules which are unchanged since they were stored are loaded from the {@link ModuleDescriptorsStore}.
+   * The remaining files are then parsed, at most "sonar.python.sonarlint.indexing.maxlines" lines per analysis, to avoid performance issues
+   * for large projects: the project symbol table is completed over the next analyses, and is fully loaded from the store next time.
+   * At least one file is parsed per analysis, so that files larger than the limit are eventually indexed as well.
+   * <p>
+   * Until all files are indexed, analyses run against a partial project symbol table: symbols imported from modules which are not indexed yet
+   * are unknown, as for modules outside of the project, so that issues relying on them are only raised once these modules are indexed.
+   */
   @Override
   public void buildOnce(SensorContext context) {
-    if (!shouldBuildProjectSymbolTable) {
+    if (pendingFiles == null) {
+      this.projectBaseDirAbsolutePath = context.fileSystem().baseDir().getAbsolutePath();
+      this.store = new ModuleDescriptorsStore(context.fileSystem().workDir().toPath().resolve(STORE_DIRECTORY),
+        SonarQubePythonIndexer.getCacheVersion(context));
+      List<PythonInputFile> files = getInputFiles(moduleFileSystem);
+      collectPackageNames(files);
+      store.retainAll(files);
+      pendingFiles = new ArrayDeque<>();
+      files.stream().filter(file -> !loadFromStore(file)).forEach(pendingFiles::add);
+      LOG.debug("Project symbol table loaded from the store for {} out of {} files", files.size() - pendingFiles.size(), files.size());
+    }
+    if (pendingFiles.isEmpty()) {
       return;
     }
-    this.projectBaseDirAbsolutePath = context.fileSystem().baseDir().getAbsolutePath();
-    shouldBuildProjectSymbolTable = false;
-    List<PythonInputFile> files = getInputFiles(moduleFileSystem);
-    collectPackageNames(files);
-    long nLines = files.stream().map(PythonInputFile::wrappedFile).map(InputFile::lines).mapToLong(Integer::longValue).sum();
     long maxLinesForIndexing = context.config().getLong(MAX_LINES_PROPERTY).orElse(DEFAULT_MAX_LINES_FOR_INDEXING);
-    if (nLines > maxLinesForIndexing) {
-      // Avoid performance issues for large projects
-      LOG.debug("Project symbol table deactivated due to project size (total number of lines is {}, maximum for indexing is {})", nLines, maxLinesForIndexing);
+    List<PythonInputFile> files = new ArrayList<>();
+    long nLines = 0;
+    Iterator<PythonInputFile> pendingFilesIterator = pendingFiles.iterator();
+    while (pendingFilesIterator.hasNext()) {
+      PythonInputFile file = pendingFilesIterator.next();
+      // files which do not fit in the current analysis are left for the next ones
+      if (nLines + file.wrappedFile().lines() <= maxLinesForIndexing) {
+        nLines += file.wrappedFile().lines();
+        files.add(file);
+        pendingFilesIterator.remove();
+      }
+    }
+    if (files.isEmpty()) {
+      // all pending files are larger than the limit: the first one is indexed on its own
+      files.add(pendingFiles.poll());
+    }
+    if (!pendingFiles.isEmpty()) {
+      long nPendingLines = pendingFiles.stream().map(PythonInputFile::wrappedFile).mapToLong(InputFile::lines).sum();
+      LOG.debug("Project symbol table partially built due to project size ({} lines left to index, maximum for indexing is {} per analysis)",
+        nPendingLines, maxLinesForIndexing);
       LOG.debug("Update \"sonar.python.sonarlint.indexing.maxlines\" to set a different limit.");
-      return;
     }
     LOG.debug("Input files for indexing: {}", files);
     // computes "globalSymbolsByModuleName"
@@ -82,6 +121,21 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     globalSymbolsStep.execute(files, context);
   }
 
+  private boolean loadFromStore(PythonInputFile inputFile) {
+    if (inputFile.kind() != PythonInputFile.Kind.PYTHON) {
+      return false;
+    }
+    String packageName = packageName(inputFile);
+    ModuleDescriptors moduleDescriptors = store.read(inputFile, SymbolUtils.fullyQualifiedModuleName(packageName, inputFile.wrappedFile().filename()));
+    if (moduleDescriptors == null) {
+      return false;
+    }
+    // the module is not written back to the store, as it is unchanged
+    super.addModule(inputFile, packageName, moduleDescriptors);
+    indexedFiles.put(inputFile.wrappedFile().absolutePath(), inputFile.wrappedFile());
+    return true;
+  }
+
   // SonarLintCache has to be set lazily because SonarLintPythonIndex is injected in the PythonSensor
   @Override
   public void setSonarLintCache(@Nullable SonarLintCache sonarLintCache) {
@@ -111,15 +165,21 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   }
 
   @Override
-  void addFile(PythonInputFile inputFile) throws IOException {
-    super.addFile(inputFile);
+  void addModule(PythonInputFile inputFile, String packageName, ModuleDescriptors moduleDescriptors) {
+    super.addModule(inputFile, packageName, moduleDescriptors);
     indexedFiles.put(inputFile.wrappedFile().absolutePath(), inputFile.wrappedFile());
+    if (store != null) {
+      store.write(inputFile, moduleDescriptors);
+    }
   }
 
   @Override
   void removeFile(PythonInputFile inputFile) {
     super.removeFile(inputFile);
     indexedFiles.remove(inputFile.wrappedFile().absolutePath());
+    if (store != null) {
+      store.delete(inputFile);
+    }
   }
 
   @Override
@@ -131,14 +191,22 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
       return;
     }
     ModuleFileEvent.Type type = moduleFileEvent.getType();
-    if (type.equals(ModuleFileEvent.Type.DELETED) || type.equals(ModuleFileEvent.Type.MODIFIED)) {
+    if (pendingFiles != null) {
+      // the file is indexed below, or does not exist anymore
+      pendingFiles.removeIf(file -> file.wrappedFile().uri().equals(target.wrappedFile().uri()));
+    }
+    if (type.equals(ModuleFileEvent.Type.DELETED)) {
       removeFile(target);
     }
     if (type.equals(ModuleFileEvent.Type.CREATED) || type.equals(ModuleFileEvent.Type.MODIFIED)) {
       try {
+        // a modified module replaces its previous version in the project symbol table, so that it is never missing for concurrent analyses
         addFile(target);
       } catch (IOException e) {
         LOG.debug("Failed to load file \"{}\" ({}) to the project symbol table", target.wrappedFile().filename(), type);
+        if (type.equals(ModuleFileEvent.Type.MODIFIED)) {
+          removeFile(target);
+        }
       }
     }
   }
@@ -166,6 +166,7 @@ public class SonarQubePythonIndexer extends PythonIndexer {
 
   private void saveRetrievedDescriptors(String fileKey, Set<Descriptor> descriptors, Caching caching) {
     projectLevelSymbolTable().insertEntry(fileKey, descriptors);
+    projectLevelSymbolTableChanged();
     caching.copyFromPrevious(fileKey);
   }
 
@@ -224,12 +225,18 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     return fullySkippableFiles.contains(inputFile);
   }
 
+  @Override
+  protected boolean isScannedAfterIndexing(PythonInputFile inputFile) {
+    // the sensor executes the rules on the files it has indexed
+    return inputFileToFQN.containsKey(inputFile);
+  }
+
   @Override
   public CacheContext cacheContext() {
     return caching.cacheContext();
   }
 
-  private static String getCacheVersion(SensorContext context) {
+  static String getCacheVersion(SensorContext context) {
     String implementationVersion = getImplementationVersion(SonarQubePythonIndexer.class);
     var pythonVersions = context.config().getStringArray(PYTHON_VERSION_KEY);
     if (pythonVersions.length == 0) {
@@ -0,0 +1,82 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.tree.PythonTreeMaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelFileParserTest {
+
+  private static final ParallelFileParser.FileParser<FileInput> TREE_MAKER = (parser, file) -> new PythonTreeMaker().fileInput(parser.parse(file.contents()));
+
+  @Test
+  void parses_scheduled_files() throws IOException {
+    List<PythonInputFile> files = List.of(inputFile("a.py", "x = 1"), inputFile("b.py", "def f(): pass"), inputFile("c.py", "pass"));
+    try (ParallelFileParser<FileInput> fileParser = new ParallelFileParser<>(1, PythonParser::create, TREE_MAKER)) {
+      fileParser.schedule(files);
+      for (PythonInputFile file : files) {
+        FileInput fileInput = fileParser.parse(file);
+        assertThat(fileInput.statements().statements()).hasSize(1);
+      }
+    }
+  }
+
+  @Test
+  void unscheduled_file() throws IOException {
+    try (ParallelFileParser<FileInput> fileParser = new ParallelFileParser<>(2, PythonParser::create, TREE_MAKER)) {
+      fileParser.schedule(List.of());
+      assertThat(fileParser.parse(inputFile("a.py", "x = 1"))).isNull();
+    }
+  }
+
+  @Test
+  void exceptions_are_rethrown() {
+    PythonInputFile ioFailure = inputFile("a.py", "");
+    PythonInputFile runtimeFailure = inputFile("b.py", "");
+    PythonInputFile otherFailure = inputFile("c.py", "");
+    ParallelFileParser.FileParser<FileInput> failingParser = (parser, file) -> {
+      if (file == ioFailure) {
+        throw new IOException("io");
+      }
+      if (file == runtimeFailure) {
+        throw new IllegalArgumentException("runtime");
+      }
+      throw new AssertionError("other");
+    };
+    try (ParallelFileParser<FileInput> fileParser = new ParallelFileParser<>(2, PythonParser::create, failingParser)) {
+      fileParser.schedule(List.of(ioFailure, runtimeFailure, otherFailure));
+      assertThatThrownBy(() -> fileParser.parse(ioFailure)).isInstanceOf(IOException.class).hasMessage("io");
+      assertThatThrownBy(() -> fileParser.parse(runtimeFailure)).isInstanceOf(IllegalArgumentException.class).hasMessage("runtime");
+      assertThatThrownBy(() -> fileParser.parse(otherFailure)).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(AssertionError.class);
+    }
+  }
+
+  private static PythonInputFile inputFile(String name, String content) {
+    return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name).setContents(content).build());
+  }
+}
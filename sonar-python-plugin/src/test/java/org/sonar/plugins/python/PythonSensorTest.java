@@ -99,6 +99,7 @@ import org.sonar.python.api.PythonKeyword;
 import org.sonar.python.caching.CpdSerializer;
 import org.sonar.python.checks.CheckList;
 import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.profiling.AnalysisProfiler;
 import org.sonar.python.tree.TokenImpl;
 import org.sonar.python.types.TypeShed;
 import org.sonarsource.sonarlint.core.analysis.api.ClientInputFile;
@@ -506,20 +507,28 @@ class PythonSensorTest {
   }
 
   @Test
-  void no_indexer_when_project_too_large_sonarlint() {
+  void partial_indexer_when_project_too_large_sonarlint() {
     activeRules = new ActiveRulesBuilder()
       .addRule(new NewActiveRule.Builder()
         .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S930"))
         .build())
       .build();
-    context.setSettings(new MapSettings().setProperty("sonar.python.sonarlint.indexing.maxlines", 1));
+    context.setRuntime(SONARLINT_RUNTIME);
+    context.setSettings(new MapSettings().setProperty("sonar.python.sonarlint.indexing.maxlines", 4));
 
     PythonInputFile mainFile = inputFile("main.py");
-    PythonIndexer pythonIndexer = pythonIndexer(Collections.singletonList(mainFile));
+    // "mod.py" created but not added to context
+    PythonInputFile modFile = createInputFile("mod.py");
+    PythonIndexer pythonIndexer = pythonIndexer(Arrays.asList(mainFile, modFile));
     sensor(CUSTOM_RULES, pythonIndexer, analysisWarning).execute(context);
+    // "mod.add" is unknown while "mod.py" is not indexed: no issue rather than a wrong one
     assertThat(context.allIssues()).isEmpty();
-    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table deactivated due to project size (total number of lines is 4, maximum for indexing is 1)");
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table partially built due to project size (3 lines left to index, maximum for indexing is 4 per analysis)");
     assertThat(logTester.logs(Level.DEBUG)).contains("Update \"sonar.python.sonarlint.indexing.maxlines\" to set a different limit.");
+
+    // "mod.py" is indexed by the next analysis
+    sensor(CUSTOM_RULES, pythonIndexer, analysisWarning).execute(context);
+    assertThat(context.allIssues()).hasSize(1);
   }
 
   @Test
@@ -617,7 +626,7 @@ class PythonSensorTest {
     context.fileSystem().add(inputFile3);
     sensor().execute(context);
     assertThat(logTester.logs()).contains("Unable to parse file: parse_error.py");
-    assertThat(logTester.logs()).contains("Unable to analyze file: file2.py");
+    assertThat(logTester.logs()).contains("Unable to compute the measures, highlighting, symbols and duplications of file: file2.py");
     assertThat(context.highlightingTypeAt(inputFile1.key(), 1, 2)).isNotEmpty();
   }
 
@@ -651,6 +660,23 @@ class PythonSensorTest {
     assertThat(context.allIssues()).hasSize(2);
   }
 
+  @Test
+  void token_visitors_failure_does_not_prevent_issues() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+    context = Mockito.spy(context);
+    when(context.newHighlighting()).thenThrow(new IllegalStateException("Highlighting failure"));
+
+    inputFile(FILE_2);
+    sensor().execute(context);
+
+    assertThat(context.allIssues()).hasSize(1);
+    assertThat(logTester.logs(Level.WARN)).contains("Unable to compute the measures, highlighting, symbols and duplications of file: file2.py");
+  }
+
   @Test
   void test_exception_should_fail_analysis_if_configured_so() throws IOException {
     DefaultInputFile inputFile = (DefaultInputFile) spy(createInputFile(FILE_1).wrappedFile());
@@ -755,6 +781,44 @@ class PythonSensorTest {
     assertThat(location.line()).isEqualTo(2);
   }
 
+  @Test
+  void parallel_parsing() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "ParsingError"))
+        .build())
+      .build();
+
+    PythonInputFile inputFile1 = inputFile(FILE_1);
+    PythonInputFile inputFile2 = inputFile(FILE_2);
+    PythonInputFile parseErrorFile = inputFile("parse_error.py");
+    context.setSettings(new MapSettings().setProperty("sonar.python.analysis.threads", 2));
+    sensor().execute(context);
+
+    assertThat(context.allIssues()).extracting(issue -> issue.primaryLocation().inputComponent())
+      .containsExactly(parseErrorFile.wrappedFile());
+    assertThat(context.measure(inputFile1.wrappedFile().key(), CoreMetrics.NCLOC).value()).isEqualTo(22);
+    assertThat(context.measure(inputFile2.wrappedFile().key(), CoreMetrics.NCLOC).value()).isEqualTo(7);
+    assertThat(context.allAnalysisErrors()).hasSize(1);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Parsing files using 2 threads");
+  }
+
+  @Test
+  void parallel_parsing_failFast() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S5905"))
+        .build())
+      .build();
+
+    inputFile(FILE_INVALID_SYNTAX, Type.MAIN);
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.internal.analysis.failFast", true)
+      .setProperty("sonar.python.analysis.threads", 2));
+    PythonSensor sensor = sensor();
+    assertThatThrownBy(() -> sensor.execute(context)).isInstanceOf(IllegalStateException.class);
+  }
+
   @Test
   void cancelled_analysis() {
     PythonInputFile inputFile = inputFile(FILE_1);
@@ -824,6 +888,47 @@ class PythonSensorTest {
     assertThat(new String(Files.readAllBytes(defaultPerformanceFile), UTF_8)).contains("\"PythonSensor\"");
   }
 
+  @Test
+  void saving_performance_profile() throws IOException {
+    context.setSettings(new MapSettings().setProperty("sonar.python.performance.profile", "true"));
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile("main.py");
+    sensor().execute(context);
+    Path profileFile = workDir.resolve("sonar-python-performance-profile.json");
+    assertThat(profileFile).exists();
+    assertThat(new String(Files.readAllBytes(profileFile), UTF_8))
+      .contains("\"phases\"", "\"parsing\"", "\"rules\"", "\"checks\"", "OneStatementPerLineCheck", "PythonHighlighter", "\"slowestFiles\"", "main.py");
+    assertThat(AnalysisProfiler.current()).isNull();
+  }
+
+  @Test
+  void saving_performance_profile_without_work_dir() throws IOException {
+    Path projectDir = Files.createTempDirectory("project");
+    SensorContextTester projectContext = SensorContextTester.create(projectDir);
+    projectContext.fileSystem().setWorkDir(projectDir.resolve("missing"));
+    projectContext.setSettings(new MapSettings().setProperty("sonar.python.performance.profile", "true"));
+    activeRules = new ActiveRulesBuilder().build();
+
+    sensor().execute(projectContext);
+    Path profileFile = projectDir.resolve("sonar-python-performance-profile.json");
+    assertThat(profileFile).exists();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Writing the analysis profile to \"" + profileFile + "\"");
+  }
+
+  @Test
+  void saving_performance_profile_not_activated_by_default() {
+    activeRules = (new ActiveRulesBuilder()).build();
+
+    inputFile("main.py");
+    sensor().execute(context);
+    assertThat(workDir.resolve("sonar-python-performance-profile.json")).doesNotExist();
+  }
+
   @Test
   void test_using_cache() throws IOException {
     activeRules = new ActiveRulesBuilder()
@@ -189,4 +189,16 @@ class CachingTest {
     assertThat(caching.readProjectLevelSymbolTableEntry(module)).isNull();
     assertThat(logTester.logs(Level.DEBUG)).contains("Failed to deserialize project level symbol table entry for module: \"mod\"");
   }
+
+  @Test
+  void cacheVersionCheckedOnce() {
+    TestReadCache readCache = new TestReadCache();
+    readCache.put(Caching.CACHE_VERSION_KEY, "otherVersion".getBytes(StandardCharsets.UTF_8));
+    CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(new TestWriteCache()), new PythonReadCacheImpl(readCache));
+
+    Caching caching = new Caching(cacheContext, CACHE_VERSION);
+    assertThat(caching.isCacheVersionUpToDate()).isFalse();
+    assertThat(caching.isCacheVersionUpToDate()).isFalse();
+    assertThat(logTester.logs(Level.INFO)).filteredOn(log -> log.startsWith("The cache version has changed")).hasSize(1);
+  }
 }
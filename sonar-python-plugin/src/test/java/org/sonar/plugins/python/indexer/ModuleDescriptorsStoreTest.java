@@ -0,0 +1,132 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.PythonInputFileImpl;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleDescriptors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ModuleDescriptorsStoreTest {
+
+  @TempDir
+  Path storeDirectory;
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @Test
+  void stored_module_is_read_back() {
+    ModuleDescriptorsStore store = new ModuleDescriptorsStore(storeDirectory, "1.0");
+    PythonInputFile file = inputFile("mod.py", "x: int = 1");
+    store.write(file, moduleDescriptors("mod"));
+
+    ModuleDescriptors moduleDescriptors = store.read(file, "mod");
+    assertThat(moduleDescriptors).isNotNull();
+    assertThat(moduleDescriptors.fullyQualifiedModuleName()).isEqualTo("mod");
+    assertThat(moduleDescriptors.importedModulesFQN()).containsExactlyInAnyOrder("os", "pkg.other");
+    assertThat(moduleDescriptors.djangoViewsFQN()).containsExactly("mod.view");
+    assertThat(moduleDescriptors.descriptors()).extracting(Descriptor::name, Descriptor::fullyQualifiedName).containsExactly(tuple("x", "mod.x"));
+    assertThat(((VariableDescriptor) moduleDescriptors.descriptors().iterator().next()).annotatedType()).isEqualTo("int");
+
+    store.delete(file);
+    assertThat(store.read(file, "mod")).isNull();
+    store.delete(file);
+  }
+
+  @Test
+  void outdated_module_is_not_read() {
+    ModuleDescriptorsStore store = new ModuleDescriptorsStore(storeDirectory, "1.0");
+    store.write(inputFile("mod.py", "x: int = 1"), moduleDescriptors("mod"));
+
+    assertThat(store.read(inputFile("mod.py", "x: int = 2"), "mod")).isNull();
+    assertThat(store.read(inputFile("mod.py", "x: int = 1"), "pkg.mod")).isNull();
+    assertThat(store.read(inputFile("other.py", "x: int = 1"), "mod")).isNull();
+    assertThat(new ModuleDescriptorsStore(storeDirectory, "2.0").read(inputFile("mod.py", "x: int = 1"), "mod")).isNull();
+    assertThat(store.read(inputFile("mod.py", "x: int = 1"), "mod")).isNotNull();
+  }
+
+  @Test
+  void corrupted_module_is_not_read() throws IOException {
+    ModuleDescriptorsStore store = new ModuleDescriptorsStore(storeDirectory, "1.0");
+    PythonInputFile file = inputFile("mod.py", "x: int = 1");
+    store.write(file, moduleDescriptors("mod"));
+    try (var entries = Files.list(storeDirectory)) {
+      for (Path entry : entries.toList()) {
+        Files.write(entry, new byte[] {0, 3, 'a'});
+      }
+    }
+
+    assertThat(store.read(file, "mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to read the stored descriptors of module \"mod\"");
+  }
+
+  @Test
+  void module_is_not_stored_when_file_is_unreadable() throws IOException {
+    Path notADirectory = Files.createFile(storeDirectory.resolve("file"));
+    ModuleDescriptorsStore store = new ModuleDescriptorsStore(notADirectory, "1.0");
+    PythonInputFile file = inputFile("mod.py", "x: int = 1");
+    store.write(file, moduleDescriptors("mod"));
+
+    assertThat(store.read(file, "mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to store the descriptors of module \"mod\"");
+  }
+
+  @Test
+  void modules_of_other_files_are_deleted() {
+    ModuleDescriptorsStore store = new ModuleDescriptorsStore(storeDirectory, "1.0");
+    PythonInputFile file = inputFile("mod.py", "x: int = 1");
+    PythonInputFile otherFile = inputFile("other.py", "x: int = 1");
+    store.write(file, moduleDescriptors("mod"));
+    store.write(otherFile, moduleDescriptors("other"));
+
+    store.retainAll(List.of(file));
+    assertThat(store.read(file, "mod")).isNotNull();
+    assertThat(store.read(otherFile, "other")).isNull();
+
+    ModuleDescriptorsStore missingStore = new ModuleDescriptorsStore(storeDirectory.resolve("missing"), "1.0");
+    missingStore.retainAll(List.of(file));
+    assertThat(storeDirectory.resolve("missing")).doesNotExist();
+  }
+
+  private static ModuleDescriptors moduleDescriptors(String moduleName) {
+    Set<Descriptor> descriptors = Set.of(new VariableDescriptor("x", moduleName + ".x", "int"));
+    return new ModuleDescriptors(moduleName, descriptors, Set.of("os", "pkg.other"), Set.of(moduleName + ".view"));
+  }
+
+  private static PythonInputFile inputFile(String name, String contents) {
+    return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name).setContents(contents).build());
+  }
+}
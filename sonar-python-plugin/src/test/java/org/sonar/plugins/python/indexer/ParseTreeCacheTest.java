@@ -0,0 +1,79 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import com.sonar.sslr.api.AstNode;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.PythonInputFileImpl;
+import org.sonar.python.parser.PythonParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseTreeCacheTest {
+
+  private final PythonParser parser = PythonParser.create();
+
+  @Test
+  void tree_is_taken_once() {
+    ParseTreeCache cache = new ParseTreeCache(100 * ParseTreeCache.ESTIMATED_BYTES_PER_CHARACTER);
+    PythonInputFile file = inputFile("mod.py");
+    AstNode astNode = parser.parse("x = 1");
+    cache.put(file, "x = 1", astNode);
+
+    assertThat(cache.take(file, "x = 1")).isSameAs(astNode);
+    assertThat(cache.take(file, "x = 1")).isNull();
+  }
+
+  @Test
+  void outdated_tree_is_discarded() {
+    ParseTreeCache cache = new ParseTreeCache(100 * ParseTreeCache.ESTIMATED_BYTES_PER_CHARACTER);
+    PythonInputFile file = inputFile("mod.py");
+    cache.put(file, "x = 1", parser.parse("x = 1"));
+
+    assertThat(cache.take(file, "x = 2")).isNull();
+    assertThat(cache.take(file, "x = 1")).isNull();
+  }
+
+  @Test
+  void new_trees_are_rejected_when_full() {
+    ParseTreeCache cache = new ParseTreeCache(10 * ParseTreeCache.ESTIMATED_BYTES_PER_CHARACTER);
+    PythonInputFile file1 = inputFile("mod1.py");
+    PythonInputFile file2 = inputFile("mod2.py");
+    PythonInputFile file3 = inputFile("mod3.py");
+    cache.put(file1, "x = 1", parser.parse("x = 1"));
+    cache.put(file1, "x = 2", parser.parse("x = 2"));
+    cache.put(file2, "y = 1", parser.parse("y = 1"));
+    cache.put(file3, "z = 1", parser.parse("z = 1"));
+
+    assertThat(cache.take(file1, "x = 2")).isNotNull();
+    assertThat(cache.take(file2, "y = 1")).isNotNull();
+    assertThat(cache.take(file3, "z = 1")).isNull();
+
+    cache.put(file3, "z = 1", parser.parse("z = 1"));
+    cache.clear();
+    assertThat(cache.take(file3, "z = 1")).isNull();
+  }
+
+  private static PythonInputFile inputFile(String name) {
+    return new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", name).build());
+  }
+}
@@ -36,11 +36,14 @@ import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.plugins.python.Python;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.PythonInputFileImpl;
 import org.sonar.plugins.python.TestUtils;
+import org.sonar.plugins.python.api.ProjectPythonVersion;
+import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.caching.PythonReadCache;
@@ -48,11 +51,16 @@ import org.sonar.plugins.python.api.caching.PythonWriteCache;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.python.caching.DummyCache;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.types.v2.FunctionType;
+import org.sonar.python.types.v2.PythonType;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 class SonarLintPythonIndexerTest {
@@ -85,7 +93,7 @@ class SonarLintPythonIndexerTest {
   }
 
   @Test
-  void test_indexer() {
+  void test_indexer() throws IOException {
     assertThat(projectLevelSymbolTable.getSymbolsFromModule("main")).hasSize(1);
     assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod")).hasSize(1);
     Symbol modAddSymbol = projectLevelSymbolTable.getSymbol("mod.add");
@@ -93,6 +101,8 @@ class SonarLintPythonIndexerTest {
     assertThat(modAddSymbol.is(Symbol.Kind.FUNCTION)).isTrue();
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isFalse();
     assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isFalse();
+    // only the opened files are analyzed: the trees of the indexed files are not kept
+    assertThat(pythonIndexer.parseTreeCache().take(file1, file1.contents())).isNull();
   }
 
   @Test
@@ -146,6 +156,42 @@ class SonarLintPythonIndexerTest {
     assertThat(newFuncSymbol.is(Symbol.Kind.FUNCTION)).isTrue();
   }
 
+  @Test
+  void project_level_type_table_shared_until_symbols_change() throws IOException {
+    ProjectLevelTypeTable projectLevelTypeTable = pythonIndexer.projectLevelTypeTable();
+    assertThat(pythonIndexer.projectLevelTypeTable()).isSameAs(projectLevelTypeTable);
+
+    PythonInputFile file3 = createInputFile("added.py");
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.CREATED);
+    when(moduleFileEvent.getTarget()).thenReturn(file3.wrappedFile());
+    pythonIndexer.process(moduleFileEvent);
+    ProjectLevelTypeTable afterAddition = pythonIndexer.projectLevelTypeTable();
+    assertThat(afterAddition).isNotSameAs(projectLevelTypeTable);
+    assertThat(afterAddition.getType("added.new_func")).isInstanceOf(FunctionType.class);
+
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.DELETED);
+    pythonIndexer.process(moduleFileEvent);
+    assertThat(pythonIndexer.projectLevelTypeTable()).isNotSameAs(afterAddition);
+    assertThat(pythonIndexer.projectLevelTypeTable().getType("added.new_func")).isSameAs(PythonType.UNKNOWN);
+  }
+
+  @Test
+  void project_level_type_table_rebuilt_when_python_versions_change() {
+    // the versions may have been set by the tests of other classes
+    ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.allVersions());
+    ProjectLevelTypeTable projectLevelTypeTable = pythonIndexer.projectLevelTypeTable();
+    try {
+      ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromString("3.8"));
+      ProjectLevelTypeTable typeTableFor38 = pythonIndexer.projectLevelTypeTable();
+      assertThat(typeTableFor38).isNotSameAs(projectLevelTypeTable);
+      ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromString("3.8"));
+      assertThat(pythonIndexer.projectLevelTypeTable()).isSameAs(typeTableFor38);
+    } finally {
+      ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.allVersions());
+    }
+  }
+
   @Test
   void test_indexer_added_nonexistent_file() throws IOException {
     InputFile nonExistentFile = TestInputFileBuilder.create("moduleKey", "nonexistent.py")
@@ -177,6 +223,128 @@ class SonarLintPythonIndexerTest {
     assertThat(modAddSymbol).isNotNull();
   }
 
+  @Test
+  void test_indexer_modified_file_failing_to_load() throws IOException {
+    InputFile modifiedFile = spy(file2.wrappedFile());
+    doThrow(new IOException("unreadable")).when(modifiedFile).contents();
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.MODIFIED);
+    when(moduleFileEvent.getTarget()).thenReturn(modifiedFile);
+    pythonIndexer.process(moduleFileEvent);
+
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("main")).hasSize(1);
+    assertThat(projectLevelSymbolTable.getSymbolsFromModule("mod")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.add")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to load file \"mod.py\" (MODIFIED) to the project symbol table");
+  }
+
+  @Test
+  void unchanged_modules_loaded_from_store() {
+    SonarLintPythonIndexer otherIndexer = new SonarLintPythonIndexer(moduleFileSystem);
+    otherIndexer.buildOnce(context);
+
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table loaded from the store for 2 out of 2 files");
+    Symbol modAddSymbol = otherIndexer.projectLevelSymbolTable().getSymbol("mod.add");
+    assertThat(modAddSymbol).isNotNull();
+    assertThat(modAddSymbol.is(Symbol.Kind.FUNCTION)).isTrue();
+    assertThat(otherIndexer.getFileWithId(file2.wrappedFile().absolutePath())).isSameAs(file2.wrappedFile());
+  }
+
+  @Test
+  void modified_modules_parsed_again() {
+    PythonInputFile modifiedFile = new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", "mod.py")
+      .setModuleBaseDir(baseDir.toPath())
+      .setCharset(StandardCharsets.UTF_8)
+      .setType(InputFile.Type.MAIN)
+      .setLanguage(Python.KEY)
+      .setContents("def other(): pass\n")
+      .build());
+    SonarLintPythonIndexer otherIndexer = new SonarLintPythonIndexer(new TestModuleFileSystem(new ArrayList<>(List.of(file1, modifiedFile))));
+    otherIndexer.buildOnce(context);
+
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table loaded from the store for 1 out of 2 files");
+    assertThat(otherIndexer.projectLevelSymbolTable().getSymbol("mod.add")).isNull();
+    assertThat(otherIndexer.projectLevelSymbolTable().getSymbol("mod.other")).isNotNull();
+  }
+
+  @Test
+  void removed_modules_deleted_from_store() {
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.DELETED);
+    when(moduleFileEvent.getTarget()).thenReturn(file2.wrappedFile());
+    pythonIndexer.process(moduleFileEvent);
+
+    new SonarLintPythonIndexer(moduleFileSystem).buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table loaded from the store for 1 out of 2 files");
+  }
+
+  @Test
+  void large_project_indexed_over_several_analyses() throws IOException {
+    SensorContextTester largeProjectContext = largeProjectContext(4);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(largeProjectContext);
+
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Project symbol table partially built due to project size (3 lines left to index, maximum for indexing is 4 per analysis)")
+      .contains("Update \"sonar.python.sonarlint.indexing.maxlines\" to set a different limit.");
+
+    indexer.buildOnce(largeProjectContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).hasSize(1);
+  }
+
+  @Test
+  void files_larger_than_limit_do_not_block_indexing() throws IOException {
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    SensorContextTester largeProjectContext = largeProjectContext(3);
+    indexer.buildOnce(largeProjectContext);
+
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).isNull();
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).hasSize(1);
+
+    indexer.buildOnce(largeProjectContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+  }
+
+  @Test
+  void file_larger_than_limit_indexed_on_its_own() throws IOException {
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(largeProjectContext(1));
+
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Project symbol table partially built due to project size (3 lines left to index, maximum for indexing is 1 per analysis)");
+  }
+
+  @Test
+  void files_removed_from_project_deleted_from_store() {
+    SonarLintPythonIndexer otherIndexer = new SonarLintPythonIndexer(new TestModuleFileSystem(new ArrayList<>(List.of(file1))));
+    otherIndexer.buildOnce(context);
+
+    new SonarLintPythonIndexer(moduleFileSystem).buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project symbol table loaded from the store for 1 out of 2 files");
+  }
+
+  @Test
+  void pending_file_indexed_on_file_event() throws IOException {
+    SensorContextTester largeProjectContext = largeProjectContext(4);
+    SonarLintPythonIndexer indexer = new SonarLintPythonIndexer(moduleFileSystem);
+    indexer.buildOnce(largeProjectContext);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).isNull();
+
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.MODIFIED);
+    when(moduleFileEvent.getTarget()).thenReturn(file2.wrappedFile());
+    indexer.process(moduleFileEvent);
+    assertThat(indexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).hasSize(1);
+
+    logTester.clear();
+    indexer.buildOnce(largeProjectContext);
+    assertThat(logTester.logs(Level.DEBUG)).noneMatch(log -> log.startsWith("Input files for indexing"));
+  }
+
   @Test
   void test_indexer_non_python_file() {
     testNonPythonFile("txt");
@@ -212,6 +380,13 @@ class SonarLintPythonIndexerTest {
     }
   }
 
+  private SensorContextTester largeProjectContext(int maxLines) throws IOException {
+    SensorContextTester largeProjectContext = SensorContextTester.create(baseDir);
+    largeProjectContext.fileSystem().setWorkDir(Files.createTempDirectory("workDir"));
+    largeProjectContext.setSettings(new MapSettings().setProperty("sonar.python.sonarlint.indexing.maxlines", maxLines));
+    return largeProjectContext;
+  }
+
   private void testNonPythonFile(@Nullable String language) {
     ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
     PythonInputFile txtFile = createInputFile("non_python.txt", language);
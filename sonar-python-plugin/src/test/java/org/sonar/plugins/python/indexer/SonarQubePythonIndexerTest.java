@@ -393,7 +393,7 @@ class SonarQubePythonIndexerTest {
   }
 
   @Test
-  void test_disabled_cache() {
+  void test_disabled_cache() throws IOException {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
     file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
 
@@ -406,6 +406,8 @@ class SonarQubePythonIndexerTest {
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isFalse();
     assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
     assertThat(logTester.logs(Level.INFO)).doesNotContain("Using cached data to retrieve global symbols.");
+    assertThat(pythonIndexer.parseTreeCache().take(file1, file1.contents())).isNotNull();
+    assertThat(pythonIndexer.parseTreeCache().take(file2, file2.contents())).isNotNull();
   }
 
   @Test
@@ -489,6 +491,26 @@ class SonarQubePythonIndexerTest {
     assertThat(pythonIndexer.projectLevelSymbolTable().getSymbolsFromModule("notebook")).isEmpty();
   }
 
+  @Test
+  void test_parallel_global_symbols_computation() throws IOException {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    PythonInputFile notebook = createInputFile(baseDir, "notebook.ipynb", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+    List<PythonInputFile> inputFiles = new ArrayList<>(List.of(file1, notebook, file2));
+
+    context.settings().setProperty("sonar.python.analysis.threads", 2);
+    cacheContext = new CacheContextImpl(false, new PythonWriteCacheImpl(new TestWriteCache()), new PythonReadCacheImpl(new TestReadCache()));
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.projectLevelSymbolTable().getSymbolsFromModule("main")).isNotEmpty();
+    assertThat(pythonIndexer.projectLevelSymbolTable().getSymbolsFromModule("mod")).isNotEmpty();
+    assertThat(pythonIndexer.projectLevelSymbolTable().getSymbolsFromModule("notebook")).isEmpty();
+    assertThat(pythonIndexer.projectLevelSymbolTable().importsByModule()).containsEntry("main", Set.of("mod.add"));
+    assertThat(logTester.logs(Level.DEBUG)).contains("Parsing files using 2 threads");
+    assertThat(pythonIndexer.parseTreeCache().take(file1, file1.contents())).isNotNull();
+  }
+
   private byte[] importsAsByteArray(List<String> mod) {
     return String.join(";", mod).getBytes(StandardCharsets.UTF_8);
   }